@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ */
+package com.farao_community.farao.gridcapa_core_valid_benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks jar: runs JMH with the given command line options, always adding the gc profiler
+ * so that allocation rates are reported next to throughputs.
+ * <pre>
+ * mvn -pl gridcapa-core-valid-benchmarks -am package
+ * java -jar gridcapa-core-valid-benchmarks/target/benchmarks.jar [JMH options, e.g. Projection -p branchCount=1000]
+ * </pre>
+ */
+public final class BenchmarksRunner {
+
+    private BenchmarksRunner() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    public static void main(final String[] args) throws CommandLineOptionException, RunnerException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ */
+package com.farao_community.farao.gridcapa_core_valid_benchmarks;
+
+import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.CoreHub;
+import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.CoreHubUtils;
+import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.HubRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CoreHubUtilsBenchmark {
+
+    @Param({"14", "28"})
+    public int hubCount;
+
+    private List<CoreHub> coreHubs;
+    private HubRegistry hubRegistry;
+
+    @Setup
+    public void setUp() {
+        coreHubs = SyntheticData.coreHubs(hubCount);
+        hubRegistry = HubRegistry.of(coreHubs);
+    }
+
+    @Benchmark
+    public Map<String, String> getFlowBasedToVertexCodeMap() {
+        return CoreHubUtils.getFlowBasedToVertexCodeMap(coreHubs);
+    }
+
+    @Benchmark
+    public Map<String, String> hubRegistryFlowBasedToVertexCodeMap() {
+        return hubRegistry.flowBasedToVertexCodeMap();
+    }
+
+    @Benchmark
+    public HubRegistry buildHubRegistry() {
+        return HubRegistry.of(coreHubs);
+    }
+}
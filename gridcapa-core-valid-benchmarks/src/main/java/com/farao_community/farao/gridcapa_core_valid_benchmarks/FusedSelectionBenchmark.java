@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ */
+package com.farao_community.farao.gridcapa_core_valid_benchmarks;
+
+import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.CoreHub;
+import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.HubRegistry;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.CompiledFlowBasedDomain;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.ProjectionEngine;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.ProjectionParameters;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.Vertex;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.VerticesUtils;
+import com.farao_community.farao.gridcapa_core_valid_intraday.app.services.VerticesSelector;
+import com.powsybl.openrao.data.refprog.referenceprogram.ReferenceProgram;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Import, projection and n-sphere selection of a vertices file, stage by stage or fused while the file is read,
+ * both projecting in the calling thread.
+ * Run with {@code -prof gc} to compare allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class FusedSelectionBenchmark {
+    private static final ProjectionParameters PROJECTION_PARAMETERS = ProjectionParameters.sequential(ProjectionEngine.FIXED_POINT);
+
+    @Param({"10000", "100000"})
+    public int vertexCount;
+
+    @Param({"100"})
+    public int branchCount;
+
+    @Param({"14"})
+    public int hubCount;
+
+    @Param({"10", "1000"})
+    public int selectedCount;
+
+    @Param({"20000"})
+    public double radius;
+
+    private List<CoreHub> coreHubs;
+    private byte[] verticesCsv;
+    private CompiledFlowBasedDomain compiledDomain;
+    private ReferenceProgram referenceProgram;
+    private VerticesSelector verticesSelector;
+
+    @Setup
+    public void setUp() {
+        coreHubs = SyntheticData.coreHubs(hubCount);
+        verticesCsv = SyntheticData.verticesCsv(coreHubs, vertexCount, 1L);
+        compiledDomain = CompiledFlowBasedDomain.compile(SyntheticData.branches(coreHubs, branchCount, 2L), coreHubs);
+        referenceProgram = SyntheticData.referenceProgram(coreHubs, 3L);
+        verticesSelector = new VerticesSelector(HubRegistry.of(coreHubs));
+    }
+
+    @Benchmark
+    public List<Vertex> selectByStage() {
+        final List<Vertex> vertices = VerticesUtils.importVertices(new ByteArrayInputStream(verticesCsv), coreHubs);
+        final List<Vertex> projectedVertices = compiledDomain.getVerticesProjectedOnDomain(vertices, PROJECTION_PARAMETERS);
+        return verticesSelector.selectVerticesWithinNSphere(projectedVertices, referenceProgram, radius, selectedCount);
+    }
+
+    @Benchmark
+    public List<Vertex> selectWhileReading() {
+        return verticesSelector.selectVerticesWithinNSphere(new ByteArrayInputStream(verticesCsv), compiledDomain, PROJECTION_PARAMETERS, referenceProgram, radius, selectedCount);
+    }
+}
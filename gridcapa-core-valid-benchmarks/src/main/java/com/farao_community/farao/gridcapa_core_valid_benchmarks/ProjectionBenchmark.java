@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ */
+package com.farao_community.farao.gridcapa_core_valid_benchmarks;
+
+import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.CoreHub;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.CompiledFlowBasedDomain;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.FlowBasedDomainBranchData;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.ProjectionEngine;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.ProjectionParameters;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.Vertex;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.VerticesUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ProjectionBenchmark {
+
+    @Param({"10000", "100000"})
+    public int vertexCount;
+
+    @Param({"100", "1000"})
+    public int branchCount;
+
+    @Param({"14"})
+    public int hubCount;
+
+    @Param({"FIXED_POINT", "BIG_DECIMAL"})
+    public ProjectionEngine engine;
+
+    private List<CoreHub> coreHubs;
+    private List<Vertex> vertices;
+    private List<FlowBasedDomainBranchData> branches;
+    private CompiledFlowBasedDomain compiledDomain;
+    private ProjectionParameters parameters;
+
+    @Setup
+    public void setUp() {
+        coreHubs = SyntheticData.coreHubs(hubCount);
+        vertices = VerticesUtils.importVertices(new ByteArrayInputStream(SyntheticData.verticesCsv(coreHubs, vertexCount, 1L)), coreHubs);
+        branches = SyntheticData.branches(coreHubs, branchCount, 2L);
+        compiledDomain = CompiledFlowBasedDomain.compile(branches, coreHubs);
+        parameters = ProjectionParameters.sequential(engine);
+    }
+
+    @Benchmark
+    public List<Vertex> getVerticesProjectedOnDomain() {
+        return VerticesUtils.getVerticesProjectedOnDomain(vertices, branches, coreHubs, parameters);
+    }
+
+    @Benchmark
+    public List<Vertex> getVerticesProjectedOnCompiledDomain() {
+        return compiledDomain.getVerticesProjectedOnDomain(vertices, parameters);
+    }
+}
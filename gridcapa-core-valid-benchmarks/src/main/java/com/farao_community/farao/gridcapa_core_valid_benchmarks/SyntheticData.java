@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ */
+package com.farao_community.farao.gridcapa_core_valid_benchmarks;
+
+import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.CoreHub;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.FlowBasedDomainBranchData;
+import com.powsybl.openrao.data.refprog.referenceprogram.ReferenceProgram;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Seeded generators of benchmark inputs, shaped like the real Core data: the hubs are the ones configured in the
+ * application.yml of the application, vertices and net positions are in the usual MW ranges and PTDFs have 5 decimals.
+ */
+public final class SyntheticData {
+
+    private static final String CORE_HUBS_PROPERTY = "core-valid-commons.core-hubs";
+    private static final int MAX_NET_POSITION = 8_000;
+    private static final int MAX_HVDC_NET_POSITION = 1_000;
+    private static final int MAX_PTDF = 30_000;
+    private static final int PTDF_SCALE = 5;
+
+    private SyntheticData() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * @return the Core hubs of application.yml, truncated to {@code hubCount} or completed with synthetic HVDC hubs
+     */
+    public static List<CoreHub> coreHubs(final int hubCount) {
+        final List<CoreHub> configuredHubs = configuredCoreHubs();
+        final List<CoreHub> coreHubs = new ArrayList<>(configuredHubs.subList(0, Math.min(hubCount, configuredHubs.size())));
+        for (int hub = coreHubs.size(); hub < hubCount; hub++) {
+            coreHubs.add(new CoreHub("Hub HVDC " + hub, "HVDC_" + hub, "PTDF_HVDC_" + hub, "HVDC" + hub + "-CORE", "HVDC_" + hub, true, 1));
+        }
+        return List.copyOf(coreHubs);
+    }
+
+    /**
+     * @return a vertices CSV file, HVDC coordinates being left blank when null as in the real files
+     */
+    public static byte[] verticesCsv(final List<CoreHub> coreHubs,
+                                     final int vertexCount,
+                                     final long seed) {
+        final Random random = new Random(seed);
+        final StringBuilder csv = new StringBuilder(vertexCount * coreHubs.size() * 6);
+        csv.append("Vertex ID");
+        coreHubs.forEach(hub -> csv.append(',').append(hub.clusterVerticeCode()));
+        csv.append('\n');
+        for (int vertexId = 1; vertexId <= vertexCount; vertexId++) {
+            csv.append(vertexId);
+            for (final CoreHub hub : coreHubs) {
+                csv.append(',');
+                final int coordinate = netPosition(random, hub);
+                if (!hub.isHvdcHub() || coordinate != 0) {
+                    csv.append(coordinate);
+                }
+            }
+            csv.append('\n');
+        }
+        return csv.toString().getBytes(UTF_8);
+    }
+
+    public static List<FlowBasedDomainBranchData> branches(final List<CoreHub> coreHubs,
+                                                           final int branchCount,
+                                                           final long seed) {
+        final Random random = new Random(seed);
+        final List<FlowBasedDomainBranchData> branches = new ArrayList<>(branchCount);
+        for (int branch = 0; branch < branchCount; branch++) {
+            final Map<String, BigDecimal> ptdfValues = new HashMap<>();
+            for (final CoreHub hub : coreHubs) {
+                ptdfValues.put(hub.flowbasedCode(), BigDecimal.valueOf(random.nextInt(-MAX_PTDF, MAX_PTDF + 1), PTDF_SCALE));
+            }
+            branches.add(new SyntheticBranch("CNEC_" + branch, random.nextInt(200, 3_000), random.nextInt(0, 300), ptdfValues));
+        }
+        return branches;
+    }
+
+    public static ReferenceProgram referenceProgram(final List<CoreHub> coreHubs,
+                                                    final long seed) {
+        final Random random = new Random(seed);
+        final Map<String, Double> netPositions = new HashMap<>();
+        for (final CoreHub hub : coreHubs) {
+            netPositions.put(hub.forecastCode(), (double) netPosition(random, hub));
+        }
+        return new SyntheticReferenceProgram(netPositions);
+    }
+
+    private static int netPosition(final Random random,
+                                   final CoreHub hub) {
+        final int bound = hub.isHvdcHub() ? MAX_HVDC_NET_POSITION : MAX_NET_POSITION;
+        return random.nextInt(-bound, bound + 1);
+    }
+
+    private static List<CoreHub> configuredCoreHubs() {
+        try {
+            final Binder binder = new Binder(ConfigurationPropertySources.from(
+                    new YamlPropertySourceLoader().load("application.yml", new ClassPathResource("application.yml"))));
+            return binder.bind(CORE_HUBS_PROPERTY, Bindable.listOf(CoreHub.class))
+                    .orElseThrow(() -> new IllegalStateException("No %s found in application.yml".formatted(CORE_HUBS_PROPERTY)));
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record SyntheticBranch(String getId, int getRam0Core, int getAmr, Map<String, BigDecimal> getPtdfValues) implements FlowBasedDomainBranchData {
+    }
+
+    private static final class SyntheticReferenceProgram extends ReferenceProgram {
+        private final Map<String, Double> netPositions;
+
+        private SyntheticReferenceProgram(final Map<String, Double> netPositions) {
+            super(new ArrayList<>());
+            this.netPositions = Map.copyOf(netPositions);
+        }
+
+        @Override
+        public double getGlobalNetPosition(final String area) {
+            return netPositions.getOrDefault(area, 0.0);
+        }
+    }
+}
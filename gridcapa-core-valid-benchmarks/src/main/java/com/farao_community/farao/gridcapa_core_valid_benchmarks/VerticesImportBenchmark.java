@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ */
+package com.farao_community.farao.gridcapa_core_valid_benchmarks;
+
+import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.CoreHub;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.Vertex;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.VertexSet;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.VertexSetFiles;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.VerticesUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class VerticesImportBenchmark {
+
+    @Param({"10000", "100000"})
+    public int vertexCount;
+
+    @Param({"14"})
+    public int hubCount;
+
+    private List<CoreHub> coreHubs;
+    private byte[] verticesCsv;
+    private Path vertexSetFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        coreHubs = SyntheticData.coreHubs(hubCount);
+        verticesCsv = SyntheticData.verticesCsv(coreHubs, vertexCount, 1L);
+        vertexSetFile = Files.createTempFile("vertices", ".vtx");
+        VertexSetFiles.write(VerticesUtils.importVertexSet(new ByteArrayInputStream(verticesCsv), coreHubs), vertexSetFile);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(vertexSetFile);
+    }
+
+    @Benchmark
+    public List<Vertex> importVertices() {
+        return VerticesUtils.importVertices(new ByteArrayInputStream(verticesCsv), coreHubs);
+    }
+
+    @Benchmark
+    public long forEachVertex() {
+        return VerticesUtils.forEachVertex(new ByteArrayInputStream(verticesCsv), coreHubs, vertex -> { });
+    }
+
+    @Benchmark
+    public VertexSet importVertexSet() {
+        return VerticesUtils.importVertexSet(new ByteArrayInputStream(verticesCsv), coreHubs);
+    }
+
+    @Benchmark
+    public VertexSet readVertexSetFile() throws IOException {
+        return VertexSetFiles.read(vertexSetFile);
+    }
+}
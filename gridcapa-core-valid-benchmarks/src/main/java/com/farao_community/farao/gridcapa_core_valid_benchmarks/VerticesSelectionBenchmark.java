@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ */
+package com.farao_community.farao.gridcapa_core_valid_benchmarks;
+
+import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.CoreHub;
+import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.CoreHubsConfiguration;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.Vertex;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.VerticesUtils;
+import com.farao_community.farao.gridcapa_core_valid_intraday.app.services.ApproximateVerticesIndex;
+import com.farao_community.farao.gridcapa_core_valid_intraday.app.services.VerticesIndex;
+import com.farao_community.farao.gridcapa_core_valid_intraday.app.services.VerticesSelector;
+import com.powsybl.openrao.data.refprog.referenceprogram.ReferenceProgram;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class VerticesSelectionBenchmark {
+
+    @Param({"10000", "100000"})
+    public int vertexCount;
+
+    @Param({"14"})
+    public int hubCount;
+
+    @Param({"10", "1000"})
+    public int selectedCount;
+
+    /**
+     * Radius of the n-sphere, large enough for a fair share of the synthetic vertices to be inside.
+     */
+    @Param({"20000"})
+    public double radius;
+
+    private List<Vertex> vertices;
+    private ReferenceProgram referenceProgram;
+    private VerticesSelector verticesSelector;
+    private VerticesIndex verticesIndex;
+    private ApproximateVerticesIndex approximateVerticesIndex;
+
+    @Setup
+    public void setUp() {
+        final List<CoreHub> coreHubs = SyntheticData.coreHubs(hubCount);
+        final CoreHubsConfiguration coreHubsConfiguration = new CoreHubsConfiguration();
+        coreHubsConfiguration.getCoreHubs().addAll(coreHubs);
+        vertices = VerticesUtils.importVertices(new ByteArrayInputStream(SyntheticData.verticesCsv(coreHubs, vertexCount, 1L)), coreHubs);
+        referenceProgram = SyntheticData.referenceProgram(coreHubs, 3L);
+        verticesSelector = new VerticesSelector(coreHubsConfiguration);
+        verticesIndex = verticesSelector.index(vertices);
+        approximateVerticesIndex = verticesSelector.approximateIndex(vertices);
+    }
+
+    @Benchmark
+    public List<Vertex> selectVerticesWithinNSphere() {
+        return verticesSelector.selectVerticesWithinNSphere(vertices, referenceProgram, radius, selectedCount);
+    }
+
+    @Benchmark
+    public List<Vertex> selectClosestVertices() {
+        return verticesSelector.selectClosestVertices(vertices, referenceProgram, selectedCount);
+    }
+
+    @Benchmark
+    public List<Vertex> selectVerticesWithinNSphereFromIndex() {
+        return verticesSelector.selectVerticesWithinNSphere(verticesIndex, referenceProgram, radius, selectedCount);
+    }
+
+    @Benchmark
+    public List<Vertex> selectClosestVerticesFromIndex() {
+        return verticesSelector.selectClosestVertices(verticesIndex, referenceProgram, selectedCount);
+    }
+
+    @Benchmark
+    public VerticesIndex index() {
+        return verticesSelector.index(vertices);
+    }
+
+    /**
+     * Only measures the time of the approximate selection: its recall is checked by ApproximateVerticesIndexTest.
+     */
+    @Benchmark
+    public List<Vertex> selectClosestVerticesApproximately() {
+        return verticesSelector.selectClosestVertices(approximateVerticesIndex, referenceProgram, selectedCount);
+    }
+
+    @Benchmark
+    public ApproximateVerticesIndex approximateIndex() {
+        return verticesSelector.approximateIndex(vertices);
+    }
+}
@@ -7,6 +7,7 @@
 package com.farao_community.farao.gridcapa_core_valid_commons.core_hub;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.util.ArrayList;
@@ -23,4 +24,12 @@ public class CoreHubsConfiguration {
     public List<CoreHub> getCoreHubs() {
         return coreHubs;
     }
+
+    /**
+     * Registry shared by every service, built once the hubs have been bound.
+     */
+    @Bean
+    public HubRegistry hubRegistry() {
+        return HubRegistry.of(this);
+    }
 }
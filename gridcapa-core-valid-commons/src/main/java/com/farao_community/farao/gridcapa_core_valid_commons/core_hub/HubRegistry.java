@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa_core_valid_commons.core_hub;
+
+import com.farao_community.farao.gridcapa_core_valid_commons.exception.CoreValidCommonsInvalidDataException;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable registry of the configured hubs, built once from {@link CoreHubsConfiguration}.
+ * <p>
+ * Each hub gets an ordinal, its position in the configuration, and every code of the hub (ramcep2, flow-based, forecast
+ * and vertex codes) is translated to that ordinal once, so that hot loops index arrays instead of hashing strings.
+ * Any hub added to the configuration, HVDC hubs included, is registered the same way.
+ */
+public final class HubRegistry {
+
+    /**
+     * Ordinal returned for a code that belongs to no hub.
+     */
+    public static final int UNKNOWN = -1;
+
+    private final List<CoreHub> coreHubs;
+    private final String[] ramcep2Codes;
+    private final String[] flowbasedCodes;
+    private final String[] forecastCodes;
+    private final String[] vertexCodes;
+    private final double[] coefficients;
+    private final int[] hvdcOrdinals;
+    private final Map<String, Integer> ramcep2Ordinals;
+    private final Map<String, Integer> flowbasedOrdinals;
+    private final Map<String, Integer> forecastOrdinals;
+    private final Map<String, Integer> vertexOrdinals;
+    private final Map<String, String> flowBasedToVertexCodeMap;
+
+    private HubRegistry(final List<CoreHub> coreHubs) {
+        this.coreHubs = List.copyOf(coreHubs);
+        this.ramcep2Codes = codes(CoreHub::ramcep2Code);
+        this.flowbasedCodes = codes(CoreHub::flowbasedCode);
+        this.forecastCodes = codes(CoreHub::forecastCode);
+        this.vertexCodes = codes(CoreHub::clusterVerticeCode);
+        this.coefficients = this.coreHubs.stream().mapToDouble(CoreHub::coefficient).toArray();
+        this.hvdcOrdinals = IntStream.range(0, this.coreHubs.size()).filter(hub -> this.coreHubs.get(hub).isHvdcHub()).toArray();
+        this.ramcep2Ordinals = ordinals("ramcep2", ramcep2Codes);
+        this.flowbasedOrdinals = ordinals("flow-based", flowbasedCodes);
+        this.forecastOrdinals = ordinals("forecast", forecastCodes);
+        this.vertexOrdinals = ordinals("vertex", vertexCodes);
+        final Map<String, String> flowBasedToVertexCodes = new HashMap<>();
+        for (int hub = 0; hub < this.coreHubs.size(); hub++) {
+            if (flowbasedCodes[hub] != null && vertexCodes[hub] != null) {
+                flowBasedToVertexCodes.put(flowbasedCodes[hub], vertexCodes[hub]);
+            }
+        }
+        this.flowBasedToVertexCodeMap = Map.copyOf(flowBasedToVertexCodes);
+    }
+
+    /**
+     * @throws CoreValidCommonsInvalidDataException if two hubs share a code
+     */
+    public static HubRegistry of(final List<CoreHub> coreHubs) {
+        return new HubRegistry(coreHubs);
+    }
+
+    public static HubRegistry of(final CoreHubsConfiguration coreHubsConfiguration) {
+        return of(coreHubsConfiguration.getCoreHubs());
+    }
+
+    public int size() {
+        return coreHubs.size();
+    }
+
+    public List<CoreHub> getCoreHubs() {
+        return coreHubs;
+    }
+
+    public CoreHub hub(final int ordinal) {
+        return coreHubs.get(ordinal);
+    }
+
+    public int ordinalOfRamcep2Code(final String ramcep2Code) {
+        return ordinalOf(ramcep2Ordinals, ramcep2Code);
+    }
+
+    public int ordinalOfFlowbasedCode(final String flowbasedCode) {
+        return ordinalOf(flowbasedOrdinals, flowbasedCode);
+    }
+
+    public int ordinalOfForecastCode(final String forecastCode) {
+        return ordinalOf(forecastOrdinals, forecastCode);
+    }
+
+    public int ordinalOfVertexCode(final String vertexCode) {
+        return ordinalOf(vertexOrdinals, vertexCode);
+    }
+
+    public String ramcep2Code(final int ordinal) {
+        return ramcep2Codes[ordinal];
+    }
+
+    public String flowbasedCode(final int ordinal) {
+        return flowbasedCodes[ordinal];
+    }
+
+    public String forecastCode(final int ordinal) {
+        return forecastCodes[ordinal];
+    }
+
+    public String vertexCode(final int ordinal) {
+        return vertexCodes[ordinal];
+    }
+
+    public boolean isHvdcHub(final int ordinal) {
+        return coreHubs.get(ordinal).isHvdcHub();
+    }
+
+    public double coefficient(final int ordinal) {
+        return coefficients[ordinal];
+    }
+
+    /**
+     * @return the vertex codes, indexed by ordinal
+     */
+    public List<String> vertexCodes() {
+        return Arrays.asList(vertexCodes.clone());
+    }
+
+    /**
+     * @return the coefficients of the hubs, indexed by ordinal, in a new array
+     */
+    public double[] coefficients() {
+        return coefficients.clone();
+    }
+
+    /**
+     * @return the ordinals of the HVDC hubs, in a new array
+     */
+    public int[] hvdcOrdinals() {
+        return hvdcOrdinals.clone();
+    }
+
+    /**
+     * Same content as {@link CoreHubUtils#getFlowBasedToVertexCodeMap}, computed once.
+     */
+    public Map<String, String> flowBasedToVertexCodeMap() {
+        return flowBasedToVertexCodeMap;
+    }
+
+    /**
+     * Translation table from the position of each code in {@code vertexCodes} (e.g. the columns of a file)
+     * to the ordinal of its hub, {@link #UNKNOWN} for codes of no hub.
+     */
+    public int[] ordinalsOfVertexCodes(final List<String> vertexCodes) {
+        return vertexCodes.stream().mapToInt(this::ordinalOfVertexCode).toArray();
+    }
+
+    private String[] codes(final Function<CoreHub, String> code) {
+        return coreHubs.stream().map(code).toArray(String[]::new);
+    }
+
+    private static Map<String, Integer> ordinals(final String codeType,
+                                                 final String[] codes) {
+        final Map<String, Integer> ordinals = new HashMap<>();
+        for (int hub = 0; hub < codes.length; hub++) {
+            if (codes[hub] != null && ordinals.putIfAbsent(codes[hub], hub) != null) {
+                throw new CoreValidCommonsInvalidDataException("Duplicate %s code %s in core hubs".formatted(codeType, codes[hub]));
+            }
+        }
+        return Map.copyOf(ordinals);
+    }
+
+    private static int ordinalOf(final Map<String, Integer> ordinals,
+                                 final String code) {
+        return code == null ? UNKNOWN : ordinals.getOrDefault(code, UNKNOWN);
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2025, RTE (http://www.rte-france.com)
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ */
+package com.farao_community.farao.gridcapa_core_valid_commons.vertex;
+
+import com.farao_community.farao.gridcapa_core_valid_commons.exception.CoreValidCommonsInvalidDataException;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.farao_community.farao.gridcapa_core_valid_commons.vertex.FixedPointDomain.DELTA_ONE;
+import static com.farao_community.farao.gridcapa_core_valid_commons.vertex.FixedPointDomain.DELTA_SCALE;
+import static com.farao_community.farao.gridcapa_core_valid_commons.vertex.FixedPointDomain.OUT_OF_RANGE;
+import static java.math.BigDecimal.ONE;
+import static java.math.BigDecimal.ZERO;
+import static java.math.RoundingMode.HALF_EVEN;
+
+/**
+ * Reference projection of a vertex on a flow-based domain, computed with {@link BigDecimal}.
+ */
+final class BigDecimalProjection {
+
+    private BigDecimalProjection() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * When a fixed-point delta is also given, both results are checked to be identical,
+     * as required by the {@link ProjectionEngine#COMPARE} engine.
+     *
+     * @return the smallest delta lower than one among the branches, or null if the vertex should not be projected
+     */
+    static BigDecimal minimalDelta(final Vertex vertex,
+                                   final List<? extends FlowBasedDomainBranchData> branchesData,
+                                   final Map<String, String> flowBasedToVertexCodeMap,
+                                   final long fixedPointDelta) {
+        BigDecimal deltaMin = ONE;
+        boolean shouldProject = false;
+        for (final FlowBasedDomainBranchData branch : branchesData) {
+            final BigDecimal f0Core = f0Core(vertex, branch, flowBasedToVertexCodeMap);
+            if (shouldComputeDelta(branch, f0Core)) {
+                final BigDecimal delta = delta(branch, f0Core);
+                if (delta != null && delta.compareTo(deltaMin) < 0) {
+                    shouldProject = true;
+                    deltaMin = delta;
+                }
+            }
+        }
+        final BigDecimal result = shouldProject ? deltaMin : null;
+        if (fixedPointDelta != OUT_OF_RANGE && !isSameDelta(result, fixedPointDelta)) {
+            throw new IllegalStateException(
+                    String.format("Fixed-point and BigDecimal projections differ for vertex %d: %s / %s",
+                                  vertex.vertexId(), BigDecimal.valueOf(fixedPointDelta, DELTA_SCALE), result));
+        }
+        return result;
+    }
+
+    static Vertex projectedVertex(final Vertex vertex,
+                                  final BigDecimal delta) {
+        final Map<String, Integer> coordinates = new HashMap<>(vertex.coordinates());
+        coordinates.replaceAll((k, v) -> toProjectedPosition(v, delta));
+        return new Vertex(vertex.vertexId(), coordinates);
+    }
+
+    static int toProjectedPosition(final int netPosition,
+                                   final BigDecimal delta) {
+        return BigDecimal.valueOf(netPosition).multiply(delta).setScale(0, HALF_EVEN).intValue();
+    }
+
+    private static boolean isSameDelta(final BigDecimal delta,
+                                       final long fixedPointDelta) {
+        return delta == null
+                ? fixedPointDelta >= DELTA_ONE
+                : delta.compareTo(BigDecimal.valueOf(fixedPointDelta, DELTA_SCALE)) == 0;
+    }
+
+    private static boolean shouldComputeDelta(final FlowBasedDomainBranchData branch,
+                                              final BigDecimal f0Core) {
+        return BigDecimal.valueOf(branch.getRam0Core()).add(BigDecimal.valueOf(branch.getAmr())).subtract(f0Core).compareTo(ZERO) <= 0;
+    }
+
+    private static BigDecimal delta(final FlowBasedDomainBranchData branchData,
+                                    final BigDecimal f0Core) {
+
+        if (ZERO.compareTo(f0Core) == 0) {
+            return null;
+        }
+
+        return BigDecimal.valueOf(branchData.getAmr())
+                .add(BigDecimal.valueOf(branchData.getRam0Core()))
+                .divide(f0Core, DELTA_SCALE, HALF_EVEN);
+    }
+
+    private static BigDecimal f0Core(final Vertex vertex,
+                                     final FlowBasedDomainBranchData branchData,
+                                     final Map<String, String> fbToVertexCode) {
+        //f0Core = ∑_over_hubs(PTDF*NP)
+        return branchData
+                .getPtdfValues()
+                .entrySet()
+                .stream()
+                .map(ptdf -> getFlowOnHub(ptdf, vertex, fbToVertexCode))
+                .reduce(BigDecimal::add)
+                .orElseThrow(() -> new CoreValidCommonsInvalidDataException(
+                        String.format("Cannot compute f0Core: no PTDF values provided for vertex %d",
+                                      vertex.vertexId())));
+    }
+
+    private static BigDecimal getFlowOnHub(final Map.Entry<String, BigDecimal> ptdf,
+                                           final Vertex vertex,
+                                           final Map<String, String> fbToVertexCode) {
+        final String countryCode = fbToVertexCode.get(ptdf.getKey());
+        return ptdf.getValue().multiply(getNetPosition(countryCode, vertex));
+    }
+
+    private static BigDecimal getNetPosition(final String countryCode,
+                                             final Vertex vertex) {
+        return BigDecimal.valueOf(vertex.coordinates().getOrDefault(countryCode, 0));
+    }
+}
@@ -0,0 +1,395 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ */
+package com.farao_community.farao.gridcapa_core_valid_commons.vertex;
+
+import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.CoreHub;
+import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.HubRegistry;
+import com.farao_community.farao.gridcapa_core_valid_commons.exception.CoreValidCommonsInvalidDataException;
+
+import java.math.BigDecimal;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * Columnar store of the branches of a flow-based domain: RAM0core and AMR as {@code int[]}, and PTDFs as one
+ * branch-major {@code long[]} of values scaled by a common power of ten, indexed by branch position and hub ordinal
+ * (the position of the hub in the flow-based codes given at creation).
+ * <p>
+ * The set is immutable and is exposed as a {@code List<FlowBasedDomainBranchData>}: {@link #get(int)} returns a
+ * branch whose PTDF map is a read-only view on the underlying row, so that existing callers keep working while a
+ * 10k-branch domain takes one {@code long} per PTDF instead of a boxed {@link BigDecimal} in a hash map.
+ * The view holds a PTDF for every hub, zero for hubs the original branch had no value for.
+ */
+public final class BranchDataSet extends AbstractList<FlowBasedDomainBranchData> implements RandomAccess {
+
+    /**
+     * Largest decimal scale of the PTDFs, keeping the scaled values of PTDFs of magnitude below 1000 within a long.
+     */
+    public static final int MAX_PTDF_SCALE = 15;
+
+    private final List<String> hubCodes;
+    private final Map<String, Integer> hubOrdinals;
+    private final int ptdfScale;
+    private final String[] ids;
+    private final int[] ram0Cores;
+    private final int[] amrs;
+    private final long[] scaledPtdfs;
+    private final int size;
+
+    private BranchDataSet(final List<String> hubCodes,
+                          final int ptdfScale,
+                          final String[] ids,
+                          final int[] ram0Cores,
+                          final int[] amrs,
+                          final long[] scaledPtdfs,
+                          final int size) {
+        this.hubCodes = hubCodes;
+        this.hubOrdinals = toOrdinals(hubCodes);
+        this.ptdfScale = ptdfScale;
+        this.ids = ids;
+        this.ram0Cores = ram0Cores;
+        this.amrs = amrs;
+        this.scaledPtdfs = scaledPtdfs;
+        this.size = size;
+    }
+
+    /**
+     * Converts branches to the columnar form, at the largest scale of their PTDFs. PTDFs of hubs not listed are dropped,
+     * as no projection reads them.
+     *
+     * @param hubCodes the flow-based codes of the hubs, in the order defining their ordinal
+     * @throws CoreValidCommonsInvalidDataException if a PTDF is missing or cannot be scaled exactly to a long
+     */
+    public static BranchDataSet of(final List<? extends FlowBasedDomainBranchData> branchesData,
+                                   final List<String> hubCodes) {
+        if (branchesData instanceof BranchDataSet branchDataSet && branchDataSet.hubCodes.equals(hubCodes)) {
+            return branchDataSet;
+        }
+        int scale = 0;
+        for (final FlowBasedDomainBranchData branchData : branchesData) {
+            for (final BigDecimal ptdf : ptdfValues(branchData).values()) {
+                if (ptdf == null) {
+                    throw new CoreValidCommonsInvalidDataException("Missing PTDF value for branch %s".formatted(branchData.getId()));
+                }
+                scale = Math.max(scale, ptdf.scale());
+            }
+        }
+        if (scale > MAX_PTDF_SCALE) {
+            throw new CoreValidCommonsInvalidDataException("PTDF scale %d exceeds %d".formatted(scale, MAX_PTDF_SCALE));
+        }
+        final Builder builder = new Builder(hubCodes, scale, branchesData.size());
+        final long[] row = new long[hubCodes.size()];
+        for (final FlowBasedDomainBranchData branchData : branchesData) {
+            Arrays.fill(row, 0);
+            for (final Map.Entry<String, BigDecimal> ptdf : ptdfValues(branchData).entrySet()) {
+                final int ordinal = builder.hubOrdinals.getOrDefault(ptdf.getKey(), -1);
+                if (ordinal >= 0) {
+                    try {
+                        row[ordinal] = ptdf.getValue().setScale(scale).unscaledValue().longValueExact();
+                    } catch (final ArithmeticException e) {
+                        throw new CoreValidCommonsInvalidDataException("PTDF %s of branch %s cannot be scaled exactly".formatted(ptdf.getValue(), branchData.getId()), e);
+                    }
+                }
+            }
+            builder.add(branchData.getId(), branchData.getRam0Core(), branchData.getAmr(), row);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Same as {@link #of(List, List)}, for the flow-based codes of the registry.
+     */
+    public static BranchDataSet of(final List<? extends FlowBasedDomainBranchData> branchesData,
+                                   final HubRegistry hubRegistry) {
+        return of(branchesData, toHubCodes(hubRegistry.getCoreHubs()));
+    }
+
+    /**
+     * @param coreHubs the hubs, in the order defining their ordinal
+     * @return the flow-based codes of the hubs, indexed by hub ordinal
+     */
+    public static List<String> toHubCodes(final List<CoreHub> coreHubs) {
+        return coreHubs.stream().map(CoreHub::flowbasedCode).toList();
+    }
+
+    @Override
+    public FlowBasedDomainBranchData get(final int index) {
+        return new BranchView(checkIndex(index));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public int hubCount() {
+        return hubCodes.size();
+    }
+
+    public List<String> getHubCodes() {
+        return hubCodes;
+    }
+
+    /**
+     * @param hubCode the flow-based code of a hub
+     * @return the ordinal of the hub in this set, or -1 if the hub is unknown
+     */
+    public int hubOrdinal(final String hubCode) {
+        final Integer ordinal = hubCode == null ? null : hubOrdinals.get(hubCode);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    /**
+     * @return the decimal scale shared by all scaled PTDFs
+     */
+    public int ptdfScale() {
+        return ptdfScale;
+    }
+
+    public String id(final int index) {
+        return ids[checkIndex(index)];
+    }
+
+    public int ram0Core(final int index) {
+        return ram0Cores[checkIndex(index)];
+    }
+
+    public int amr(final int index) {
+        return amrs[checkIndex(index)];
+    }
+
+    /**
+     * @return the PTDF of the branch for the hub, times 10 to the power {@link #ptdfScale()}
+     */
+    public long scaledPtdf(final int index, final int hubOrdinal) {
+        return scaledPtdfs[checkIndex(index) * hubCodes.size() + hubOrdinal];
+    }
+
+    public double ptdf(final int index, final int hubOrdinal) {
+        return scaledPtdf(index, hubOrdinal) / Math.pow(10, ptdfScale);
+    }
+
+    /**
+     * Direct access to the branch-major scaled PTDFs, for the projection hot loops. Must never be modified.
+     */
+    long[] scaledPtdfsArray() {
+        return scaledPtdfs;
+    }
+
+    private int checkIndex(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index %d out of bounds for size %d".formatted(index, size));
+        }
+        return index;
+    }
+
+    private static Map<String, BigDecimal> ptdfValues(final FlowBasedDomainBranchData branchData) {
+        final Map<String, BigDecimal> ptdfValues = branchData.getPtdfValues();
+        if (ptdfValues == null) {
+            throw new CoreValidCommonsInvalidDataException("Missing PTDF values for branch %s".formatted(branchData.getId()));
+        }
+        return ptdfValues;
+    }
+
+    private static Map<String, Integer> toOrdinals(final List<String> hubCodes) {
+        final Map<String, Integer> ordinals = new HashMap<>();
+        for (int i = 0; i < hubCodes.size(); i++) {
+            if (ordinals.putIfAbsent(hubCodes.get(i), i) != null) {
+                throw new CoreValidCommonsInvalidDataException("Duplicate flow-based code %s in core hubs".formatted(hubCodes.get(i)));
+            }
+        }
+        return Map.copyOf(ordinals);
+    }
+
+    /**
+     * Accumulates branches row by row, growing the backing arrays geometrically, so that importers can build a set
+     * without creating any {@link BigDecimal}.
+     */
+    public static final class Builder {
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private final List<String> hubCodes;
+        private final Map<String, Integer> hubOrdinals;
+        private final int hubCount;
+        private final int ptdfScale;
+        private String[] ids;
+        private int[] ram0Cores;
+        private int[] amrs;
+        private long[] scaledPtdfs;
+        private int size;
+
+        /**
+         * @param hubCodes  the flow-based codes of the hubs, in the order defining their ordinal
+         * @param ptdfScale the decimal scale of the PTDFs given to {@link #add}
+         */
+        public Builder(final List<String> hubCodes, final int ptdfScale) {
+            this(hubCodes, ptdfScale, INITIAL_CAPACITY);
+        }
+
+        Builder(final List<String> hubCodes, final int ptdfScale, final int expectedSize) {
+            if (ptdfScale < 0 || ptdfScale > MAX_PTDF_SCALE) {
+                throw new IllegalArgumentException("PTDF scale must be between 0 and %d".formatted(MAX_PTDF_SCALE));
+            }
+            this.hubCodes = List.copyOf(hubCodes);
+            this.hubOrdinals = toOrdinals(this.hubCodes);
+            this.hubCount = this.hubCodes.size();
+            this.ptdfScale = ptdfScale;
+            final int capacity = Math.max(1, expectedSize);
+            this.ids = new String[capacity];
+            this.ram0Cores = new int[capacity];
+            this.amrs = new int[capacity];
+            this.scaledPtdfs = new long[capacity * hubCount];
+        }
+
+        /**
+         * @param id          the id of the constraint, or null if unknown
+         * @param scaledPtdfs the PTDFs of the branch indexed by hub ordinal, times 10 to the power of the scale,
+         *                    copied by this call
+         */
+        public Builder add(final String id, final int ram0Core, final int amr, final long[] scaledPtdfs) {
+            if (size == ids.length) {
+                final int newCapacity = Math.max(size + 1, size + (size >> 1));
+                ids = Arrays.copyOf(ids, newCapacity);
+                ram0Cores = Arrays.copyOf(ram0Cores, newCapacity);
+                amrs = Arrays.copyOf(amrs, newCapacity);
+                this.scaledPtdfs = Arrays.copyOf(this.scaledPtdfs, newCapacity * hubCount);
+            }
+            ids[size] = id;
+            ram0Cores[size] = ram0Core;
+            amrs[size] = amr;
+            System.arraycopy(scaledPtdfs, 0, this.scaledPtdfs, size * hubCount, hubCount);
+            size++;
+            return this;
+        }
+
+        public BranchDataSet build() {
+            return new BranchDataSet(hubCodes,
+                                     ptdfScale,
+                                     Arrays.copyOf(ids, size),
+                                     Arrays.copyOf(ram0Cores, size),
+                                     Arrays.copyOf(amrs, size),
+                                     Arrays.copyOf(scaledPtdfs, size * hubCount),
+                                     size);
+        }
+    }
+
+    /**
+     * One branch of the set, read from its columns. Branches are equal when their ids, margins and PTDF maps are,
+     * so that sets read twice from the same document are equal.
+     */
+    private final class BranchView implements FlowBasedDomainBranchData {
+        private final int index;
+
+        private BranchView(final int index) {
+            this.index = index;
+        }
+
+        @Override
+        public int getRam0Core() {
+            return ram0Cores[index];
+        }
+
+        @Override
+        public int getAmr() {
+            return amrs[index];
+        }
+
+        @Override
+        public Map<String, BigDecimal> getPtdfValues() {
+            return new PtdfsView(index * hubCodes.size());
+        }
+
+        @Override
+        public String getId() {
+            return ids[index];
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof BranchView branch
+                && Objects.equals(getId(), branch.getId())
+                && getRam0Core() == branch.getRam0Core()
+                && getAmr() == branch.getAmr()
+                && getPtdfValues().equals(branch.getPtdfValues());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(getId(), getRam0Core(), getAmr());
+        }
+    }
+
+    /**
+     * Read-only {@code Map} view on one row of the scaled PTDFs array.
+     */
+    private final class PtdfsView extends AbstractMap<String, BigDecimal> {
+        private final int offset;
+
+        private PtdfsView(final int offset) {
+            this.offset = offset;
+        }
+
+        @Override
+        public BigDecimal get(final Object key) {
+            final int ordinal = key instanceof String code ? hubOrdinal(code) : -1;
+            return ordinal < 0 ? null : BigDecimal.valueOf(scaledPtdfs[offset + ordinal], ptdfScale);
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return key instanceof String code && hubOrdinal(code) >= 0;
+        }
+
+        @Override
+        public int size() {
+            return hubCodes.size();
+        }
+
+        @Override
+        public Set<Entry<String, BigDecimal>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, BigDecimal>> iterator() {
+                    return new Iterator<>() {
+                        private int hub;
+
+                        @Override
+                        public boolean hasNext() {
+                            return hub < hubCodes.size();
+                        }
+
+                        @Override
+                        public Entry<String, BigDecimal> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            final Entry<String, BigDecimal> entry = new SimpleImmutableEntry<>(hubCodes.get(hub), BigDecimal.valueOf(scaledPtdfs[offset + hub], ptdfScale));
+                            hub++;
+                            return entry;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return hubCodes.size();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,328 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ */
+package com.farao_community.farao.gridcapa_core_valid_commons.vertex;
+
+import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.CoreHub;
+import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.CoreHubUtils;
+import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.HubRegistry;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.farao_community.farao.gridcapa_core_valid_commons.vertex.FixedPointDomain.DELTA_ONE;
+import static com.farao_community.farao.gridcapa_core_valid_commons.vertex.FixedPointDomain.OUT_OF_RANGE;
+
+/**
+ * Flow-based domain compiled once per CNEC RAM document, to project any number of vertex sets on it.
+ * <p>
+ * PTDFs are stored in a dense branch-major matrix whose columns are aligned to hub ordinals,
+ * next to the RAM0core + AMR vector, both as exact scaled {@code long} values (see {@link FixedPointDomain}),
+ * so that f0Core is a plain dot product with no map lookup nor boxing.
+ * The original branches are kept for the {@link BigDecimal} reference engine.
+ */
+public final class CompiledFlowBasedDomain {
+
+    private final List<String> hubCodes;
+    private final List<FlowBasedDomainBranchData> branchesData;
+    private final Map<String, String> flowBasedToVertexCodeMap;
+    private final FixedPointDomain fixedPointDomain;
+
+    private CompiledFlowBasedDomain(final List<String> hubCodes,
+                                    final List<FlowBasedDomainBranchData> branchesData,
+                                    final Map<String, String> flowBasedToVertexCodeMap,
+                                    final FixedPointDomain fixedPointDomain) {
+        this.hubCodes = hubCodes;
+        this.branchesData = branchesData;
+        this.flowBasedToVertexCodeMap = flowBasedToVertexCodeMap;
+        this.fixedPointDomain = fixedPointDomain;
+    }
+
+    public static CompiledFlowBasedDomain compile(final List<? extends FlowBasedDomainBranchData> branchesData,
+                                                  final List<CoreHub> coreHubs) {
+        return compile(branchesData, coreHubs, NetPositionLimits.NONE);
+    }
+
+    /**
+     * Same as {@link #compile(List, List)}, the net position limits of the domain being shrunk into a box where no
+     * vertex is projected: vertices in it skip the branches of the domain, with the same result.
+     */
+    public static CompiledFlowBasedDomain compile(final List<? extends FlowBasedDomainBranchData> branchesData,
+                                                  final List<CoreHub> coreHubs,
+                                                  final NetPositionLimits netPositionLimits) {
+        return compile(branchesData, VertexSet.toHubCodes(coreHubs), CoreHubUtils.getFlowBasedToVertexCodeMap(coreHubs), netPositionLimits);
+    }
+
+    /**
+     * Same as {@link #compile(List, List)}, reusing the translation tables of the registry.
+     */
+    public static CompiledFlowBasedDomain compile(final List<? extends FlowBasedDomainBranchData> branchesData,
+                                                  final HubRegistry hubRegistry) {
+        return compile(branchesData, hubRegistry, NetPositionLimits.NONE);
+    }
+
+    /**
+     * Same as {@link #compile(List, List, NetPositionLimits)}, reusing the translation tables of the registry.
+     */
+    public static CompiledFlowBasedDomain compile(final List<? extends FlowBasedDomainBranchData> branchesData,
+                                                  final HubRegistry hubRegistry,
+                                                  final NetPositionLimits netPositionLimits) {
+        return compile(branchesData, hubRegistry.vertexCodes(), hubRegistry.flowBasedToVertexCodeMap(), netPositionLimits);
+    }
+
+    private static CompiledFlowBasedDomain compile(final List<? extends FlowBasedDomainBranchData> branchesData,
+                                                   final List<String> hubCodes,
+                                                   final Map<String, String> flowBasedToVertexCodeMap,
+                                                   final NetPositionLimits netPositionLimits) {
+        FixedPointDomain fixedPointDomain = FixedPointDomain.compile(branchesData, flowBasedToVertexCodeMap, hubCodes);
+        if (fixedPointDomain != null && !netPositionLimits.equals(NetPositionLimits.NONE)) {
+            fixedPointDomain = fixedPointDomain.withSafeBox(coordinateLimits(netPositionLimits.minNetPositions(), flowBasedToVertexCodeMap, hubCodes),
+                                                            coordinateLimits(netPositionLimits.maxNetPositions(), flowBasedToVertexCodeMap, hubCodes));
+        }
+        // a branch data set is immutable already, and copying it would materialize its branches
+        return new CompiledFlowBasedDomain(List.copyOf(hubCodes),
+                                           branchesData instanceof BranchDataSet branchDataSet ? branchDataSet : List.copyOf(branchesData),
+                                           flowBasedToVertexCodeMap,
+                                           fixedPointDomain);
+    }
+
+    /**
+     * @return the limits in the order of the hubs, NaN for hubs without limit
+     */
+    private static double[] coordinateLimits(final Map<String, Double> limits,
+                                             final Map<String, String> flowBasedToVertexCodeMap,
+                                             final List<String> hubCodes) {
+        final double[] coordinateLimits = new double[hubCodes.size()];
+        Arrays.fill(coordinateLimits, Double.NaN);
+        limits.forEach((flowBasedCode, limit) -> {
+            final String vertexCode = flowBasedToVertexCodeMap.get(flowBasedCode);
+            final int index = vertexCode == null ? -1 : hubCodes.indexOf(vertexCode);
+            if (index >= 0) {
+                coordinateLimits[index] = limit;
+            }
+        });
+        return coordinateLimits;
+    }
+
+    public List<String> getHubCodes() {
+        return hubCodes;
+    }
+
+    public int getBranchCount() {
+        return branchesData.size();
+    }
+
+    /**
+     * @return false if the PTDFs cannot be represented exactly with scaled longs, in which case
+     * every vertex is projected with the {@link ProjectionEngine#BIG_DECIMAL} engine
+     */
+    public boolean isExact() {
+        return fixedPointDomain != null;
+    }
+
+    /**
+     * Projects the vertices on the domain, in parallel when the parameters provide a pool and there are enough vertices.
+     * Every vertex is projected independently, so the result is identical and in the same order whatever the parameters.
+     */
+    public List<Vertex> getVerticesProjectedOnDomain(final List<Vertex> baseVertices,
+                                                     final ProjectionParameters parameters) {
+        if (baseVertices instanceof VertexSet vertexSet && vertexSet.getHubCodes().equals(hubCodes)) {
+            return getVertexSetProjectedOnDomain(vertexSet, parameters);
+        }
+        final ProjectionEngine engine = parameters.engine();
+        final Vertex[] vertices = baseVertices.toArray(new Vertex[0]);
+        final Vertex[] newVertices = new Vertex[vertices.length];
+
+        VertexRangeTask.forEachRange(vertices.length, parameters, (from, to) -> {
+            final int[] coordinates = new int[hubCodes.size()];
+            for (int v = from; v < to; v++) {
+                final Vertex vertex = vertices[v];
+                long fixedPointDelta = OUT_OF_RANGE;
+                if (useFixedPoint(engine)) {
+                    for (int i = 0; i < coordinates.length; i++) {
+                        coordinates[i] = vertex.coordinates().getOrDefault(hubCodes.get(i), 0);
+                    }
+                    fixedPointDelta = fixedPointDomain.minimalDelta(coordinates, 0);
+                }
+
+                final Vertex vertexOnDomain;
+                if (fixedPointDelta != OUT_OF_RANGE && engine != ProjectionEngine.COMPARE) {
+                    vertexOnDomain = fixedPointDelta < DELTA_ONE ? projectedVertex(vertex, fixedPointDelta) : vertex;
+                } else {
+                    final BigDecimal deltaMin = BigDecimalProjection.minimalDelta(vertex, branchesData, flowBasedToVertexCodeMap, fixedPointDelta);
+                    vertexOnDomain = deltaMin != null ? BigDecimalProjection.projectedVertex(vertex, deltaMin) : vertex;
+                }
+
+                newVertices[v] = vertexOnDomain;
+            }
+        });
+
+        return new ArrayList<>(Arrays.asList(newVertices));
+    }
+
+    /**
+     * Projects a single vertex, typically one read from {@link VerticesUtils#streamVertices}.
+     */
+    public Vertex getVertexProjectedOnDomain(final Vertex baseVertex,
+                                             final ProjectionEngine engine) {
+        return getVerticesProjectedOnDomain(List.of(baseVertex), ProjectionParameters.sequential(engine)).getFirst();
+    }
+
+    /**
+     * Projects one set of vertices on several domains compiled for the same hubs, typically all timestamps of a day.
+     * Vertices are traversed once: each block of them is kept in cache while every domain is applied to it.
+     *
+     * @return the projected vertices, in the order of the domains
+     */
+    public static List<List<Vertex>> getVerticesProjectedOnDomains(final List<Vertex> baseVertices,
+                                                                   final List<CompiledFlowBasedDomain> domains,
+                                                                   final ProjectionParameters parameters) {
+        if (domains.isEmpty()) {
+            return List.of();
+        }
+        final List<String> hubCodes = domains.getFirst().getHubCodes();
+        if (domains.stream().anyMatch(domain -> !domain.getHubCodes().equals(hubCodes))) {
+            throw new IllegalArgumentException("All domains must be compiled for the same hubs");
+        }
+        if (!(baseVertices instanceof VertexSet vertexSet) || !vertexSet.getHubCodes().equals(hubCodes)) {
+            return domains.stream()
+                    .map(domain -> domain.getVerticesProjectedOnDomain(baseVertices, parameters))
+                    .toList();
+        }
+
+        final ProjectionEngine engine = parameters.engine();
+        final int domainCount = domains.size();
+        final FixedPointDomain[] fixedPointDomains = new FixedPointDomain[domainCount];
+        final int[][] coordinates = new int[domainCount][];
+        for (int d = 0; d < domainCount; d++) {
+            fixedPointDomains[d] = domains.get(d).useFixedPoint(engine) ? domains.get(d).fixedPointDomain : null;
+            coordinates[d] = vertexSet.coordinatesArray().clone();
+        }
+        VertexRangeTask.forEachRange(vertexSet.size(), parameters, (from, to) -> {
+            final long[][] fixedPointDeltas = new long[domainCount][to - from];
+            final int[][] bindingBranches = new int[domainCount][to - from];
+            ProjectionKernel.minimalDeltas(fixedPointDomains, vertexSet.coordinatesArray(), from, to, fixedPointDeltas, bindingBranches);
+            for (int d = 0; d < domainCount; d++) {
+                domains.get(d).applyDeltas(vertexSet, from, to, engine, fixedPointDeltas[d], bindingBranches[d], coordinates[d], null, null);
+            }
+        });
+
+        final List<List<Vertex>> projectedVertices = new ArrayList<>(domainCount);
+        for (int d = 0; d < domainCount; d++) {
+            projectedVertices.add(new VertexSet(hubCodes, vertexSet.vertexIdsArray(), coordinates[d], vertexSet.size()));
+        }
+        return projectedVertices;
+    }
+
+    /**
+     * Columnar counterpart of the projection: deltas of each range are computed in batch by the {@link ProjectionKernel},
+     * then projected coordinates are written straight into the rows of a new {@link VertexSet}, without copying any coordinates map.
+     */
+    private VertexSet getVertexSetProjectedOnDomain(final VertexSet baseVertices,
+                                                    final ProjectionParameters parameters) {
+        final int[] coordinates = baseVertices.coordinatesArray().clone();
+        VertexRangeTask.forEachRange(baseVertices.size(), parameters,
+            (from, to) -> projectRange(baseVertices, from, to, parameters.engine(), coordinates, null, null));
+        return new VertexSet(hubCodes, baseVertices.vertexIdsArray(), coordinates, baseVertices.size());
+    }
+
+    /**
+     * Projects a range of vertices whose hubs are those of the domain.
+     *
+     * @param coordinates     row-major coordinates initialized with the base vertices, projected in place
+     * @param deltas          if not null, receives the fixed-point delta of each vertex of the range,
+     *                        or {@link FixedPointDomain#OUT_OF_RANGE} if it was projected with the {@link BigDecimal} engine
+     * @param bindingBranches if not null, receives the index of a branch giving the delta of each vertex of the range,
+     *                        or -1 if the vertex is not projected by the fixed-point engine
+     */
+    void projectRange(final VertexSet baseVertices,
+                      final int from,
+                      final int to,
+                      final ProjectionEngine engine,
+                      final int[] coordinates,
+                      final long[] deltas,
+                      final int[] bindingBranches) {
+        final long[] fixedPointDeltas = new long[to - from];
+        final int[] rangeBindingBranches = new int[to - from];
+        if (useFixedPoint(engine)) {
+            ProjectionKernel.minimalDeltas(fixedPointDomain, coordinates, from, to, fixedPointDeltas, rangeBindingBranches);
+        }
+        applyDeltas(baseVertices, from, to, engine, fixedPointDeltas, rangeBindingBranches, coordinates, deltas, bindingBranches);
+    }
+
+    /**
+     * Projects the vertices of the range with the deltas computed by the {@link ProjectionKernel},
+     * or with the {@link BigDecimal} engine when the fixed-point engine is not used or out of its exact range.
+     */
+    private void applyDeltas(final VertexSet baseVertices,
+                             final int from,
+                             final int to,
+                             final ProjectionEngine engine,
+                             final long[] fixedPointDeltas,
+                             final int[] rangeBindingBranches,
+                             final int[] coordinates,
+                             final long[] deltas,
+                             final int[] bindingBranches) {
+        final int hubCount = baseVertices.hubCount();
+        final boolean fixedPoint = useFixedPoint(engine);
+        for (int i = from; i < to; i++) {
+            final int rowOffset = i * hubCount;
+            long fixedPointDelta = fixedPoint ? fixedPointDeltas[i - from] : OUT_OF_RANGE;
+            if (fixedPointDelta != OUT_OF_RANGE && engine != ProjectionEngine.COMPARE) {
+                if (fixedPointDelta < DELTA_ONE) {
+                    for (int offset = rowOffset; offset < rowOffset + hubCount; offset++) {
+                        coordinates[offset] = FixedPointDomain.toProjectedPosition(coordinates[offset], fixedPointDelta);
+                    }
+                }
+            } else {
+                final BigDecimal deltaMin = BigDecimalProjection.minimalDelta(baseVertices.get(i), branchesData, flowBasedToVertexCodeMap, fixedPointDelta);
+                if (deltaMin != null) {
+                    for (int offset = rowOffset; offset < rowOffset + hubCount; offset++) {
+                        coordinates[offset] = BigDecimalProjection.toProjectedPosition(coordinates[offset], deltaMin);
+                    }
+                }
+                fixedPointDelta = OUT_OF_RANGE;
+            }
+            if (deltas != null) {
+                deltas[i] = fixedPointDelta;
+            }
+            if (bindingBranches != null) {
+                bindingBranches[i] = fixedPointDelta == OUT_OF_RANGE ? -1 : rangeBindingBranches[i - from];
+            }
+        }
+    }
+
+    List<FlowBasedDomainBranchData> getBranchesData() {
+        return branchesData;
+    }
+
+    Map<String, String> getFlowBasedToVertexCodeMap() {
+        return flowBasedToVertexCodeMap;
+    }
+
+    /**
+     * @return the fixed-point form of the domain, or null if it is not exact
+     */
+    FixedPointDomain getFixedPointDomain() {
+        return fixedPointDomain;
+    }
+
+    private boolean useFixedPoint(final ProjectionEngine engine) {
+        return fixedPointDomain != null && engine != ProjectionEngine.BIG_DECIMAL;
+    }
+
+    private static Vertex projectedVertex(final Vertex vertex,
+                                          final long delta) {
+        final Map<String, Integer> coordinates = new HashMap<>(vertex.coordinates());
+        coordinates.replaceAll((k, v) -> FixedPointDomain.toProjectedPosition(v, delta));
+        return new Vertex(vertex.vertexId(), coordinates);
+    }
+}
@@ -0,0 +1,497 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ */
+package com.farao_community.farao.gridcapa_core_valid_commons.vertex;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Flow-based domain converted to scaled {@code long} values, projecting vertices with the exact
+ * semantics of the {@link BigDecimal} engine (deltas rounded HALF_EVEN at scale 15) without allocating.
+ * <p>
+ * All PTDFs share one decimal scale, so that f0Core is an exact integer sum. Deltas are kept as
+ * {@code long} values at scale {@value #DELTA_SCALE}. Whenever a vertex could leave the exact range,
+ * {@link #OUT_OF_RANGE} is returned and the caller has to use the {@link BigDecimal} engine for it.
+ */
+final class FixedPointDomain {
+
+    static final int DELTA_SCALE = 15;
+    static final long DELTA_ONE = 1_000_000_000_000_000L;
+    static final long OUT_OF_RANGE = Long.MIN_VALUE;
+
+    private static final int MAX_PTDF_SCALE = 9;
+    private static final int MAX_PTDF_BITS = 48;
+    // keeps |f0Core| * 10 within a long while computing the delta digits
+    private static final long MAX_ABS_FLOW = 1L << 59;
+    private static final long MAX_DELTA_INTEGER_PART = 9_000L;
+    private static final long FRACTION_SPLIT = 100_000_000L;
+    private static final long FRACTION_HIGH_UNIT = DELTA_ONE / FRACTION_SPLIT;
+    // keeps the pruning test conservative despite double rounding
+    private static final double PRUNING_TOLERANCE = 1 + 1e-9;
+    private static final int SAFE_BOX_ATTEMPTS = 4;
+    // shrinks the safe box candidate when floating-point rounding made it slightly too large
+    private static final double SAFE_BOX_SHRINK = 1 - 1e-6;
+
+    private final int coordinateCount;
+    private final int branchCount;
+    private final int[] branchIndexes;
+    private final long[] ptdfs;
+    private final long[] scaledMargins;
+    private final double[] pruningRatios;
+    private final int firstPrunableBranch;
+    private final long maxAbsNetPosition;
+    private final long[] safeLowerBounds;
+    private final long[] safeUpperBounds;
+
+    private FixedPointDomain(final int coordinateCount,
+                             final int[] branchIndexes,
+                             final long[] ptdfs,
+                             final long[] scaledMargins,
+                             final double[] pruningRatios,
+                             final int firstPrunableBranch,
+                             final long maxAbsNetPosition,
+                             final long[] safeLowerBounds,
+                             final long[] safeUpperBounds) {
+        this.coordinateCount = coordinateCount;
+        this.branchCount = branchIndexes.length;
+        this.branchIndexes = branchIndexes;
+        this.ptdfs = ptdfs;
+        this.scaledMargins = scaledMargins;
+        this.pruningRatios = pruningRatios;
+        this.firstPrunableBranch = firstPrunableBranch;
+        this.maxAbsNetPosition = maxAbsNetPosition;
+        this.safeLowerBounds = safeLowerBounds;
+        this.safeUpperBounds = safeUpperBounds;
+    }
+
+    /**
+     * Branches are stored in evaluation order: first those with a non-positive margin, which can never be pruned,
+     * then the others by increasing margin / L1 norm of their PTDF row, the most likely to bind first.
+     * Branches whose PTDFs are all zero never bind and are dropped.
+     *
+     * @param branchesData    the branches of the domain
+     * @param fbToVertexCode  flow-based code to vertex code translation
+     * @param coordinateCodes vertex codes, in the order of the coordinates given to {@link #minimalDelta}
+     * @return the compiled domain, or null if its PTDFs cannot be represented exactly
+     */
+    static FixedPointDomain compile(final List<? extends FlowBasedDomainBranchData> branchesData,
+                                    final Map<String, String> fbToVertexCode,
+                                    final List<String> coordinateCodes) {
+        if (branchesData instanceof BranchDataSet branchDataSet) {
+            return compile(branchDataSet, fbToVertexCode, coordinateCodes);
+        }
+        final int scale = commonPtdfScale(branchesData);
+        if (scale < 0) {
+            return null;
+        }
+        final Map<String, Integer> coordinateIndexes = coordinateIndexes(coordinateCodes);
+
+        final int coordinateCount = coordinateCodes.size();
+        final long[] ptdfs = new long[branchesData.size() * coordinateCount];
+        final long[] scaledMargins = new long[branchesData.size()];
+        final long[] rowNorms = new long[branchesData.size()];
+        try {
+            for (int branch = 0; branch < branchesData.size(); branch++) {
+                final FlowBasedDomainBranchData branchData = branchesData.get(branch);
+                final int offset = branch * coordinateCount;
+                for (final Map.Entry<String, BigDecimal> ptdf : branchData.getPtdfValues().entrySet()) {
+                    final String vertexCode = fbToVertexCode.get(ptdf.getKey());
+                    final Integer index = vertexCode == null ? null : coordinateIndexes.get(vertexCode);
+                    if (index != null) {
+                        final long unscaled = ptdf.getValue().setScale(scale).unscaledValue().longValueExact();
+                        ptdfs[offset + index] = Math.addExact(ptdfs[offset + index], unscaled);
+                    }
+                }
+                for (int i = offset; i < offset + coordinateCount; i++) {
+                    rowNorms[branch] = Math.addExact(rowNorms[branch], Math.abs(ptdfs[i]));
+                }
+                scaledMargins[branch] = ((long) branchData.getRam0Core() + branchData.getAmr()) * pow10(scale);
+            }
+        } catch (final ArithmeticException e) {
+            return null;
+        }
+        return compile(coordinateCount, ptdfs, scaledMargins, rowNorms);
+    }
+
+    /**
+     * Same as {@link #compile(List, Map, List)}, reading the scaled PTDFs of the set directly.
+     * The result is identical, the set having the largest scale of the original PTDFs.
+     */
+    private static FixedPointDomain compile(final BranchDataSet branchDataSet,
+                                            final Map<String, String> fbToVertexCode,
+                                            final List<String> coordinateCodes) {
+        final int scale = branchDataSet.ptdfScale();
+        if (scale > MAX_PTDF_SCALE || branchDataSet.hubCount() == 0) {
+            return null;
+        }
+        final Map<String, Integer> coordinateIndexes = coordinateIndexes(coordinateCodes);
+        final int hubCount = branchDataSet.hubCount();
+        final int[] columns = new int[hubCount];
+        for (int hub = 0; hub < hubCount; hub++) {
+            final String vertexCode = fbToVertexCode.get(branchDataSet.getHubCodes().get(hub));
+            columns[hub] = vertexCode == null ? -1 : coordinateIndexes.getOrDefault(vertexCode, -1);
+        }
+
+        final int coordinateCount = coordinateCodes.size();
+        final int branchCount = branchDataSet.size();
+        final long[] sourcePtdfs = branchDataSet.scaledPtdfsArray();
+        final long[] ptdfs = new long[branchCount * coordinateCount];
+        final long[] scaledMargins = new long[branchCount];
+        final long[] rowNorms = new long[branchCount];
+        try {
+            for (int branch = 0; branch < branchCount; branch++) {
+                final int offset = branch * coordinateCount;
+                for (int hub = 0; hub < hubCount; hub++) {
+                    if (columns[hub] >= 0) {
+                        ptdfs[offset + columns[hub]] = Math.addExact(ptdfs[offset + columns[hub]], sourcePtdfs[branch * hubCount + hub]);
+                    }
+                }
+                for (int i = offset; i < offset + coordinateCount; i++) {
+                    rowNorms[branch] = Math.addExact(rowNorms[branch], Math.abs(ptdfs[i]));
+                }
+                scaledMargins[branch] = ((long) branchDataSet.ram0Core(branch) + branchDataSet.amr(branch)) * pow10(scale);
+            }
+        } catch (final ArithmeticException e) {
+            return null;
+        }
+        return compile(coordinateCount, ptdfs, scaledMargins, rowNorms);
+    }
+
+    private static FixedPointDomain compile(final int coordinateCount,
+                                            final long[] ptdfs,
+                                            final long[] scaledMargins,
+                                            final long[] rowNorms) {
+        final long maxRowNorm = Arrays.stream(rowNorms).max().orElse(0);
+        if (maxRowNorm >= 1L << MAX_PTDF_BITS) {
+            return null;
+        }
+        final long maxAbsNetPosition = maxRowNorm == 0 ? Long.MAX_VALUE : MAX_ABS_FLOW / maxRowNorm;
+
+        final int[] branchIndexes = IntStream.range(0, scaledMargins.length)
+                .filter(branch -> rowNorms[branch] != 0)
+                .boxed()
+                .sorted(Comparator.<Integer>comparingInt(branch -> scaledMargins[branch] > 0 ? 1 : 0)
+                                .thenComparing((a, b) -> compareRatios(scaledMargins[a], rowNorms[a], scaledMargins[b], rowNorms[b])))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        final long[] orderedPtdfs = new long[branchIndexes.length * coordinateCount];
+        final long[] orderedMargins = new long[branchIndexes.length];
+        final double[] pruningRatios = new double[branchIndexes.length];
+        int firstPrunableBranch = branchIndexes.length;
+        for (int position = 0; position < branchIndexes.length; position++) {
+            final int branch = branchIndexes[position];
+            System.arraycopy(ptdfs, branch * coordinateCount, orderedPtdfs, position * coordinateCount, coordinateCount);
+            orderedMargins[position] = scaledMargins[branch];
+            pruningRatios[position] = (double) scaledMargins[branch] * DELTA_ONE / rowNorms[branch] / PRUNING_TOLERANCE;
+            if (scaledMargins[branch] > 0) {
+                firstPrunableBranch = Math.min(firstPrunableBranch, position);
+            }
+        }
+        return new FixedPointDomain(coordinateCount, branchIndexes, orderedPtdfs, orderedMargins, pruningRatios, firstPrunableBranch, maxAbsNetPosition, null, null);
+    }
+
+    /**
+     * Shrinks a box of net positions, typically the published limits of the domain which only bound it from outside,
+     * towards the origin until every branch has a flow lower than or equal to its margin on the whole box, checked
+     * exactly on its integer corners. Vertices of that box are not projected: {@link #minimalDelta} then recognizes
+     * them with a few comparisons instead of applying every branch.
+     *
+     * @param lowerBounds lowest net position of each coordinate, NaN if unknown
+     * @param upperBounds highest net position of each coordinate, NaN if unknown
+     * @return the domain with the safe box, or this domain if a branch has a negative margin or no box is proven safe
+     */
+    FixedPointDomain withSafeBox(final double[] lowerBounds,
+                                 final double[] upperBounds) {
+        if (Arrays.stream(scaledMargins).anyMatch(margin -> margin < 0)) {
+            return this;
+        }
+        final long bound = Math.min(maxAbsNetPosition, Integer.MAX_VALUE);
+        final boolean[] usedCoordinates = new boolean[coordinateCount];
+        for (int i = 0; i < ptdfs.length; i++) {
+            usedCoordinates[i % coordinateCount] |= ptdfs[i] != 0;
+        }
+        final double[] lower = new double[coordinateCount];
+        final double[] upper = new double[coordinateCount];
+        for (int i = 0; i < coordinateCount; i++) {
+            // a coordinate no branch depends on is not bounded, an unknown limit is taken as zero
+            lower[i] = usedCoordinates[i] ? clamp(lowerBounds[i], bound) : -bound;
+            upper[i] = usedCoordinates[i] ? clamp(upperBounds[i], bound) : bound;
+        }
+        // largest factor keeping every branch within its margin, computed in floating point then checked exactly
+        double factor = 1;
+        for (int branch = 0; branch < branchCount; branch++) {
+            double maxFlow = 0;
+            for (int i = 0; i < coordinateCount; i++) {
+                final long ptdf = ptdfs[branch * coordinateCount + i];
+                if (usedCoordinates[i]) {
+                    maxFlow += Math.max(ptdf * lower[i], ptdf * upper[i]);
+                }
+            }
+            if (maxFlow > 0) {
+                factor = Math.min(factor, scaledMargins[branch] / maxFlow);
+            }
+        }
+        for (int attempt = 0; attempt < SAFE_BOX_ATTEMPTS; attempt++, factor *= SAFE_BOX_SHRINK) {
+            final long[] safeLower = new long[coordinateCount];
+            final long[] safeUpper = new long[coordinateCount];
+            for (int i = 0; i < coordinateCount; i++) {
+                safeLower[i] = usedCoordinates[i] ? (long) Math.ceil(factor * lower[i]) : -bound;
+                safeUpper[i] = usedCoordinates[i] ? (long) Math.floor(factor * upper[i]) : bound;
+                if (safeLower[i] > safeUpper[i]) {
+                    return this;
+                }
+            }
+            if (isSafe(safeLower, safeUpper)) {
+                return new FixedPointDomain(coordinateCount, branchIndexes, ptdfs, scaledMargins, pruningRatios, firstPrunableBranch, maxAbsNetPosition, safeLower, safeUpper);
+            }
+        }
+        return this;
+    }
+
+    int coordinateCount() {
+        return coordinateCount;
+    }
+
+    /**
+     * @return the number of branches that can bind, all-zero PTDF rows excluded
+     */
+    int branchCount() {
+        return branchCount;
+    }
+
+    /**
+     * @return the index in the compiled branches list of the branch evaluated at the given position
+     */
+    int branchIndex(final int position) {
+        return branchIndexes[position];
+    }
+
+    /**
+     * Branch-major PTDF matrix in evaluation order, {@link #coordinateCount()} values per branch. Must never be modified.
+     */
+    long[] ptdfs() {
+        return ptdfs;
+    }
+
+    /**
+     * RAM0core + AMR of each branch, at the scale of the PTDFs. Must never be modified.
+     */
+    long[] scaledMargins() {
+        return scaledMargins;
+    }
+
+    long maxAbsNetPosition() {
+        return maxAbsNetPosition;
+    }
+
+    /**
+     * Lowest net position of each coordinate in the safe box, or null if there is none. Must never be modified.
+     */
+    long[] safeLowerBounds() {
+        return safeLowerBounds;
+    }
+
+    /**
+     * Highest net position of each coordinate in the safe box, or null if there is none. Must never be modified.
+     */
+    long[] safeUpperBounds() {
+        return safeUpperBounds;
+    }
+
+    /**
+     * @return true if the vertex is in the safe box, hence not projected
+     */
+    boolean isInSafeBox(final int[] coordinates, final int offset) {
+        if (safeLowerBounds == null) {
+            return false;
+        }
+        for (int i = 0; i < coordinateCount; i++) {
+            final int coordinate = coordinates[offset + i];
+            if (coordinate < safeLowerBounds[i] || coordinate > safeUpperBounds[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The flow of a branch on a vertex is at most the L1 norm of its PTDF row times the largest absolute net position
+     * of the vertex. For a positive margin, the delta it may give is therefore at least margin / (norm * maxAbs):
+     * once this bound reaches the current minimal delta, neither this branch nor any later one can lower it.
+     *
+     * @param position       position of the branch in evaluation order
+     * @param maxAbsPosition largest absolute net position of the vertices concerned
+     * @param deltaMin       largest current minimal delta of the vertices concerned
+     * @return true if the remaining branches cannot give any smaller delta
+     */
+    boolean canStopAt(final int position,
+                      final long maxAbsPosition,
+                      final long deltaMin) {
+        return position >= firstPrunableBranch && pruningRatios[position] >= (double) deltaMin * maxAbsPosition;
+    }
+
+    /**
+     * @param coordinates net positions array
+     * @param offset      index of the first coordinate of the vertex in the array
+     * @return the smallest delta at scale {@value #DELTA_SCALE}; {@link #DELTA_ONE} or more if the vertex
+     * should not be projected, {@link #OUT_OF_RANGE} if it cannot be computed exactly
+     */
+    long minimalDelta(final int[] coordinates, final int offset) {
+        long maxAbs = 0;
+        for (int i = offset; i < offset + coordinateCount; i++) {
+            maxAbs = Math.max(maxAbs, Math.abs((long) coordinates[i]));
+        }
+        if (maxAbs > maxAbsNetPosition) {
+            return OUT_OF_RANGE;
+        }
+        if (isInSafeBox(coordinates, offset)) {
+            return DELTA_ONE;
+        }
+
+        long deltaMin = DELTA_ONE;
+        for (int branch = 0; branch < branchCount && !canStopAt(branch, maxAbs, deltaMin); branch++) {
+            final int ptdfOffset = branch * coordinateCount;
+            long f0Core = 0;
+            for (int i = 0; i < coordinateCount; i++) {
+                f0Core += ptdfs[ptdfOffset + i] * coordinates[offset + i];
+            }
+            final long margin = scaledMargins[branch];
+            if (f0Core != 0 && margin <= f0Core) {
+                final long delta = delta(margin, f0Core);
+                if (delta == OUT_OF_RANGE) {
+                    return OUT_OF_RANGE;
+                }
+                deltaMin = Math.min(deltaMin, delta);
+            }
+        }
+        return deltaMin;
+    }
+
+    /**
+     * @return margin / f0Core rounded HALF_EVEN at scale {@value #DELTA_SCALE}, as an unscaled value
+     */
+    static long delta(final long margin, final long f0Core) {
+        final long dividend = Math.abs(margin);
+        final long divisor = Math.abs(f0Core);
+        final long integerPart = dividend / divisor;
+        if (integerPart > MAX_DELTA_INTEGER_PART) {
+            return OUT_OF_RANGE;
+        }
+        long remainder = dividend % divisor;
+        long fraction = 0;
+        for (int digit = 0; digit < DELTA_SCALE; digit++) {
+            remainder *= 10;
+            fraction = fraction * 10 + remainder / divisor;
+            remainder %= divisor;
+        }
+        long magnitude = integerPart * DELTA_ONE + fraction;
+        final long twiceRemainder = remainder * 2;
+        if (twiceRemainder > divisor || twiceRemainder == divisor && (magnitude & 1) == 1) {
+            magnitude++;
+        }
+        return (margin < 0) == (f0Core < 0) ? magnitude : -magnitude;
+    }
+
+    /**
+     * @return netPosition * delta rounded HALF_EVEN to an integer, delta being unscaled at scale {@value #DELTA_SCALE}
+     */
+    static int toProjectedPosition(final int netPosition, final long delta) {
+        final long integerPart = Math.floorDiv(delta, DELTA_ONE);
+        final long fraction = Math.floorMod(delta, DELTA_ONE);
+        // netPosition * fraction may exceed a long: split the fraction to divide by 10^15 exactly
+        final long high = netPosition * (fraction / FRACTION_SPLIT);
+        final long carry = Math.floorMod(high, FRACTION_HIGH_UNIT) * FRACTION_SPLIT + netPosition * (fraction % FRACTION_SPLIT);
+        long quotient = netPosition * integerPart + Math.floorDiv(high, FRACTION_HIGH_UNIT) + Math.floorDiv(carry, DELTA_ONE);
+        final long twiceRemainder = Math.floorMod(carry, DELTA_ONE) * 2;
+        if (twiceRemainder > DELTA_ONE || twiceRemainder == DELTA_ONE && (quotient & 1) == 1) {
+            quotient++;
+        }
+        return (int) quotient;
+    }
+
+    /**
+     * @return true if every branch has a flow lower than or equal to its margin on every vertex of the box,
+     * the box being within the exact range of the domain
+     */
+    private boolean isSafe(final long[] lower, final long[] upper) {
+        for (int branch = 0; branch < branchCount; branch++) {
+            long maxFlow = 0;
+            for (int i = 0; i < coordinateCount; i++) {
+                final long ptdf = ptdfs[branch * coordinateCount + i];
+                maxFlow += Math.max(ptdf * lower[i], ptdf * upper[i]);
+            }
+            if (maxFlow > scaledMargins[branch]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static double clamp(final double value, final long bound) {
+        return Double.isNaN(value) ? 0 : Math.clamp(value, -bound, bound);
+    }
+
+    /**
+     * @return the index of each coordinate code, the first one winning for duplicated codes
+     */
+    private static Map<String, Integer> coordinateIndexes(final List<String> coordinateCodes) {
+        final Map<String, Integer> coordinateIndexes = new HashMap<>();
+        for (int i = 0; i < coordinateCodes.size(); i++) {
+            coordinateIndexes.putIfAbsent(coordinateCodes.get(i), i);
+        }
+        return coordinateIndexes;
+    }
+
+    /**
+     * @return the scale shared by all PTDFs, or -1 if it is too large or if a branch has no PTDF
+     */
+    private static int commonPtdfScale(final List<? extends FlowBasedDomainBranchData> branchesData) {
+        int scale = 0;
+        for (final FlowBasedDomainBranchData branchData : branchesData) {
+            final Map<String, BigDecimal> ptdfValues = branchData.getPtdfValues();
+            if (ptdfValues == null || ptdfValues.isEmpty()) {
+                return -1;
+            }
+            for (final BigDecimal ptdf : ptdfValues.values()) {
+                if (ptdf == null) {
+                    return -1;
+                }
+                scale = Math.max(scale, ptdf.scale());
+            }
+        }
+        return scale <= MAX_PTDF_SCALE ? scale : -1;
+    }
+
+    /**
+     * Compares marginA / normA with marginB / normB exactly, norms being positive.
+     */
+    private static int compareRatios(final long marginA,
+                                     final long normA,
+                                     final long marginB,
+                                     final long normB) {
+        final long highA = Math.multiplyHigh(marginA, normB);
+        final long highB = Math.multiplyHigh(marginB, normA);
+        if (highA != highB) {
+            return Long.compare(highA, highB);
+        }
+        return Long.compareUnsigned(marginA * normB, marginB * normA);
+    }
+
+    private static long pow10(final int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= 10;
+        }
+        return result;
+    }
+}
@@ -15,4 +15,11 @@ public interface FlowBasedDomainBranchData {
     int getAmr();
 
     Map<String, BigDecimal> getPtdfValues();
+
+    /**
+     * @return the id of the constraint, identifying the branch across successive domains, or null if unknown
+     */
+    default String getId() {
+        return null;
+    }
 }
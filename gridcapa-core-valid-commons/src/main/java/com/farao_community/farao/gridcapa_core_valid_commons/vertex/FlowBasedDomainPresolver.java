@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ */
+package com.farao_community.farao.gridcapa_core_valid_commons.vertex;
+
+import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.CoreHub;
+import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.HubRegistry;
+import com.farao_community.farao.gridcapa_core_valid_commons.exception.CoreValidCommonsInvalidDataException;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Removes from a flow-based domain the branches that never give the delta of any vertex, before projection.
+ * <p>
+ * A branch of margin m = RAM0core + AMR and PTDFs p projects a vertex x by m / (p.x) when p.x &gt;= m. For m &gt; 0,
+ * writing p = s.q with q the primitive integer direction of the scaled PTDFs and s &gt; 0, that delta is
+ * (m / s) / (q.x): among branches of the same direction, the one with the largest s / m gives a delta lower than or
+ * equal to the others' for every vertex where they apply, and applies wherever they do. Rounding the deltas being
+ * monotonic, the minimal delta of every vertex, hence every projected vertex, is unchanged without the others,
+ * whatever the {@link ProjectionEngine}. A branch with a margin above zero and no PTDF on any hub never applies either.
+ * <p>
+ * Branches with a margin of zero or less, or without PTDF values, are always kept. Redundancy implied by several
+ * branches together, which would take a linear program per branch, is not looked for.
+ */
+public final class FlowBasedDomainPresolver {
+
+    private FlowBasedDomainPresolver() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * @param branchesData   the branches of the domain
+     * @param removedCount   the number of branches removed from the domain
+     */
+    public record PresolvedDomain(List<FlowBasedDomainBranchData> branchesData, int removedCount) {
+    }
+
+    /**
+     * @return the branches to keep, in their original order, as a {@link BranchDataSet} if the domain was given as one,
+     * or the domain unchanged if its PTDFs cannot be scaled exactly to longs
+     */
+    public static PresolvedDomain presolve(final List<? extends FlowBasedDomainBranchData> branchesData,
+                                           final List<CoreHub> coreHubs) {
+        return presolveForHubs(branchesData, BranchDataSet.toHubCodes(coreHubs));
+    }
+
+    /**
+     * Same as {@link #presolve(List, List)}, for the hubs of the registry.
+     */
+    public static PresolvedDomain presolve(final List<? extends FlowBasedDomainBranchData> branchesData,
+                                           final HubRegistry hubRegistry) {
+        return presolve(branchesData, hubRegistry.getCoreHubs());
+    }
+
+    private static PresolvedDomain presolveForHubs(final List<? extends FlowBasedDomainBranchData> branchesData,
+                                                   final List<String> hubCodes) {
+        final BranchDataSet branchDataSet;
+        try {
+            branchDataSet = BranchDataSet.of(branchesData, hubCodes);
+        } catch (final CoreValidCommonsInvalidDataException e) {
+            return new PresolvedDomain(List.copyOf(branchesData), 0);
+        }
+        final boolean[] kept = keptBranches(branchesData, branchDataSet);
+        final List<FlowBasedDomainBranchData> keptBranchesData = branchesData == branchDataSet
+                ? keptRows(branchDataSet, kept)
+                : keptElements(branchesData, kept);
+        return new PresolvedDomain(keptBranchesData, branchesData.size() - keptBranchesData.size());
+    }
+
+    private static boolean[] keptBranches(final List<? extends FlowBasedDomainBranchData> branchesData,
+                                          final BranchDataSet branchDataSet) {
+        final int hubCount = branchDataSet.hubCount();
+        final long[] scaledPtdfs = branchDataSet.scaledPtdfsArray();
+        final boolean[] kept = new boolean[branchDataSet.size()];
+        // tightest branch found so far for each primitive direction
+        final Map<Direction, Integer> tightestBranches = new HashMap<>();
+        for (int i = 0; i < kept.length; i++) {
+            final long margin = (long) branchDataSet.ram0Core(i) + branchDataSet.amr(i);
+            final long[] row = Arrays.copyOfRange(scaledPtdfs, i * hubCount, (i + 1) * hubCount);
+            final long gcd = gcd(row);
+            if (margin <= 0 || gcd < 0 || branchesData.get(i).getPtdfValues().isEmpty()) {
+                kept[i] = true;
+            } else if (gcd > 0) {
+                for (int hub = 0; hub < hubCount; hub++) {
+                    row[hub] /= gcd;
+                }
+                final Direction direction = new Direction(row);
+                final Integer tightest = tightestBranches.get(direction);
+                if (tightest == null || isTighter(gcd, margin, gcd(scaledPtdfs, tightest, hubCount), (long) branchDataSet.ram0Core(tightest) + branchDataSet.amr(tightest))) {
+                    if (tightest != null) {
+                        kept[tightest] = false;
+                    }
+                    tightestBranches.put(direction, i);
+                    kept[i] = true;
+                }
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * @return whether s1 / m1 &gt; s2 / m2, margins being positive
+     */
+    private static boolean isTighter(final long s1, final long m1, final long s2, final long m2) {
+        return BigInteger.valueOf(s1).multiply(BigInteger.valueOf(m2)).compareTo(BigInteger.valueOf(s2).multiply(BigInteger.valueOf(m1))) > 0;
+    }
+
+    private static long gcd(final long[] scaledPtdfs, final int branch, final int hubCount) {
+        return gcd(Arrays.copyOfRange(scaledPtdfs, branch * hubCount, (branch + 1) * hubCount));
+    }
+
+    /**
+     * @return the greatest common divisor of the absolute values, zero if they are all zero,
+     * or -1 if one of them has no absolute value as a long
+     */
+    private static long gcd(final long[] values) {
+        long gcd = 0;
+        for (final long value : values) {
+            if (value == Long.MIN_VALUE) {
+                return -1;
+            }
+            long a = Math.abs(value);
+            while (a != 0) {
+                final long remainder = gcd % a;
+                gcd = a;
+                a = remainder;
+            }
+        }
+        return gcd;
+    }
+
+    private static BranchDataSet keptRows(final BranchDataSet branchDataSet, final boolean[] kept) {
+        final BranchDataSet.Builder builder = new BranchDataSet.Builder(branchDataSet.getHubCodes(), branchDataSet.ptdfScale());
+        final int hubCount = branchDataSet.hubCount();
+        for (int i = 0; i < kept.length; i++) {
+            if (kept[i]) {
+                builder.add(branchDataSet.id(i), branchDataSet.ram0Core(i), branchDataSet.amr(i),
+                            Arrays.copyOfRange(branchDataSet.scaledPtdfsArray(), i * hubCount, (i + 1) * hubCount));
+            }
+        }
+        return builder.build();
+    }
+
+    private static List<FlowBasedDomainBranchData> keptElements(final List<? extends FlowBasedDomainBranchData> branchesData,
+                                                                 final boolean[] kept) {
+        final List<FlowBasedDomainBranchData> keptBranchesData = new ArrayList<>();
+        for (int i = 0; i < kept.length; i++) {
+            if (kept[i]) {
+                keptBranchesData.add(branchesData.get(i));
+            }
+        }
+        return List.copyOf(keptBranchesData);
+    }
+
+    /**
+     * Primitive integer direction of scaled PTDFs, compared by value.
+     */
+    private static final class Direction {
+        private final long[] components;
+        private final int hash;
+
+        private Direction(final long[] components) {
+            this.components = components;
+            this.hash = Arrays.hashCode(components);
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof Direction direction && Arrays.equals(components, direction.components);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
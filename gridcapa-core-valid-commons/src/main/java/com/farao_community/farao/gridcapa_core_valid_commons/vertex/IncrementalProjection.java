@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ */
+package com.farao_community.farao.gridcapa_core_valid_commons.vertex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.farao_community.farao.gridcapa_core_valid_commons.vertex.FixedPointDomain.DELTA_ONE;
+import static com.farao_community.farao.gridcapa_core_valid_commons.vertex.FixedPointDomain.OUT_OF_RANGE;
+
+/**
+ * Projection of a vertex set on a domain, keeping for each vertex its delta and the branch giving it,
+ * so that the projection on a later version of the domain only recomputes what the changes may affect.
+ * <p>
+ * Domains are diffed by constraint id ({@link FlowBasedDomainBranchData#getId()}). A vertex is fully recomputed
+ * when its binding branch was removed or modified; otherwise only the added and modified branches are evaluated
+ * on it, since the others give the same deltas as before. Vertices projected with the {@link java.math.BigDecimal}
+ * engine, domains with missing or duplicated ids and changes of hubs always lead to a full recompute.
+ */
+public final class IncrementalProjection {
+
+    private final VertexSet baseVertices;
+    private final CompiledFlowBasedDomain domain;
+    private final VertexSet projectedVertices;
+    private final long[] deltas;
+    private final int[] bindingBranches;
+    private final int recomputedVertexCount;
+
+    private IncrementalProjection(final VertexSet baseVertices,
+                                  final CompiledFlowBasedDomain domain,
+                                  final VertexSet projectedVertices,
+                                  final long[] deltas,
+                                  final int[] bindingBranches,
+                                  final int recomputedVertexCount) {
+        this.baseVertices = baseVertices;
+        this.domain = domain;
+        this.projectedVertices = projectedVertices;
+        this.deltas = deltas;
+        this.bindingBranches = bindingBranches;
+        this.recomputedVertexCount = recomputedVertexCount;
+    }
+
+    /**
+     * Projects every vertex on the domain, keeping what later updates need.
+     */
+    public static IncrementalProjection project(final VertexSet baseVertices,
+                                                final CompiledFlowBasedDomain domain,
+                                                final ProjectionParameters parameters) {
+        checkHubs(baseVertices, domain);
+        final int size = baseVertices.size();
+        final int[] coordinates = baseVertices.coordinatesArray().clone();
+        final long[] deltas = new long[size];
+        final int[] bindingBranches = new int[size];
+        VertexRangeTask.forEachRange(size, parameters,
+            (from, to) -> domain.projectRange(baseVertices, from, to, parameters.engine(), coordinates, deltas, bindingBranches));
+        return new IncrementalProjection(baseVertices,
+                                         domain,
+                                         new VertexSet(baseVertices.getHubCodes(), baseVertices.vertexIdsArray(), coordinates, size),
+                                         deltas,
+                                         bindingBranches,
+                                         size);
+    }
+
+    /**
+     * Projects the same vertices on a new version of the domain, recomputing only the vertices its changes may affect.
+     * The result is identical to {@link #project} on the new domain.
+     */
+    public IncrementalProjection update(final CompiledFlowBasedDomain newDomain,
+                                        final ProjectionParameters parameters) {
+        checkHubs(baseVertices, newDomain);
+        final DomainDiff diff = DomainDiff.of(domain, newDomain);
+        if (diff == null || parameters.engine() != ProjectionEngine.FIXED_POINT || newDomain.getFixedPointDomain() == null) {
+            return project(baseVertices, newDomain, parameters);
+        }
+        final FixedPointDomain changedBranches = diff.changedBranches().isEmpty()
+            ? null
+            : FixedPointDomain.compile(diff.changedBranches(), newDomain.getFlowBasedToVertexCodeMap(), newDomain.getHubCodes());
+        if (changedBranches == null && !diff.changedBranches().isEmpty()) {
+            return project(baseVertices, newDomain, parameters);
+        }
+
+        final int size = baseVertices.size();
+        final int hubCount = baseVertices.hubCount();
+        final int[] baseCoordinates = baseVertices.coordinatesArray();
+        final int[] coordinates = projectedVertices.coordinatesArray().clone();
+        final long[] newDeltas = new long[size];
+        final int[] newBindingBranches = new int[size];
+        final boolean[] fullyRecomputed = new boolean[size];
+
+        VertexRangeTask.forEachRange(size, parameters, (from, to) -> {
+            final long[] changedDeltas = new long[to - from];
+            final int[] changedBindingBranches = new int[to - from];
+            if (changedBranches != null) {
+                ProjectionKernel.minimalDeltas(changedBranches, baseCoordinates, from, to, changedDeltas, changedBindingBranches);
+            } else {
+                Arrays.fill(changedDeltas, DELTA_ONE);
+                Arrays.fill(changedBindingBranches, -1);
+            }
+            for (int i = from; i < to; i++) {
+                final int binding = bindingBranches[i];
+                final long changedDelta = changedDeltas[i - from];
+                if (deltas[i] == OUT_OF_RANGE || changedDelta == OUT_OF_RANGE || binding >= 0 && diff.newIndexes()[binding] < 0) {
+                    fullyRecomputed[i] = true;
+                } else if (changedDelta < deltas[i]) {
+                    newDeltas[i] = changedDelta;
+                    newBindingBranches[i] = diff.changedBranchIndexes()[changedBindingBranches[i - from]];
+                    final int rowOffset = i * hubCount;
+                    for (int offset = rowOffset; offset < rowOffset + hubCount; offset++) {
+                        coordinates[offset] = FixedPointDomain.toProjectedPosition(baseCoordinates[offset], changedDelta);
+                    }
+                } else {
+                    newDeltas[i] = deltas[i];
+                    newBindingBranches[i] = binding >= 0 ? diff.newIndexes()[binding] : -1;
+                }
+            }
+        });
+
+        final int recomputed = recompute(newDomain, parameters, fullyRecomputed, coordinates, newDeltas, newBindingBranches);
+        return new IncrementalProjection(baseVertices,
+                                         newDomain,
+                                         new VertexSet(baseVertices.getHubCodes(), baseVertices.vertexIdsArray(), coordinates, size),
+                                         newDeltas,
+                                         newBindingBranches,
+                                         recomputed);
+    }
+
+    public CompiledFlowBasedDomain getDomain() {
+        return domain;
+    }
+
+    public VertexSet getProjectedVertices() {
+        return projectedVertices;
+    }
+
+    /**
+     * @return the number of vertices projected against the whole domain to build this projection
+     */
+    public int getRecomputedVertexCount() {
+        return recomputedVertexCount;
+    }
+
+    /**
+     * Gathers the vertices to recompute into a new set, projects it on the whole domain and scatters the results back.
+     */
+    private int recompute(final CompiledFlowBasedDomain newDomain,
+                          final ProjectionParameters parameters,
+                          final boolean[] fullyRecomputed,
+                          final int[] coordinates,
+                          final long[] newDeltas,
+                          final int[] newBindingBranches) {
+        final int hubCount = baseVertices.hubCount();
+        final int[] indexes = new int[baseVertices.size()];
+        int count = 0;
+        for (int i = 0; i < fullyRecomputed.length; i++) {
+            if (fullyRecomputed[i]) {
+                indexes[count++] = i;
+            }
+        }
+        final VertexSet.Builder builder = new VertexSet.Builder(baseVertices.getHubCodes(), count);
+        final int[] row = new int[hubCount];
+        for (int j = 0; j < count; j++) {
+            System.arraycopy(baseVertices.coordinatesArray(), indexes[j] * hubCount, row, 0, hubCount);
+            builder.add(baseVertices.vertexId(indexes[j]), row);
+        }
+        final IncrementalProjection recomputed = project(builder.build(), newDomain, parameters);
+        for (int j = 0; j < count; j++) {
+            System.arraycopy(recomputed.projectedVertices.coordinatesArray(), j * hubCount, coordinates, indexes[j] * hubCount, hubCount);
+            newDeltas[indexes[j]] = recomputed.deltas[j];
+            newBindingBranches[indexes[j]] = recomputed.bindingBranches[j];
+        }
+        return count;
+    }
+
+    private static void checkHubs(final VertexSet baseVertices,
+                                  final CompiledFlowBasedDomain domain) {
+        if (!baseVertices.getHubCodes().equals(domain.getHubCodes())) {
+            throw new IllegalArgumentException("Vertex set hubs %s differ from domain hubs %s".formatted(baseVertices.getHubCodes(), domain.getHubCodes()));
+        }
+    }
+
+    /**
+     * @param newIndexes           index in the new domain of each branch of the old domain, -1 if it was removed or modified
+     * @param changedBranches      branches of the new domain that were added or modified
+     * @param changedBranchIndexes index in the new domain of each changed branch
+     */
+    private record DomainDiff(int[] newIndexes,
+                              List<FlowBasedDomainBranchData> changedBranches,
+                              int[] changedBranchIndexes) {
+
+        /**
+         * @return the diff, or null if the domains cannot be compared branch by branch
+         */
+        private static DomainDiff of(final CompiledFlowBasedDomain oldDomain,
+                                     final CompiledFlowBasedDomain newDomain) {
+            if (!oldDomain.getFlowBasedToVertexCodeMap().equals(newDomain.getFlowBasedToVertexCodeMap())) {
+                return null;
+            }
+            final Map<String, Integer> newIndexesById = indexesById(newDomain.getBranchesData());
+            final Map<String, Integer> oldIndexesById = indexesById(oldDomain.getBranchesData());
+            if (newIndexesById == null || oldIndexesById == null) {
+                return null;
+            }
+
+            final List<FlowBasedDomainBranchData> oldBranches = oldDomain.getBranchesData();
+            final List<FlowBasedDomainBranchData> newBranches = newDomain.getBranchesData();
+            final int[] newIndexes = new int[oldBranches.size()];
+            for (int oldIndex = 0; oldIndex < oldBranches.size(); oldIndex++) {
+                final Integer newIndex = newIndexesById.get(oldBranches.get(oldIndex).getId());
+                newIndexes[oldIndex] = newIndex != null && isSameBranch(oldBranches.get(oldIndex), newBranches.get(newIndex)) ? newIndex : -1;
+            }
+            final List<FlowBasedDomainBranchData> changedBranches = new ArrayList<>();
+            final List<Integer> changedBranchIndexes = new ArrayList<>();
+            for (int newIndex = 0; newIndex < newBranches.size(); newIndex++) {
+                final Integer oldIndex = oldIndexesById.get(newBranches.get(newIndex).getId());
+                if (oldIndex == null || newIndexes[oldIndex] < 0) {
+                    changedBranches.add(newBranches.get(newIndex));
+                    changedBranchIndexes.add(newIndex);
+                }
+            }
+            return new DomainDiff(newIndexes, changedBranches, changedBranchIndexes.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        /**
+         * @return the index of each branch by id, or null if an id is missing or duplicated
+         */
+        private static Map<String, Integer> indexesById(final List<FlowBasedDomainBranchData> branches) {
+            final Map<String, Integer> indexesById = HashMap.newHashMap(branches.size());
+            for (int index = 0; index < branches.size(); index++) {
+                final String id = branches.get(index).getId();
+                if (id == null || indexesById.put(id, index) != null) {
+                    return null;
+                }
+            }
+            return indexesById;
+        }
+
+        private static boolean isSameBranch(final FlowBasedDomainBranchData oldBranch,
+                                            final FlowBasedDomainBranchData newBranch) {
+            return oldBranch.getRam0Core() == newBranch.getRam0Core()
+                && oldBranch.getAmr() == newBranch.getAmr()
+                && Objects.equals(oldBranch.getPtdfValues(), newBranch.getPtdfValues());
+        }
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ */
+package com.farao_community.farao.gridcapa_core_valid_commons.vertex;
+
+import java.util.Map;
+
+/**
+ * Minimal and maximal net positions of the hubs over a flow-based domain, as published with it.
+ * They only bound the domain from outside: {@link CompiledFlowBasedDomain} shrinks them into a box
+ * proven to lie within the domain before using them.
+ *
+ * @param minNetPositions minimal net position of each hub, by flow-based code
+ * @param maxNetPositions maximal net position of each hub, by flow-based code
+ */
+public record NetPositionLimits(Map<String, Double> minNetPositions, Map<String, Double> maxNetPositions) {
+
+    public static final NetPositionLimits NONE = new NetPositionLimits(Map.of(), Map.of());
+
+    public NetPositionLimits {
+        minNetPositions = Map.copyOf(minNetPositions);
+        maxNetPositions = Map.copyOf(maxNetPositions);
+    }
+}
@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ */
+package com.farao_community.farao.gridcapa_core_valid_commons.vertex;
+
+/**
+ * Arithmetic used to project vertices on a flow-based domain.
+ */
+public enum ProjectionEngine {
+    /**
+     * Reference implementation, computing f0Core and deltas with {@link java.math.BigDecimal}.
+     */
+    BIG_DECIMAL,
+    /**
+     * Scaled {@code long} arithmetic giving the same results as {@link #BIG_DECIMAL} without allocating
+     * in the inner loop. Vertices whose values exceed the exact range fall back to {@link #BIG_DECIMAL}.
+     */
+    FIXED_POINT,
+    /**
+     * Runs both engines and fails on the first vertex for which they disagree. Meant for rollout checks.
+     */
+    COMPARE
+}
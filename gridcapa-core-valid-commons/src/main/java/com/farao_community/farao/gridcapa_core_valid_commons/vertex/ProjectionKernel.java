@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ */
+package com.farao_community.farao.gridcapa_core_valid_commons.vertex;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import static com.farao_community.farao.gridcapa_core_valid_commons.vertex.FixedPointDomain.DELTA_ONE;
+import static com.farao_community.farao.gridcapa_core_valid_commons.vertex.FixedPointDomain.OUT_OF_RANGE;
+
+/**
+ * Batch computation of the flows V × Pᵀ of a range of vertices on every branch of a {@link FixedPointDomain},
+ * with the minimal delta reduction of each vertex fused in.
+ * <p>
+ * Vertices are transposed by blocks into hub-major columns, then processed by tiles small enough to stay in L1 cache
+ * while branches are applied to them in the evaluation order of the domain. The innermost loop is a plain multiply-add
+ * over contiguous vertex columns with a constant PTDF, a layout the JIT compiler can auto-vectorize where the CPU
+ * supports it. A tile stops as soon as the domain bound shows that no remaining branch can lower the delta of any of
+ * its vertices. Vertices in the safe box of the domain, if any, are left out of the tiles, which are skipped altogether
+ * when all their vertices are.
+ * Results are those of {@link FixedPointDomain#minimalDelta}, vertex by vertex.
+ */
+final class ProjectionKernel {
+
+    static final int VERTEX_BLOCK = 1024;
+    static final int VERTEX_TILE = 64;
+
+    private ProjectionKernel() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * @param domain      the compiled domain
+     * @param coordinates row-major coordinates, with {@link FixedPointDomain#coordinateCount()} values per vertex
+     * @param from        index of the first vertex, inclusive
+     * @param to          index of the last vertex, exclusive
+     * @param deltas      receives the minimal delta of vertex {@code from + i} at index {@code i}, as returned by
+     *                    {@link FixedPointDomain#minimalDelta}
+     */
+    static void minimalDeltas(final FixedPointDomain domain,
+                              final int[] coordinates,
+                              final int from,
+                              final int to,
+                              final long[] deltas) {
+        minimalDeltas(domain, coordinates, from, to, deltas, null);
+    }
+
+    /**
+     * @param bindingBranches if not null, receives at index {@code i} the index in the compiled branches list of a branch
+     *                        giving the minimal delta of vertex {@code from + i}, or -1 if the vertex is not projected
+     */
+    static void minimalDeltas(final FixedPointDomain domain,
+                              final int[] coordinates,
+                              final int from,
+                              final int to,
+                              final long[] deltas,
+                              final int[] bindingBranches) {
+        minimalDeltas(new FixedPointDomain[]{domain}, coordinates, from, to, new long[][]{deltas}, new int[][]{bindingBranches});
+    }
+
+    /**
+     * Applies several domains sharing the same coordinates to the range, each block of vertices being transposed once
+     * and kept in cache while every domain is applied to it.
+     *
+     * @param domains         the compiled domains, null ones being skipped
+     * @param deltas          receives the deltas of the range for each domain, as for a single domain
+     * @param bindingBranches receives the binding branches of the range for each domain, as for a single domain,
+     *                        null arrays being skipped
+     */
+    static void minimalDeltas(final FixedPointDomain[] domains,
+                              final int[] coordinates,
+                              final int from,
+                              final int to,
+                              final long[][] deltas,
+                              final int[][] bindingBranches) {
+        final int hubCount = Arrays.stream(domains).filter(Objects::nonNull).mapToInt(FixedPointDomain::coordinateCount).findFirst().orElse(0);
+        final long[] columns = new long[hubCount * VERTEX_BLOCK];
+        final long[] maxAbsPositions = new long[VERTEX_BLOCK];
+        final boolean[] safeVertices = new boolean[VERTEX_BLOCK];
+        final long[] flows = new long[VERTEX_TILE];
+
+        for (int blockStart = from; blockStart < to; blockStart += VERTEX_BLOCK) {
+            final int blockSize = Math.min(VERTEX_BLOCK, to - blockStart);
+            final int blockOffset = blockStart - from;
+            transpose(hubCount, coordinates, blockStart, blockSize, columns, maxAbsPositions);
+            for (int d = 0; d < domains.length; d++) {
+                final FixedPointDomain domain = domains[d];
+                if (domain == null) {
+                    continue;
+                }
+                // vertices out of the exact range of the domain are flagged once and for all
+                for (int v = 0; v < blockSize; v++) {
+                    deltas[d][blockOffset + v] = maxAbsPositions[v] > domain.maxAbsNetPosition() ? OUT_OF_RANGE : DELTA_ONE;
+                }
+                if (bindingBranches[d] != null) {
+                    Arrays.fill(bindingBranches[d], blockOffset, blockOffset + blockSize, -1);
+                }
+                flagSafeVertices(domain, columns, blockSize, safeVertices);
+                for (int tileStart = 0; tileStart < blockSize; tileStart += VERTEX_TILE) {
+                    final int tileSize = Math.min(VERTEX_TILE, blockSize - tileStart);
+                    applyBranches(domain, columns, maxAbsPositions, safeVertices, tileStart, tileSize, flows, deltas[d], bindingBranches[d], blockOffset + tileStart);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies the block of vertices into hub-major columns, and computes the largest absolute coordinate of each vertex.
+     */
+    private static void transpose(final int hubCount,
+                                  final int[] coordinates,
+                                  final int blockStart,
+                                  final int blockSize,
+                                  final long[] columns,
+                                  final long[] maxAbsPositions) {
+        for (int v = 0; v < blockSize; v++) {
+            final int rowOffset = (blockStart + v) * hubCount;
+            long maxAbs = 0;
+            for (int h = 0; h < hubCount; h++) {
+                final int coordinate = coordinates[rowOffset + h];
+                columns[h * VERTEX_BLOCK + v] = coordinate;
+                maxAbs = Math.max(maxAbs, Math.abs((long) coordinate));
+            }
+            maxAbsPositions[v] = maxAbs;
+        }
+    }
+
+    /**
+     * Flags the vertices of the block lying in the safe box of the domain, whose delta is one.
+     */
+    private static void flagSafeVertices(final FixedPointDomain domain,
+                                         final long[] columns,
+                                         final int blockSize,
+                                         final boolean[] safeVertices) {
+        final long[] lowerBounds = domain.safeLowerBounds();
+        final long[] upperBounds = domain.safeUpperBounds();
+        Arrays.fill(safeVertices, 0, blockSize, lowerBounds != null);
+        if (lowerBounds == null) {
+            return;
+        }
+        for (int h = 0; h < domain.coordinateCount(); h++) {
+            final int columnOffset = h * VERTEX_BLOCK;
+            for (int v = 0; v < blockSize; v++) {
+                final long coordinate = columns[columnOffset + v];
+                safeVertices[v] &= coordinate >= lowerBounds[h] && coordinate <= upperBounds[h];
+            }
+        }
+    }
+
+    private static void applyBranches(final FixedPointDomain domain,
+                                      final long[] columns,
+                                      final long[] maxAbsPositions,
+                                      final boolean[] safeVertices,
+                                      final int tileStart,
+                                      final int tileSize,
+                                      final long[] flows,
+                                      final long[] deltas,
+                                      final int[] bindingBranches,
+                                      final int deltaOffset) {
+        final int hubCount = domain.coordinateCount();
+        final long[] ptdfs = domain.ptdfs();
+        final long[] margins = domain.scaledMargins();
+        long tileMaxAbs = 0;
+        boolean allSafe = true;
+        for (int v = 0; v < tileSize; v++) {
+            if (deltas[deltaOffset + v] != OUT_OF_RANGE && !safeVertices[tileStart + v]) {
+                tileMaxAbs = Math.max(tileMaxAbs, maxAbsPositions[tileStart + v]);
+                allSafe = false;
+            }
+        }
+        if (allSafe) {
+            return;
+        }
+        long tileMaxDelta = maxDelta(deltas, safeVertices, tileStart, deltaOffset, tileSize);
+        for (int branch = 0; branch < domain.branchCount() && !domain.canStopAt(branch, tileMaxAbs, tileMaxDelta); branch++) {
+            Arrays.fill(flows, 0, tileSize, 0L);
+            final int ptdfOffset = branch * hubCount;
+            for (int h = 0; h < hubCount; h++) {
+                final long ptdf = ptdfs[ptdfOffset + h];
+                if (ptdf != 0) {
+                    final int columnOffset = h * VERTEX_BLOCK + tileStart;
+                    for (int v = 0; v < tileSize; v++) {
+                        flows[v] += ptdf * columns[columnOffset + v];
+                    }
+                }
+            }
+            final long margin = margins[branch];
+            boolean updated = false;
+            for (int v = 0; v < tileSize; v++) {
+                final long f0Core = flows[v];
+                final int index = deltaOffset + v;
+                if (f0Core != 0 && margin <= f0Core && deltas[index] != OUT_OF_RANGE && !safeVertices[tileStart + v]) {
+                    final long delta = FixedPointDomain.delta(margin, f0Core);
+                    if (delta == OUT_OF_RANGE) {
+                        deltas[index] = OUT_OF_RANGE;
+                    } else if (delta < deltas[index]) {
+                        deltas[index] = delta;
+                        if (bindingBranches != null) {
+                            bindingBranches[index] = domain.branchIndex(branch);
+                        }
+                    }
+                    updated = true;
+                }
+            }
+            if (updated) {
+                tileMaxDelta = maxDelta(deltas, safeVertices, tileStart, deltaOffset, tileSize);
+            }
+        }
+    }
+
+    /**
+     * @return the largest delta of the tile, vertices out of the exact range or in the safe box excluded, or 0 if there is none
+     */
+    private static long maxDelta(final long[] deltas,
+                                 final boolean[] safeVertices,
+                                 final int tileStart,
+                                 final int deltaOffset,
+                                 final int tileSize) {
+        long maxDelta = 0;
+        for (int v = 0; v < tileSize; v++) {
+            final long delta = deltas[deltaOffset + v];
+            if (delta != OUT_OF_RANGE && !safeVertices[tileStart + v]) {
+                maxDelta = Math.max(maxDelta, delta);
+            }
+        }
+        return maxDelta;
+    }
+}
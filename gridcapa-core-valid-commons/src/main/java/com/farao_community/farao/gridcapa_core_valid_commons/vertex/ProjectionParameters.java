@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ */
+package com.farao_community.farao.gridcapa_core_valid_commons.vertex;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * @param engine              arithmetic used to project the vertices
+ * @param pool                pool in which vertices are projected in parallel, or null to project them in the calling thread
+ * @param sequentialThreshold number of vertices under which a chunk of vertices is not split any further
+ */
+public record ProjectionParameters(ProjectionEngine engine, ForkJoinPool pool, int sequentialThreshold) {
+
+    public static final int DEFAULT_SEQUENTIAL_THRESHOLD = 1024;
+
+    public ProjectionParameters {
+        if (engine == null) {
+            throw new IllegalArgumentException("Projection engine must be provided");
+        }
+        if (sequentialThreshold < 1) {
+            throw new IllegalArgumentException("Sequential threshold must be positive, got %d".formatted(sequentialThreshold));
+        }
+    }
+
+    public static ProjectionParameters sequential(final ProjectionEngine engine) {
+        return new ProjectionParameters(engine, null, DEFAULT_SEQUENTIAL_THRESHOLD);
+    }
+
+    public static ProjectionParameters parallel(final ProjectionEngine engine, final ForkJoinPool pool) {
+        return new ProjectionParameters(engine, pool, DEFAULT_SEQUENTIAL_THRESHOLD);
+    }
+
+    public boolean isParallel(final int vertexCount) {
+        return pool != null && vertexCount > sequentialThreshold;
+    }
+}
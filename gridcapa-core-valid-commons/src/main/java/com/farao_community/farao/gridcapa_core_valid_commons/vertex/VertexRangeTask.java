@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ */
+package com.farao_community.farao.gridcapa_core_valid_commons.vertex;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Splits a range of vertex indexes in halves until chunks are small enough to be processed sequentially.
+ * Each index is processed by exactly one chunk, so that writing results by index keeps them in input order.
+ */
+final class VertexRangeTask extends RecursiveAction {
+
+    @FunctionalInterface
+    interface RangeConsumer {
+        void accept(int from, int to);
+    }
+
+    private final int from;
+    private final int to;
+    private final int sequentialThreshold;
+    private final transient RangeConsumer consumer;
+
+    private VertexRangeTask(final int from, final int to, final int sequentialThreshold, final RangeConsumer consumer) {
+        this.from = from;
+        this.to = to;
+        this.sequentialThreshold = sequentialThreshold;
+        this.consumer = consumer;
+    }
+
+    /**
+     * Processes the vertices [0, size) with the given parameters, in parallel when they allow it.
+     */
+    static void forEachRange(final int size, final ProjectionParameters parameters, final RangeConsumer consumer) {
+        if (parameters.isParallel(size)) {
+            parameters.pool().invoke(new VertexRangeTask(0, size, parameters.sequentialThreshold(), consumer));
+        } else {
+            consumer.accept(0, size);
+        }
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from <= sequentialThreshold) {
+            consumer.accept(from, to);
+        } else {
+            final int middle = (from + to) >>> 1;
+            invokeAll(new VertexRangeTask(from, middle, sequentialThreshold, consumer),
+                      new VertexRangeTask(middle, to, sequentialThreshold, consumer));
+        }
+    }
+}
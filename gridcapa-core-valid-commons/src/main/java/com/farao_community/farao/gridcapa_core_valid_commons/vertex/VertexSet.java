@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ */
+package com.farao_community.farao.gridcapa_core_valid_commons.vertex;
+
+import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.CoreHub;
+import com.farao_community.farao.gridcapa_core_valid_commons.exception.CoreValidCommonsInvalidDataException;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * Columnar store of vertices: one row-major {@code int[]} holding every coordinate,
+ * indexed by vertex position and hub ordinal (the position of the hub in the {@link CoreHub} list).
+ * <p>
+ * The set is immutable and is exposed as a {@code List<Vertex>}: {@link #get(int)} returns a
+ * {@link Vertex} whose coordinates are a read-only view on the underlying row, so that existing
+ * callers of {@link Vertex#coordinates()} keep working without any boxed copy being stored.
+ */
+public final class VertexSet extends AbstractList<Vertex> implements RandomAccess {
+
+    private final List<String> hubCodes;
+    private final Map<String, Integer> hubOrdinals;
+    private final int[] vertexIds;
+    private final int[] coordinates;
+    private final int size;
+
+    VertexSet(final List<String> hubCodes,
+              final int[] vertexIds,
+              final int[] coordinates,
+              final int size) {
+        this.hubCodes = List.copyOf(hubCodes);
+        this.hubOrdinals = toOrdinals(this.hubCodes);
+        this.vertexIds = vertexIds;
+        this.coordinates = coordinates;
+        this.size = size;
+    }
+
+    /**
+     * @param coreHubs the hubs, in the order defining their ordinal
+     * @return the vertex codes of the hubs, indexed by hub ordinal
+     */
+    public static List<String> toHubCodes(final List<CoreHub> coreHubs) {
+        return coreHubs.stream().map(CoreHub::clusterVerticeCode).toList();
+    }
+
+    @Override
+    public Vertex get(final int index) {
+        return new Vertex(vertexId(index), new CoordinatesView(checkIndex(index) * hubCodes.size()));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public int hubCount() {
+        return hubCodes.size();
+    }
+
+    public List<String> getHubCodes() {
+        return hubCodes;
+    }
+
+    /**
+     * @param hubCode the vertex code of a hub
+     * @return the ordinal of the hub in this set, or -1 if the hub is unknown
+     */
+    public int hubOrdinal(final String hubCode) {
+        final Integer ordinal = hubCode == null ? null : hubOrdinals.get(hubCode);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    public int vertexId(final int index) {
+        return vertexIds[checkIndex(index)];
+    }
+
+    public int coordinate(final int index, final int hubOrdinal) {
+        return coordinates[checkIndex(index) * hubCodes.size() + hubOrdinal];
+    }
+
+    /**
+     * Direct access to the row-major coordinates, for the projection and selection hot loops.
+     * Must never be modified.
+     */
+    int[] coordinatesArray() {
+        return coordinates;
+    }
+
+    int[] vertexIdsArray() {
+        return vertexIds;
+    }
+
+    private int checkIndex(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index %d out of bounds for size %d".formatted(index, size));
+        }
+        return index;
+    }
+
+    private static Map<String, Integer> toOrdinals(final List<String> hubCodes) {
+        final Map<String, Integer> ordinals = new HashMap<>();
+        for (int i = 0; i < hubCodes.size(); i++) {
+            if (ordinals.putIfAbsent(hubCodes.get(i), i) != null) {
+                throw new CoreValidCommonsInvalidDataException("Duplicate vertex code %s in core hubs".formatted(hubCodes.get(i)));
+            }
+        }
+        return Map.copyOf(ordinals);
+    }
+
+    /**
+     * Accumulates vertices row by row, growing the backing arrays geometrically.
+     */
+    static final class Builder {
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private final List<String> hubCodes;
+        private final int hubCount;
+        private int[] vertexIds;
+        private int[] coordinates;
+        private int size;
+
+        Builder(final List<String> hubCodes) {
+            this(hubCodes, INITIAL_CAPACITY);
+        }
+
+        Builder(final List<String> hubCodes, final int expectedSize) {
+            this.hubCodes = hubCodes;
+            this.hubCount = hubCodes.size();
+            final int capacity = Math.max(1, expectedSize);
+            this.vertexIds = new int[capacity];
+            this.coordinates = new int[capacity * hubCount];
+        }
+
+        /**
+         * @param vertexId the id of the vertex
+         * @param row      the coordinates of the vertex indexed by hub ordinal, copied by this call
+         */
+        Builder add(final int vertexId, final int[] row) {
+            if (size == vertexIds.length) {
+                final int newCapacity = Math.max(size + 1, size + (size >> 1));
+                vertexIds = Arrays.copyOf(vertexIds, newCapacity);
+                coordinates = Arrays.copyOf(coordinates, newCapacity * hubCount);
+            }
+            vertexIds[size] = vertexId;
+            System.arraycopy(row, 0, coordinates, size * hubCount, hubCount);
+            size++;
+            return this;
+        }
+
+        VertexSet build() {
+            return new VertexSet(hubCodes,
+                                 Arrays.copyOf(vertexIds, size),
+                                 Arrays.copyOf(coordinates, size * hubCount),
+                                 size);
+        }
+    }
+
+    /**
+     * Read-only {@code Map} view on one row of the coordinates array.
+     */
+    private final class CoordinatesView extends AbstractMap<String, Integer> {
+        private final int offset;
+
+        private CoordinatesView(final int offset) {
+            this.offset = offset;
+        }
+
+        @Override
+        public Integer get(final Object key) {
+            final int ordinal = key instanceof String code ? hubOrdinal(code) : -1;
+            return ordinal < 0 ? null : coordinates[offset + ordinal];
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return key instanceof String code && hubOrdinal(code) >= 0;
+        }
+
+        @Override
+        public int size() {
+            return hubCodes.size();
+        }
+
+        @Override
+        public Set<Entry<String, Integer>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, Integer>> iterator() {
+                    return new Iterator<>() {
+                        private int hub;
+
+                        @Override
+                        public boolean hasNext() {
+                            return hub < hubCodes.size();
+                        }
+
+                        @Override
+                        public Entry<String, Integer> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            final Entry<String, Integer> entry = new SimpleImmutableEntry<>(hubCodes.get(hub), coordinates[offset + hub]);
+                            hub++;
+                            return entry;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return hubCodes.size();
+                }
+            };
+        }
+    }
+}
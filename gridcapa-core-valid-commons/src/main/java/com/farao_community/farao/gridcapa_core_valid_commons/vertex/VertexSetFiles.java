@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ */
+package com.farao_community.farao.gridcapa_core_valid_commons.vertex;
+
+import com.farao_community.farao.gridcapa_core_valid_commons.exception.CoreValidCommonsInvalidDataException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Compact binary columnar format of a {@link VertexSet}, meant to be written once and read back many times. Reading a
+ * file decodes it whole into a new set: it saves parsing the CSV text, not decoding the vertices.
+ * <p>
+ * Vertices are stored ordered along a Z-order (Morton) curve over their coordinates, so that consecutive vertices are
+ * close to each other. Each column (original position, vertex id, then one column per hub) is delta-encoded along
+ * that order as zigzag varints. Reading restores the original order of the vertices.
+ */
+public final class VertexSetFiles {
+
+    private static final int MAGIC = 0x56545853;
+    private static final int VERSION = 1;
+    private static final int MORTON_BITS = 63;
+
+    private VertexSetFiles() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Writes the set to a temporary file first, then moves it atomically to the target path.
+     */
+    public static void write(final VertexSet vertexSet,
+                             final Path path) throws IOException {
+        final int size = vertexSet.size();
+        final int hubCount = vertexSet.hubCount();
+        final int[] order = curveOrder(vertexSet);
+        final VarintBuffer buffer = new VarintBuffer(16 + size * (hubCount + 2) * 2);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(hubCount);
+        for (final String hubCode : vertexSet.getHubCodes()) {
+            final byte[] code = hubCode.getBytes(UTF_8);
+            buffer.putInt(code.length);
+            buffer.putBytes(code);
+        }
+        buffer.putInt(size);
+        putColumn(buffer, order, index -> index);
+        putColumn(buffer, order, vertexSet::vertexId);
+        for (int hub = 0; hub < hubCount; hub++) {
+            final int column = hub;
+            putColumn(buffer, order, index -> vertexSet.coordinate(index, column));
+        }
+
+        final Path temporaryFile = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temporaryFile, buffer.toByteArray());
+            Files.move(temporaryFile, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    /**
+     * Reads the whole file on the heap and decodes it into a new {@link VertexSet}.
+     */
+    public static VertexSet read(final Path path) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new CoreValidCommonsInvalidDataException("%s is not a vertex set file".formatted(path));
+        }
+        final int hubCount = buffer.getInt();
+        final List<String> hubCodes = new ArrayList<>(hubCount);
+        for (int hub = 0; hub < hubCount; hub++) {
+            final byte[] code = new byte[buffer.getInt()];
+            buffer.get(code);
+            hubCodes.add(new String(code, UTF_8));
+        }
+        final int size = buffer.getInt();
+        final int[] positions = getColumn(buffer, size);
+        final int[] curveVertexIds = getColumn(buffer, size);
+        final int[] vertexIds = new int[size];
+        final int[] coordinates = new int[size * hubCount];
+        for (int i = 0; i < size; i++) {
+            vertexIds[positions[i]] = curveVertexIds[i];
+        }
+        for (int hub = 0; hub < hubCount; hub++) {
+            int previous = 0;
+            for (int i = 0; i < size; i++) {
+                previous += getZigzag(buffer);
+                coordinates[positions[i] * hubCount + hub] = previous;
+            }
+        }
+        return new VertexSet(hubCodes, vertexIds, coordinates, size);
+    }
+
+    /**
+     * @return the indexes of the vertices sorted by the Morton code of their coordinates,
+     * each coordinate being reduced to its most significant bits within the range of its hub
+     */
+    private static int[] curveOrder(final VertexSet vertexSet) {
+        final int size = vertexSet.size();
+        final int hubCount = vertexSet.hubCount();
+        if (hubCount == 0) {
+            return IntStream.range(0, size).toArray();
+        }
+        final int bitsPerHub = Math.max(1, MORTON_BITS / hubCount);
+        final long[] minimums = new long[hubCount];
+        final int[] shifts = new int[hubCount];
+        for (int hub = 0; hub < hubCount; hub++) {
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for (int i = 0; i < size; i++) {
+                min = Math.min(min, vertexSet.coordinate(i, hub));
+                max = Math.max(max, vertexSet.coordinate(i, hub));
+            }
+            minimums[hub] = min;
+            shifts[hub] = Math.max(0, 64 - Long.numberOfLeadingZeros(Math.max(0, max - min)) - bitsPerHub);
+        }
+        final long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            long key = 0;
+            for (int bit = bitsPerHub - 1; bit >= 0; bit--) {
+                for (int hub = 0; hub < hubCount && hub * bitsPerHub < MORTON_BITS; hub++) {
+                    final long reduced = (vertexSet.coordinate(i, hub) - minimums[hub]) >>> shifts[hub];
+                    key = key << 1 | (reduced >>> bit & 1);
+                }
+            }
+            keys[i] = key;
+        }
+        return IntStream.range(0, size)
+                .boxed()
+                .sorted(Comparator.comparingLong(index -> keys[index]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private static void putColumn(final VarintBuffer buffer,
+                                  final int[] order,
+                                  final IntUnaryOperator values) {
+        int previous = 0;
+        for (final int index : order) {
+            final int value = values.applyAsInt(index);
+            buffer.putZigzag(value - previous);
+            previous = value;
+        }
+    }
+
+    private static int[] getColumn(final ByteBuffer buffer,
+                                   final int size) {
+        final int[] column = new int[size];
+        int previous = 0;
+        for (int i = 0; i < size; i++) {
+            previous += getZigzag(buffer);
+            column[i] = previous;
+        }
+        return column;
+    }
+
+    private static int getZigzag(final ByteBuffer buffer) {
+        int shift = 0;
+        int encoded = 0;
+        byte current;
+        do {
+            current = buffer.get();
+            encoded |= (current & 0x7F) << shift;
+            shift += 7;
+        } while (current < 0);
+        return encoded >>> 1 ^ -(encoded & 1);
+    }
+
+    private static final class VarintBuffer {
+
+        private byte[] bytes;
+        private int length;
+
+        private VarintBuffer(final int initialCapacity) {
+            this.bytes = new byte[Math.max(16, initialCapacity)];
+        }
+
+        private void putInt(final int value) {
+            ensureCapacity(Integer.BYTES);
+            ByteBuffer.wrap(bytes, length, Integer.BYTES).putInt(value);
+            length += Integer.BYTES;
+        }
+
+        private void putBytes(final byte[] values) {
+            ensureCapacity(values.length);
+            System.arraycopy(values, 0, bytes, length, values.length);
+            length += values.length;
+        }
+
+        /**
+         * Deltas are computed with wrapping int arithmetic, which the zigzag varint keeps exact.
+         */
+        private void putZigzag(final int value) {
+            ensureCapacity(5);
+            int encoded = value << 1 ^ value >> 31;
+            while ((encoded & ~0x7F) != 0) {
+                bytes[length++] = (byte) (encoded & 0x7F | 0x80);
+                encoded >>>= 7;
+            }
+            bytes[length++] = (byte) encoded;
+        }
+
+        private void ensureCapacity(final int additionalBytes) {
+            if (length + additionalBytes > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + additionalBytes));
+            }
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(bytes, length);
+        }
+    }
+}
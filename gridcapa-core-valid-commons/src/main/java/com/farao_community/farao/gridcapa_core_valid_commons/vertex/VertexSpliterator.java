@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ */
+package com.farao_community.farao.gridcapa_core_valid_commons.vertex;
+
+import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.CoreHub;
+import com.farao_community.farao.gridcapa_core_valid_commons.exception.CoreValidCommonsInvalidDataException;
+import org.apache.commons.csv.CSVRecord;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * Parses vertices lazily, one CSV record at a time, so that only the record being read is held in memory.
+ */
+final class VertexSpliterator extends Spliterators.AbstractSpliterator<Vertex> {
+
+    private final Iterator<CSVRecord> csvRecords;
+    private final List<CoreHub> coreHubs;
+
+    VertexSpliterator(final Iterator<CSVRecord> csvRecords,
+                      final List<CoreHub> coreHubs) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        this.csvRecords = csvRecords;
+        this.coreHubs = coreHubs;
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super Vertex> action) {
+        final Vertex vertex;
+        try {
+            if (!csvRecords.hasNext()) {
+                return false;
+            }
+            vertex = toVertex(csvRecords.next());
+        } catch (final Exception e) {
+            throw new CoreValidCommonsInvalidDataException("Exception occurred while parsing vertices file", e);
+        }
+        action.accept(vertex);
+        return true;
+    }
+
+    private Vertex toVertex(final CSVRecord csvRecord) {
+        final Map<String, Integer> coordinates = HashMap.newHashMap(coreHubs.size());
+        for (final CoreHub coreHub : coreHubs) {
+            coordinates.put(coreHub.clusterVerticeCode(), VerticesUtils.getCoordinate(csvRecord, coreHub));
+        }
+        return new Vertex(Integer.parseInt(csvRecord.get(VerticesUtils.VERTEX_ID_HEADER)), coordinates);
+    }
+}
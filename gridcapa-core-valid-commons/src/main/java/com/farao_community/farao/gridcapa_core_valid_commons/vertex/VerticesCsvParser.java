@@ -0,0 +1,341 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ */
+package com.farao_community.farao.gridcapa_core_valid_commons.vertex;
+
+import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.CoreHub;
+import com.farao_community.farao.gridcapa_core_valid_commons.exception.CoreValidCommonsInvalidDataException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Dedicated parser of the vertices CSV file, reading bytes straight into the columns of a {@link VertexSet}.
+ * <p>
+ * Header columns are resolved once to hub ordinals. The body is then cut on line boundaries into chunks
+ * which are parsed in parallel, each into its own primitive arrays, with no per-record nor per-field object.
+ * Values follow the rules of the commons-csv based parsing: a blank coordinate is 0 for an HVDC hub only,
+ * and any other value must be an integer.
+ */
+final class VerticesCsvParser {
+
+    private static final int IGNORED_COLUMN = -2;
+    private static final int VERTEX_ID_COLUMN = -1;
+    private static final int MIN_CHUNK_SIZE = 1 << 20;
+    private static final byte QUOTE = '"';
+
+    private final List<String> hubCodes;
+    private final int[] columnTargets;
+    private final boolean[] blankAllowed;
+    private final String[] columnNames;
+    private final int requiredColumns;
+
+    private VerticesCsvParser(final List<String> hubCodes,
+                              final int[] columnTargets,
+                              final boolean[] blankAllowed,
+                              final String[] columnNames) {
+        this.hubCodes = hubCodes;
+        this.columnTargets = columnTargets;
+        this.blankAllowed = blankAllowed;
+        this.columnNames = columnNames;
+        int lastTarget = -1;
+        for (int column = 0; column < columnTargets.length; column++) {
+            if (columnTargets[column] != IGNORED_COLUMN) {
+                lastTarget = column;
+            }
+        }
+        this.requiredColumns = lastTarget + 1;
+    }
+
+    /**
+     * @param content  the whole vertices file
+     * @param coreHubs the hubs, in the order defining their ordinal
+     * @return the parsed vertices, in file order
+     */
+    static VertexSet parse(final byte[] content,
+                           final List<CoreHub> coreHubs) {
+        final int headerEnd = lineEnd(content, 0, content.length);
+        final int bodyStart = Math.min(headerEnd + 1, content.length);
+        if (bodyStart == content.length) {
+            return new VertexSet(VertexSet.toHubCodes(coreHubs), new int[0], new int[0], 0);
+        }
+        final VerticesCsvParser parser = fromHeader(new String(content, 0, trimCarriageReturn(content, 0, headerEnd), UTF_8), coreHubs);
+
+        final int chunkCount = Math.clamp((content.length - bodyStart) / MIN_CHUNK_SIZE, 1, 4 * Runtime.getRuntime().availableProcessors());
+        final int[] chunkStarts = new int[chunkCount + 1];
+        chunkStarts[0] = bodyStart;
+        chunkStarts[chunkCount] = content.length;
+        for (int chunk = 1; chunk < chunkCount; chunk++) {
+            final int approximateStart = Math.max(chunkStarts[chunk - 1], bodyStart + (int) ((long) (content.length - bodyStart) * chunk / chunkCount));
+            chunkStarts[chunk] = Math.min(lineEnd(content, approximateStart, content.length) + 1, content.length);
+        }
+
+        final Chunk[] chunks = new Chunk[chunkCount];
+        IntStream.range(0, chunkCount)
+                .parallel()
+                .forEach(chunk -> chunks[chunk] = parser.parseChunk(content, chunkStarts[chunk], chunkStarts[chunk + 1]));
+        return parser.merge(chunks);
+    }
+
+    /**
+     * Parses the file block by block while it is read, so that its vertices can be processed before it is fully
+     * downloaded and without holding it in memory. Each block is cut on a line boundary.
+     *
+     * @param blockSize the size, in bytes, of the blocks read, grown when a single line is longer
+     * @param consumer  receives the vertices of each block, in file order
+     * @return the number of vertices read
+     */
+    static long parseBlocks(final InputStream verticesStream,
+                            final List<CoreHub> coreHubs,
+                            final int blockSize,
+                            final Consumer<? super VertexSet> consumer) throws IOException {
+        byte[] buffer = new byte[blockSize];
+        int length = 0;
+        VerticesCsvParser parser = null;
+        long count = 0;
+        boolean endOfStream = false;
+        while (!endOfStream) {
+            if (length == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            final int read = verticesStream.read(buffer, length, buffer.length - length);
+            endOfStream = read < 0;
+            length += Math.max(read, 0);
+            if (parser == null) {
+                final int headerEnd = lineEnd(buffer, 0, length);
+                if (headerEnd == length && !endOfStream) {
+                    continue;
+                }
+                if (endOfStream && headerEnd + 1 >= length) {
+                    return 0;
+                }
+                parser = fromHeader(new String(buffer, 0, trimCarriageReturn(buffer, 0, headerEnd), UTF_8), coreHubs);
+                length = shift(buffer, headerEnd + 1, length);
+            }
+            final int blockEnd = endOfStream ? length : lastLineEnd(buffer, length) + 1;
+            if (blockEnd > 0 && (endOfStream || length == buffer.length)) {
+                final Chunk chunk = parser.parseChunk(buffer, 0, blockEnd);
+                consumer.accept(new VertexSet(parser.hubCodes, chunk.vertexIds(), chunk.coordinates(), chunk.vertexIds().length));
+                count += chunk.vertexIds().length;
+                length = shift(buffer, blockEnd, length);
+            }
+        }
+        return count;
+    }
+
+    private static VerticesCsvParser fromHeader(final String header,
+                                                final List<CoreHub> coreHubs) {
+        final String[] columnNames = Arrays.stream(header.split(",", -1))
+                .map(VerticesCsvParser::unquote)
+                .toArray(String[]::new);
+        final List<String> names = Arrays.asList(columnNames);
+        final int[] columnTargets = new int[columnNames.length];
+        final boolean[] blankAllowed = new boolean[columnNames.length];
+        Arrays.fill(columnTargets, IGNORED_COLUMN);
+        columnTargets[requireColumn(names, VerticesUtils.VERTEX_ID_HEADER)] = VERTEX_ID_COLUMN;
+        for (int hub = 0; hub < coreHubs.size(); hub++) {
+            final int column = requireColumn(names, coreHubs.get(hub).clusterVerticeCode());
+            columnTargets[column] = hub;
+            blankAllowed[column] = coreHubs.get(hub).isHvdcHub();
+        }
+        return new VerticesCsvParser(VertexSet.toHubCodes(coreHubs), columnTargets, blankAllowed, columnNames);
+    }
+
+    private static int requireColumn(final List<String> names,
+                                     final String name) {
+        final int column = names.indexOf(name);
+        if (column < 0) {
+            throw new CoreValidCommonsInvalidDataException("Mapping for %s not found, expected one of %s".formatted(name, names));
+        }
+        return column;
+    }
+
+    private Chunk parseChunk(final byte[] content,
+                             final int start,
+                             final int end) {
+        final int hubCount = hubCodes.size();
+        final int lineCount = countLines(content, start, end);
+        final int[] vertexIds = new int[lineCount];
+        final int[] coordinates = new int[lineCount * hubCount];
+
+        int lineStart = start;
+        for (int line = 0; line < lineCount; line++) {
+            final int lineEnd = lineEnd(content, lineStart, end);
+            final int valuesEnd = trimCarriageReturn(content, lineStart, lineEnd);
+            int fieldStart = lineStart;
+            int column = 0;
+            while (column < requiredColumns) {
+                if (fieldStart > valuesEnd) {
+                    throw new CoreValidCommonsInvalidDataException("Missing %s value in vertices line: %s"
+                            .formatted(columnNames[column], new String(content, lineStart, valuesEnd - lineStart, UTF_8)));
+                }
+                final int fieldEnd = fieldEnd(content, fieldStart, valuesEnd);
+                final int target = columnTargets[column];
+                if (target == VERTEX_ID_COLUMN) {
+                    vertexIds[line] = parseInt(content, fieldStart, fieldEnd, false);
+                } else if (target != IGNORED_COLUMN) {
+                    coordinates[line * hubCount + target] = parseInt(content, fieldStart, fieldEnd, blankAllowed[column]);
+                }
+                fieldStart = fieldEnd + 1;
+                column++;
+            }
+            lineStart = lineEnd + 1;
+        }
+        return new Chunk(vertexIds, coordinates);
+    }
+
+    private VertexSet merge(final Chunk[] chunks) {
+        final int hubCount = hubCodes.size();
+        final int size = Arrays.stream(chunks).mapToInt(chunk -> chunk.vertexIds().length).sum();
+        final int[] vertexIds = new int[size];
+        final int[] coordinates = new int[size * hubCount];
+        int offset = 0;
+        for (final Chunk chunk : chunks) {
+            final int chunkSize = chunk.vertexIds().length;
+            System.arraycopy(chunk.vertexIds(), 0, vertexIds, offset, chunkSize);
+            System.arraycopy(chunk.coordinates(), 0, coordinates, offset * hubCount, chunkSize * hubCount);
+            offset += chunkSize;
+        }
+        return new VertexSet(hubCodes, vertexIds, coordinates, size);
+    }
+
+    /**
+     * Parses a field the way {@link Integer#parseInt(String)} does, surrounding quotes excepted.
+     */
+    private static int parseInt(final byte[] content,
+                                final int fieldStart,
+                                final int fieldEnd,
+                                final boolean blankAllowed) {
+        int start = fieldStart;
+        int end = fieldEnd;
+        if (end - start >= 2 && content[start] == QUOTE && content[end - 1] == QUOTE) {
+            start++;
+            end--;
+        }
+        if (blankAllowed && isBlank(content, start, end)) {
+            return 0;
+        }
+        final boolean negative = start < end && content[start] == '-';
+        if (start < end && (negative || content[start] == '+')) {
+            start++;
+        }
+        if (start == end) {
+            throw notAnInteger(content, fieldStart, fieldEnd);
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            final int digit = content[i] - '0';
+            if (digit < 0 || digit > 9 || value > Integer.MAX_VALUE) {
+                throw notAnInteger(content, fieldStart, fieldEnd);
+            }
+            value = value * 10 + digit;
+        }
+        value = negative ? -value : value;
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw notAnInteger(content, fieldStart, fieldEnd);
+        }
+        return (int) value;
+    }
+
+    private static CoreValidCommonsInvalidDataException notAnInteger(final byte[] content,
+                                                                     final int fieldStart,
+                                                                     final int fieldEnd) {
+        final String field = unquote(new String(content, fieldStart, fieldEnd - fieldStart, UTF_8));
+        return new CoreValidCommonsInvalidDataException("Could not parse %s as an integer".formatted(field));
+    }
+
+    private static boolean isBlank(final byte[] content,
+                                   final int start,
+                                   final int end) {
+        for (int i = start; i < end; i++) {
+            if (!Character.isWhitespace(content[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String unquote(final String value) {
+        return value.length() >= 2 && value.charAt(0) == QUOTE && value.charAt(value.length() - 1) == QUOTE
+            ? value.substring(1, value.length() - 1)
+            : value;
+    }
+
+    private static int countLines(final byte[] content,
+                                  final int start,
+                                  final int end) {
+        int lineCount = 0;
+        for (int i = start; i < end; i++) {
+            if (content[i] == '\n') {
+                lineCount++;
+            }
+        }
+        return end > start && content[end - 1] != '\n' ? lineCount + 1 : lineCount;
+    }
+
+    /**
+     * @return the index of the next line feed, or {@code end} if there is none
+     */
+    private static int lineEnd(final byte[] content,
+                               final int start,
+                               final int end) {
+        int i = start;
+        while (i < end && content[i] != '\n') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @return the index of the last line feed, or -1 if there is none
+     */
+    private static int lastLineEnd(final byte[] content,
+                                   final int end) {
+        int i = end - 1;
+        while (i >= 0 && content[i] != '\n') {
+            i--;
+        }
+        return i;
+    }
+
+    /**
+     * Moves the bytes from {@code start} to {@code end} at the beginning of the buffer.
+     *
+     * @return the number of bytes moved
+     */
+    private static int shift(final byte[] buffer,
+                             final int start,
+                             final int end) {
+        System.arraycopy(buffer, start, buffer, 0, end - start);
+        return end - start;
+    }
+
+    private static int fieldEnd(final byte[] content,
+                                final int start,
+                                final int end) {
+        int i = start;
+        while (i < end && content[i] != ',') {
+            i++;
+        }
+        return i;
+    }
+
+    private static int trimCarriageReturn(final byte[] content,
+                                          final int start,
+                                          final int end) {
+        return end > start && content[end - 1] == '\r' ? end - 1 : end;
+    }
+
+    private record Chunk(int[] vertexIds, int[] coordinates) {
+    }
+}
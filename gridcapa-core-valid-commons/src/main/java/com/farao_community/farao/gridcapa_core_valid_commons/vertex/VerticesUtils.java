@@ -8,31 +8,28 @@
 package com.farao_community.farao.gridcapa_core_valid_commons.vertex;
 
 import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.CoreHub;
-import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.CoreHubUtils;
+import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.HubRegistry;
 import com.farao_community.farao.gridcapa_core_valid_commons.exception.CoreValidCommonsInvalidDataException;
 import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 import org.apache.commons.lang3.StringUtils;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.Reader;
-import java.math.BigDecimal;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.io.UncheckedIOException;
 import java.util.List;
-import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-import static java.math.BigDecimal.ONE;
-import static java.math.BigDecimal.ZERO;
-import static java.math.RoundingMode.HALF_EVEN;
 import static java.nio.charset.StandardCharsets.UTF_8;
-import static java.util.stream.Collectors.toMap;
 
 public final class VerticesUtils {
 
     public static final String VERTEX_ID_HEADER = "Vertex ID";
-    private static final int DELTA_SCALE = 15;
+    public static final int VERTEX_BLOCK_SIZE = 1 << 20;
 
     private VerticesUtils() {
         throw new IllegalStateException("Utility class");
@@ -40,73 +37,132 @@ public final class VerticesUtils {
 
     public static List<Vertex> importVertices(final InputStream verticesStream,
                                               final List<CoreHub> coreHubs) {
-        return importVertices(new InputStreamReader(verticesStream, UTF_8), coreHubs);
+        return importVertexSet(verticesStream, coreHubs);
     }
 
-    public static List<Vertex> getVerticesProjectedOnDomain(final List<Vertex> baseVertices,
-                                                            final List<? extends FlowBasedDomainBranchData> branchesData,
-                                                            final List<CoreHub> coreHubs) {
+    /**
+     * Reads the whole file, then parses it in parallel chunks straight into a {@link VertexSet}.
+     */
+    public static VertexSet importVertexSet(final InputStream verticesStream,
+                                            final List<CoreHub> coreHubs) {
+        try {
+            return VerticesCsvParser.parse(verticesStream.readAllBytes(), coreHubs);
+        } catch (final Exception e) {
+            throw new CoreValidCommonsInvalidDataException("Exception occurred while parsing vertices file", e);
+        }
+    }
 
-        final Map<String, String> flowBasedToVertexCodeMap = CoreHubUtils.getFlowBasedToVertexCodeMap(coreHubs);
-        final List<Vertex> newVertices = new ArrayList<>();
+    /**
+     * Parses the vertices lazily while the stream is consumed, so that they can be projected and filtered as records arrive
+     * without holding the whole file in memory. Closing the returned stream closes the input stream.
+     */
+    public static Stream<Vertex> streamVertices(final InputStream verticesStream,
+                                                final List<CoreHub> coreHubs) {
+        final CSVParser csvParser;
+        try {
+            csvParser = csvFormat().parse(new InputStreamReader(verticesStream, UTF_8));
+        } catch (final Exception e) {
+            throw new CoreValidCommonsInvalidDataException("Exception occurred while parsing vertices file", e);
+        }
+        return StreamSupport.stream(new VertexSpliterator(csvParser.iterator(), coreHubs), false)
+                .onClose(() -> closeParser(csvParser));
+    }
 
-        for (final Vertex vertex : baseVertices) {
-            BigDecimal deltaMin = ONE;
-            boolean shouldProject = false;
-            for (final FlowBasedDomainBranchData branch : branchesData) {
-                final BigDecimal f0Core = f0Core(vertex, branch, flowBasedToVertexCodeMap);
-                if (shouldComputeDelta(branch, f0Core)) {
-                    final BigDecimal delta = delta(branch, f0Core);
-                    if (delta != null && delta.compareTo(deltaMin) < 0) {
-                        shouldProject = true;
-                        deltaMin = delta;
-                    }
-                }
-            }
+    /**
+     * Callback counterpart of {@link #streamVertices}: each vertex is handed to the consumer as soon as its record is parsed.
+     *
+     * @return the number of vertices read
+     */
+    public static long forEachVertex(final InputStream verticesStream,
+                                     final List<CoreHub> coreHubs,
+                                     final Consumer<? super Vertex> vertexConsumer) {
+        final long[] count = {0};
+        try (final Stream<Vertex> vertices = streamVertices(verticesStream, coreHubs)) {
+            vertices.forEachOrdered(vertex -> {
+                vertexConsumer.accept(vertex);
+                count[0]++;
+            });
+        }
+        return count[0];
+    }
 
-            final Vertex vertexOnDomain = shouldProject ? projectedVertex(vertex, deltaMin) : vertex;
+    /**
+     * Block counterpart of {@link #forEachVertex}: the file is read by blocks of about {@link #VERTEX_BLOCK_SIZE} bytes,
+     * each one parsed straight into a {@link VertexSet} handed to the consumer, with no per-vertex object.
+     *
+     * @return the number of vertices read
+     */
+    public static long forEachVertexBlock(final InputStream verticesStream,
+                                          final List<CoreHub> coreHubs,
+                                          final Consumer<? super VertexSet> blockConsumer) {
+        try {
+            return VerticesCsvParser.parseBlocks(verticesStream, coreHubs, VERTEX_BLOCK_SIZE, blockConsumer);
+        } catch (final Exception e) {
+            throw new CoreValidCommonsInvalidDataException("Exception occurred while parsing vertices file", e);
+        }
+    }
 
-            newVertices.add(vertexOnDomain);
+    public static List<Vertex> getVerticesProjectedOnDomain(final List<Vertex> baseVertices,
+                                                            final List<? extends FlowBasedDomainBranchData> branchesData,
+                                                            final List<CoreHub> coreHubs) {
+        return getVerticesProjectedOnDomain(baseVertices, branchesData, coreHubs, ProjectionEngine.FIXED_POINT);
+    }
 
-        }
+    public static List<Vertex> getVerticesProjectedOnDomain(final List<Vertex> baseVertices,
+                                                            final List<? extends FlowBasedDomainBranchData> branchesData,
+                                                            final List<CoreHub> coreHubs,
+                                                            final ProjectionEngine engine) {
+        return getVerticesProjectedOnDomain(baseVertices, branchesData, coreHubs, ProjectionParameters.sequential(engine));
+    }
 
-        return newVertices;
+    /**
+     * Projects the vertices on the domain, in parallel when the parameters provide a pool and there are enough vertices.
+     * When several vertex sets are projected on the same domain, compile it once with {@link CompiledFlowBasedDomain#compile}.
+     */
+    public static List<Vertex> getVerticesProjectedOnDomain(final List<Vertex> baseVertices,
+                                                            final List<? extends FlowBasedDomainBranchData> branchesData,
+                                                            final List<CoreHub> coreHubs,
+                                                            final ProjectionParameters parameters) {
+        return CompiledFlowBasedDomain.compile(branchesData, coreHubs).getVerticesProjectedOnDomain(baseVertices, parameters);
     }
 
-    private static boolean shouldComputeDelta(final FlowBasedDomainBranchData branch,
-                                              final BigDecimal f0Core) {
-        return BigDecimal.valueOf(branch.getRam0Core()).add(BigDecimal.valueOf(branch.getAmr())).subtract(f0Core).compareTo(ZERO) <= 0;
+    /**
+     * Same as {@link #getVerticesProjectedOnDomain(List, List, List, ProjectionParameters)}, reusing the translation tables of the registry.
+     */
+    public static List<Vertex> getVerticesProjectedOnDomain(final List<Vertex> baseVertices,
+                                                            final List<? extends FlowBasedDomainBranchData> branchesData,
+                                                            final HubRegistry hubRegistry,
+                                                            final ProjectionParameters parameters) {
+        return CompiledFlowBasedDomain.compile(branchesData, hubRegistry).getVerticesProjectedOnDomain(baseVertices, parameters);
     }
 
-    private static Vertex projectedVertex(final Vertex vertex,
-                                          final BigDecimal delta) {
-        final Map<String, Integer> coordinates = new HashMap<>(vertex.coordinates());
-        coordinates.replaceAll((k, v) -> toProjectedPosition(v, delta));
-        return new Vertex(vertex.vertexId(), coordinates);
+    /**
+     * Projects the vertices on several domains at once, typically all timestamps of a day, traversing the vertices once.
+     *
+     * @return the projected vertices, in the order of the domains
+     */
+    public static List<List<Vertex>> getVerticesProjectedOnDomains(final List<Vertex> baseVertices,
+                                                                   final List<? extends List<? extends FlowBasedDomainBranchData>> domainsBranchesData,
+                                                                   final List<CoreHub> coreHubs,
+                                                                   final ProjectionParameters parameters) {
+        final List<CompiledFlowBasedDomain> domains = domainsBranchesData.stream()
+                .map(branchesData -> CompiledFlowBasedDomain.compile(branchesData, coreHubs))
+                .toList();
+        return CompiledFlowBasedDomain.getVerticesProjectedOnDomains(baseVertices, domains, parameters);
     }
 
-    private static List<Vertex> importVertices(final Reader reader,
-                                               final List<CoreHub> coreHubs) {
+    private static CSVFormat csvFormat() {
+        return CSVFormat.RFC4180.builder()
+                .setHeader()
+                .setSkipHeaderRecord(true)
+                .build();
+    }
 
+    private static void closeParser(final CSVParser csvParser) {
         try {
-            final List<Vertex> vertices = new ArrayList<>();
-            final Iterable<CSVRecord> csvRecords = CSVFormat.RFC4180.builder()
-                    .setHeader()
-                    .setSkipHeaderRecord(true)
-                    .build()
-                    .parse(reader);
-
-            csvRecords.forEach(csvRecord -> {
-                final Map<String, Integer> positions = coreHubs.stream()
-                        .collect(toMap(CoreHub::clusterVerticeCode,
-                                       coreHub -> getCoordinate(csvRecord, coreHub)));
-                final int vertexId = Integer.parseInt(csvRecord.get(VERTEX_ID_HEADER));
-                vertices.add(new Vertex(vertexId, positions));
-            });
-
-            return vertices;
-        } catch (final Exception e) {
-            throw new CoreValidCommonsInvalidDataException("Exception occurred while parsing vertices file", e);
+            csvParser.close();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
@@ -115,8 +171,8 @@ public final class VerticesUtils {
      * This is the only case where a coordinate should be empty or blank.
      * Otherwise, should launch an exception.
      */
-    private static Integer getCoordinate(final CSVRecord csvRecord,
-                                         final CoreHub corehub) {
+    static int getCoordinate(final CSVRecord csvRecord,
+                             final CoreHub corehub) {
         final String coordinateString = csvRecord.get(corehub.clusterVerticeCode());
         if (corehub.isHvdcHub() && StringUtils.isBlank(coordinateString)) {
             return 0;
@@ -127,48 +183,4 @@ public final class VerticesUtils {
             throw new CoreValidCommonsInvalidDataException("Could not parse %s as an integer".formatted(coordinateString), nfe);
         }
     }
-
-    private static int toProjectedPosition(final Integer netPosition,
-                                           final BigDecimal delta) {
-        return BigDecimal.valueOf(netPosition).multiply(delta).setScale(0, HALF_EVEN).intValue();
-    }
-
-    private static BigDecimal delta(final FlowBasedDomainBranchData branchData,
-                                    final BigDecimal f0Core) {
-
-        if (ZERO.compareTo(f0Core) == 0) {
-            return null;
-        }
-
-        return BigDecimal.valueOf(branchData.getAmr())
-                .add(BigDecimal.valueOf(branchData.getRam0Core()))
-                .divide(f0Core, DELTA_SCALE, HALF_EVEN);
-    }
-
-    private static BigDecimal f0Core(final Vertex vertex,
-                                     final FlowBasedDomainBranchData branchData,
-                                     final Map<String, String> fbToVertexCode) {
-        //f0Core = ∑_over_hubs(PTDF*NP)
-        return branchData
-                .getPtdfValues()
-                .entrySet()
-                .stream()
-                .map(ptdf -> getFlowOnHub(ptdf, vertex, fbToVertexCode))
-                .reduce(BigDecimal::add)
-                .orElseThrow(() -> new CoreValidCommonsInvalidDataException(
-                        String.format("Cannot compute f0Core: no PTDF values provided for vertex %d",
-                                      vertex.vertexId())));
-    }
-
-    private static BigDecimal getFlowOnHub(final Map.Entry<String, BigDecimal> ptdf,
-                                           final Vertex vertex,
-                                           final Map<String, String> fbToVertexCode) {
-        final String countryCode = fbToVertexCode.get(ptdf.getKey());
-        return ptdf.getValue().multiply(getNetPosition(countryCode, vertex));
-    }
-
-    private static BigDecimal getNetPosition(final String countryCode,
-                                             final Vertex vertex) {
-        return BigDecimal.valueOf(vertex.coordinates().getOrDefault(countryCode, 0));
-    }
 }
@@ -22,6 +22,9 @@ class CoreHubsConfigurationTest {
     @Autowired
     private CoreHubsConfiguration coreHubsConfiguration;
 
+    @Autowired
+    private HubRegistry hubRegistry;
+
     @Test
     void getCoreHubs() {
         Assertions.assertThat(coreHubsConfiguration).isNotNull();
@@ -32,4 +35,10 @@ class CoreHubsConfigurationTest {
         final CoreHub coreHubHvdc = new CoreHub("Hub Allemagne AleGro", "DE_ALEGrO", "PTDF_DE_AL", "ALDE-CORE", "DE_AL", true, 1);
         Assertions.assertThat(coreHubsConfiguration.getCoreHubs()).contains(coreHubFrance, coreHubHvdc);
     }
+
+    @Test
+    void hubRegistryIsBuiltFromConfiguration() {
+        Assertions.assertThat(hubRegistry.getCoreHubs()).isEqualTo(coreHubsConfiguration.getCoreHubs());
+        Assertions.assertThat(hubRegistry.hub(hubRegistry.ordinalOfForecastCode("FR-CORE")).ramcep2Code()).isEqualTo("FR");
+    }
 }
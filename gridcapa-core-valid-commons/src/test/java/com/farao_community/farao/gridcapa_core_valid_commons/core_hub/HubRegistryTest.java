@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa_core_valid_commons.core_hub;
+
+import com.farao_community.farao.gridcapa_core_valid_commons.exception.CoreValidCommonsInvalidDataException;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class HubRegistryTest {
+
+    private final List<CoreHub> coreHubs = List.of(
+        new CoreHub("France", "FR", "PTDF_FR", "FR-CORE", "FR", false, 1),
+        new CoreHub("Allemagne", "DE", "PTDF_DE", "DE-CORE", "DE", false, 2),
+        new CoreHub("Hub Allemagne AleGro", "DE_ALEGrO", "PTDF_DE_AL", "ALDE-CORE", "DE_AL", true, 1));
+
+    @Test
+    void translateEveryCodeToOrdinals() {
+        final HubRegistry hubRegistry = HubRegistry.of(coreHubs);
+
+        Assertions.assertThat(hubRegistry.size()).isEqualTo(3);
+        Assertions.assertThat(hubRegistry.ordinalOfRamcep2Code("DE")).isEqualTo(1);
+        Assertions.assertThat(hubRegistry.ordinalOfFlowbasedCode("PTDF_DE_AL")).isEqualTo(2);
+        Assertions.assertThat(hubRegistry.ordinalOfForecastCode("FR-CORE")).isZero();
+        Assertions.assertThat(hubRegistry.ordinalOfVertexCode("DE_AL")).isEqualTo(2);
+        Assertions.assertThat(hubRegistry.ordinalOfVertexCode("PL")).isEqualTo(HubRegistry.UNKNOWN);
+        Assertions.assertThat(hubRegistry.ordinalOfVertexCode(null)).isEqualTo(HubRegistry.UNKNOWN);
+        Assertions.assertThat(hubRegistry.forecastCode(1)).isEqualTo("DE-CORE");
+        Assertions.assertThat(hubRegistry.vertexCodes()).containsExactly("FR", "DE", "DE_AL");
+        Assertions.assertThat(hubRegistry.coefficients()).containsExactly(1, 2, 1);
+        Assertions.assertThat(hubRegistry.hvdcOrdinals()).containsExactly(2);
+        Assertions.assertThat(hubRegistry.ordinalsOfVertexCodes(List.of("Vertex ID", "DE_AL", "FR"))).containsExactly(-1, 2, 0);
+        Assertions.assertThat(hubRegistry.flowBasedToVertexCodeMap()).isEqualTo(CoreHubUtils.getFlowBasedToVertexCodeMap(coreHubs));
+    }
+
+    @Test
+    void registerHvdcHubsAddedToConfiguration() {
+        final CoreHubsConfiguration coreHubsConfiguration = new CoreHubsConfiguration();
+        coreHubsConfiguration.getCoreHubs().addAll(coreHubs);
+        coreHubsConfiguration.getCoreHubs().add(new CoreHub("Hub HVDC", "HVDC", "PTDF_HVDC", "HVDC-CORE", "HVDC", true, 1));
+
+        final HubRegistry hubRegistry = HubRegistry.of(coreHubsConfiguration);
+
+        Assertions.assertThat(hubRegistry.ordinalOfVertexCode("HVDC")).isEqualTo(3);
+        Assertions.assertThat(hubRegistry.isHvdcHub(3)).isTrue();
+        Assertions.assertThat(hubRegistry.hvdcOrdinals()).containsExactly(2, 3);
+        Assertions.assertThat(hubRegistry.flowBasedToVertexCodeMap()).containsEntry("PTDF_HVDC", "HVDC");
+    }
+
+    @Test
+    void registryIsImmutable() {
+        final HubRegistry hubRegistry = HubRegistry.of(coreHubs);
+
+        hubRegistry.coefficients()[0] = 10;
+        hubRegistry.vertexCodes().set(0, "BE");
+
+        Assertions.assertThat(hubRegistry.coefficient(0)).isEqualTo(1);
+        Assertions.assertThat(hubRegistry.vertexCode(0)).isEqualTo("FR");
+    }
+
+    @Test
+    void duplicateCodesAreRejected() {
+        final List<CoreHub> duplicatedHubs = List.of(coreHubs.get(0), new CoreHub("Other", "XX", "PTDF_XX", "XX-CORE", "FR", false, 1));
+
+        Assertions.assertThatExceptionOfType(CoreValidCommonsInvalidDataException.class)
+            .isThrownBy(() -> HubRegistry.of(duplicatedHubs))
+            .withMessage("Duplicate vertex code FR in core hubs");
+    }
+}
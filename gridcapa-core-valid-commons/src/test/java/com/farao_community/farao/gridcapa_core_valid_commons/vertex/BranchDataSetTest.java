@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ */
+package com.farao_community.farao.gridcapa_core_valid_commons.vertex;
+
+import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.CoreHub;
+import com.farao_community.farao.gridcapa_core_valid_commons.exception.CoreValidCommonsInvalidDataException;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+class BranchDataSetTest {
+
+    private static final List<String> HUB_CODES = List.of("fb1", "fb2", "fb3");
+
+    private final List<CoreHub> coreHubs = List.of(
+            new CoreHub("Test1", "ram1", "fb1", "fc1", "AA", false, 1),
+            new CoreHub("Test2", "ram2", "fb2", "fc2", "BB", false, 1),
+            new CoreHub("Test3", "ram3", "fb3", "fc3", "CC", false, 1)
+    );
+
+    private final List<TestBranch> branches = List.of(
+            new TestBranch("cb1", 100, 50, Map.of("fb1", new BigDecimal("0.1"), "fb2", new BigDecimal("-0.25"), "fb3", new BigDecimal("0.003"))),
+            new TestBranch("cb2", 200, 0, Map.of("fb1", new BigDecimal("1"), "fb3", new BigDecimal("-0.5"), "other", new BigDecimal("0.7")))
+    );
+
+    @Test
+    void convertBranches() {
+        final BranchDataSet branchDataSet = BranchDataSet.of(branches, HUB_CODES);
+        Assertions.assertThat(branchDataSet).hasSize(2);
+        Assertions.assertThat(branchDataSet.ptdfScale()).isEqualTo(3);
+        Assertions.assertThat(branchDataSet.id(1)).isEqualTo("cb2");
+        Assertions.assertThat(branchDataSet.ram0Core(1)).isEqualTo(200);
+        Assertions.assertThat(branchDataSet.amr(0)).isEqualTo(50);
+        Assertions.assertThat(branchDataSet.scaledPtdf(0, branchDataSet.hubOrdinal("fb2"))).isEqualTo(-250);
+        Assertions.assertThat(branchDataSet.ptdf(1, branchDataSet.hubOrdinal("fb3"))).isEqualTo(-0.5);
+        Assertions.assertThat(BranchDataSet.of(branchDataSet, HUB_CODES)).isSameAs(branchDataSet);
+        Assertions.assertThat(BranchDataSet.of(branches, HUB_CODES))
+                .isEqualTo(branchDataSet)
+                .hasSameHashCodeAs(branchDataSet)
+                .isNotEqualTo(BranchDataSet.of(branches.subList(0, 1), HUB_CODES));
+        Assertions.assertThat(branchDataSet.get(0)).isNotEqualTo(branchDataSet.get(1));
+    }
+
+    @Test
+    void branchViewsBehaveAsOriginalBranches() {
+        final FlowBasedDomainBranchData branch = BranchDataSet.of(branches, HUB_CODES).get(1);
+        Assertions.assertThat(branch.getId()).isEqualTo("cb2");
+        Assertions.assertThat(branch.getRam0Core()).isEqualTo(200);
+        Assertions.assertThat(branch.getAmr()).isZero();
+        final Map<String, BigDecimal> ptdfValues = branch.getPtdfValues();
+        Assertions.assertThat(ptdfValues)
+                .hasSize(3)
+                .containsOnlyKeys("fb1", "fb2", "fb3")
+                .containsEntry("fb1", new BigDecimal("1.000"))
+                .containsEntry("fb2", new BigDecimal("0.000"));
+        Assertions.assertThat(ptdfValues.get("other")).isNull();
+        Assertions.assertThatExceptionOfType(UnsupportedOperationException.class)
+                .isThrownBy(() -> ptdfValues.put("fb1", BigDecimal.ONE));
+    }
+
+    @Test
+    void projectionIsUnchanged() {
+        final Random random = new Random(7);
+        final List<TestBranch> randomBranches = random.ints(200, 0, 2_000)
+                .mapToObj(ram -> new TestBranch("cb" + ram, ram, random.nextInt(100), Map.of(
+                        "fb1", BigDecimal.valueOf(random.nextInt(100_000) - 50_000, 5),
+                        "fb2", BigDecimal.valueOf(random.nextInt(100_000) - 50_000, 5),
+                        "fb3", BigDecimal.valueOf(random.nextInt(1_000) - 500, 3))))
+                .toList();
+        final VertexSet.Builder builder = new VertexSet.Builder(VertexSet.toHubCodes(coreHubs));
+        for (int id = 0; id < 2_000; id++) {
+            builder.add(id, random.ints(coreHubs.size(), -5_000, 5_000).toArray());
+        }
+        final VertexSet vertexSet = builder.build();
+        final CompiledFlowBasedDomain fromMaps = CompiledFlowBasedDomain.compile(randomBranches, coreHubs);
+        final CompiledFlowBasedDomain fromArrays = CompiledFlowBasedDomain.compile(BranchDataSet.of(randomBranches, BranchDataSet.toHubCodes(coreHubs)), coreHubs);
+        Assertions.assertThat(fromArrays.isExact()).isTrue();
+        for (final ProjectionEngine engine : ProjectionEngine.values()) {
+            final ProjectionParameters parameters = ProjectionParameters.sequential(engine);
+            Assertions.assertThat(fromArrays.getVerticesProjectedOnDomain(vertexSet, parameters))
+                    .containsExactlyElementsOf(fromMaps.getVerticesProjectedOnDomain(vertexSet, parameters));
+        }
+    }
+
+    @Test
+    void buildWithoutBigDecimals() {
+        final BranchDataSet branchDataSet = new BranchDataSet.Builder(HUB_CODES, 2)
+                .add("cb1", 10, 1, new long[]{5, -5, 0})
+                .build();
+        Assertions.assertThat(branchDataSet.getFirst().getPtdfValues())
+                .containsExactlyInAnyOrderEntriesOf(Map.of("fb1", new BigDecimal("0.05"), "fb2", new BigDecimal("-0.05"), "fb3", new BigDecimal("0.00")));
+    }
+
+    @Test
+    void invalidPtdfsThrow() {
+        final List<TestBranch> tooPrecise = List.of(new TestBranch("cb1", 0, 0, Map.of("fb1", new BigDecimal("1E-16"))));
+        Assertions.assertThatExceptionOfType(CoreValidCommonsInvalidDataException.class)
+                .isThrownBy(() -> BranchDataSet.of(tooPrecise, HUB_CODES))
+                .withMessage("PTDF scale 16 exceeds 15");
+        final List<TestBranch> tooLarge = List.of(new TestBranch("cb1", 0, 0, Map.of("fb1", new BigDecimal("123456.000000000000001"))));
+        Assertions.assertThatExceptionOfType(CoreValidCommonsInvalidDataException.class)
+                .isThrownBy(() -> BranchDataSet.of(tooLarge, HUB_CODES))
+                .withMessage("PTDF 123456.000000000000001 of branch cb1 cannot be scaled exactly");
+        final List<String> duplicatedCodes = List.of("fb1", "fb1");
+        Assertions.assertThatExceptionOfType(CoreValidCommonsInvalidDataException.class)
+                .isThrownBy(() -> BranchDataSet.of(branches, duplicatedCodes))
+                .withMessage("Duplicate flow-based code fb1 in core hubs");
+    }
+
+    private record TestBranch(String getId, int getRam0Core, int getAmr,
+                              Map<String, BigDecimal> getPtdfValues) implements FlowBasedDomainBranchData {
+    }
+}
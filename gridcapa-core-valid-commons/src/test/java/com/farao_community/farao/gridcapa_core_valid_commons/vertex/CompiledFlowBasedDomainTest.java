@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ */
+package com.farao_community.farao.gridcapa_core_valid_commons.vertex;
+
+import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.CoreHub;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+class CompiledFlowBasedDomainTest {
+
+    private final List<CoreHub> coreHubs = List.of(
+            new CoreHub("Test1", "ram1", "fb1", "fc1", "AA", false, 1),
+            new CoreHub("Test2", "ram2", "fb2", "fc2", "BB", false, 1),
+            new CoreHub("Test3", "ram3", "fb3", "fc3", "CC", false, 1)
+    );
+
+    private final List<TestBranch> branches = List.of(
+            new TestBranch(100, 50, Map.of("fb1", BigDecimal.valueOf(0.1), "fb2", BigDecimal.valueOf(0.2), "fb3", BigDecimal.valueOf(0.3))),
+            new TestBranch(100, 0, Map.of("fb1", BigDecimal.valueOf(0.1), "fb2", BigDecimal.valueOf(0.2), "fb3", BigDecimal.valueOf(0.3)))
+    );
+
+    @Test
+    void compileDomain() {
+        final CompiledFlowBasedDomain domain = CompiledFlowBasedDomain.compile(branches, coreHubs);
+        Assertions.assertThat(domain.getBranchCount()).isEqualTo(2);
+        Assertions.assertThat(domain.getHubCodes()).containsExactly("AA", "BB", "CC");
+        Assertions.assertThat(domain.isExact()).isTrue();
+    }
+
+    @Test
+    void projectSeveralVertexSetsOnSameDomain() {
+        final CompiledFlowBasedDomain domain = CompiledFlowBasedDomain.compile(branches, coreHubs);
+        final ProjectionParameters parameters = ProjectionParameters.sequential(ProjectionEngine.COMPARE);
+
+        final VertexSet vertexSet = new VertexSet.Builder(VertexSet.toHubCodes(coreHubs))
+                .add(1, new int[]{2000, -1000, 500})
+                .add(2, new int[]{1000, -1000, 500})
+                .build();
+        // fcore = 150 on both branches => delta = 2/3 on the second branch
+        Assertions.assertThat(domain.getVerticesProjectedOnDomain(vertexSet, parameters))
+                .isInstanceOf(VertexSet.class)
+                .containsExactly(new Vertex(1, Map.of("AA", 1333, "BB", -667, "CC", 333)),
+                                 new Vertex(2, Map.of("AA", 1000, "BB", -1000, "CC", 500)));
+
+        // hubs in another order: projected as plain vertices, with the same result
+        final VertexSet otherHubOrder = new VertexSet.Builder(List.of("CC", "BB", "AA"))
+                .add(1, new int[]{500, -1000, 2000})
+                .build();
+        Assertions.assertThat(domain.getVerticesProjectedOnDomain(otherHubOrder, parameters))
+                .isNotInstanceOf(VertexSet.class)
+                .containsExactly(new Vertex(1, Map.of("AA", 1333, "BB", -667, "CC", 333)));
+    }
+
+    @Test
+    void inexactDomainFallsBackToBigDecimal() {
+        final List<TestBranch> preciseBranches = List.of(
+                new TestBranch(100, 0, Map.of("fb1", new BigDecimal("0.1000000000001"))));
+        final CompiledFlowBasedDomain domain = CompiledFlowBasedDomain.compile(preciseBranches, coreHubs);
+        Assertions.assertThat(domain.isExact()).isFalse();
+        Assertions.assertThat(domain.getVerticesProjectedOnDomain(List.of(new Vertex(1, Map.of("AA", 2000, "BB", 0, "CC", 0))),
+                                                                  ProjectionParameters.sequential(ProjectionEngine.FIXED_POINT)))
+                .containsExactly(new Vertex(1, Map.of("AA", 1000, "BB", 0, "CC", 0)));
+    }
+
+    @Test
+    void projectOnSeveralDomainsAtOnce() {
+        final Random random = new Random(31);
+        final VertexSet.Builder builder = new VertexSet.Builder(VertexSet.toHubCodes(coreHubs));
+        for (int id = 0; id < 2_500; id++) {
+            builder.add(id, random.ints(coreHubs.size(), -5_000, 5_000).toArray());
+        }
+        final VertexSet vertexSet = builder.build();
+        final List<CompiledFlowBasedDomain> domains = new ArrayList<>();
+        for (int d = 0; d < 24; d++) {
+            domains.add(CompiledFlowBasedDomain.compile(random.ints(30, 0, 2_000)
+                    .mapToObj(ram -> new TestBranch(ram, 0, Map.of(
+                            "fb1", BigDecimal.valueOf(random.nextInt(100_000) - 50_000, 5),
+                            "fb2", BigDecimal.valueOf(random.nextInt(100_000) - 50_000, 5),
+                            "fb3", BigDecimal.valueOf(random.nextInt(1_000) - 500, 3))))
+                    .toList(), coreHubs));
+        }
+        domains.add(CompiledFlowBasedDomain.compile(List.of(new TestBranch(100, 0, Map.of("fb1", new BigDecimal("0.1000000000001")))), coreHubs));
+
+        for (final ProjectionEngine engine : ProjectionEngine.values()) {
+            final ProjectionParameters parameters = ProjectionParameters.sequential(engine);
+            final List<List<Vertex>> projected = CompiledFlowBasedDomain.getVerticesProjectedOnDomains(vertexSet, domains, parameters);
+            Assertions.assertThat(projected).hasSize(domains.size());
+            for (int d = 0; d < domains.size(); d++) {
+                Assertions.assertThat(projected.get(d))
+                        .isInstanceOf(VertexSet.class)
+                        .containsExactlyElementsOf(domains.get(d).getVerticesProjectedOnDomain(vertexSet, parameters));
+            }
+        }
+        Assertions.assertThat(CompiledFlowBasedDomain.getVerticesProjectedOnDomains(List.copyOf(vertexSet), domains.subList(0, 2),
+                                                                                    ProjectionParameters.sequential(ProjectionEngine.FIXED_POINT)))
+                .containsExactly(domains.get(0).getVerticesProjectedOnDomain(vertexSet, ProjectionParameters.sequential(ProjectionEngine.FIXED_POINT)),
+                                 domains.get(1).getVerticesProjectedOnDomain(vertexSet, ProjectionParameters.sequential(ProjectionEngine.FIXED_POINT)));
+    }
+
+    @Test
+    void netPositionLimitsDoNotChangeProjection() {
+        final Random random = new Random(11);
+        final List<TestBranch> randomBranches = random.ints(300, 200, 2_000)
+                .mapToObj(ram -> new TestBranch(ram, random.nextInt(100), Map.of(
+                        "fb1", BigDecimal.valueOf(random.nextInt(100_000) - 50_000, 5),
+                        "fb2", BigDecimal.valueOf(random.nextInt(100_000) - 50_000, 5),
+                        "fb3", BigDecimal.valueOf(random.nextInt(1_000) - 500, 3))))
+                .toList();
+        final VertexSet.Builder builder = new VertexSet.Builder(VertexSet.toHubCodes(coreHubs));
+        for (int id = 0; id < 5_000; id++) {
+            builder.add(id, random.ints(coreHubs.size(), -1_500, 1_500).toArray());
+        }
+        final VertexSet vertexSet = builder.build();
+        final NetPositionLimits limits = new NetPositionLimits(Map.of("fb1", -5_000.0, "fb2", -4_000.0, "fb3", -3_000.5),
+                                                               Map.of("fb1", 5_000.0, "fb2", 4_000.0, "fb3", 3_000.5));
+
+        final CompiledFlowBasedDomain domain = CompiledFlowBasedDomain.compile(randomBranches, coreHubs);
+        final CompiledFlowBasedDomain boxedDomain = CompiledFlowBasedDomain.compile(randomBranches, coreHubs, limits);
+        Assertions.assertThat(boxedDomain.getFixedPointDomain().safeLowerBounds()).isNotNull();
+        final int[] coordinates = vertexSet.coordinatesArray();
+        Assertions.assertThat(IntStream.range(0, vertexSet.size()).filter(v -> boxedDomain.getFixedPointDomain().isInSafeBox(coordinates, v * 3)).count())
+                .isPositive();
+        for (final ProjectionEngine engine : ProjectionEngine.values()) {
+            final ProjectionParameters parameters = ProjectionParameters.sequential(engine);
+            Assertions.assertThat(boxedDomain.getVerticesProjectedOnDomain(vertexSet, parameters))
+                    .containsExactlyElementsOf(domain.getVerticesProjectedOnDomain(vertexSet, parameters));
+            Assertions.assertThat(boxedDomain.getVerticesProjectedOnDomain(List.copyOf(vertexSet), parameters))
+                    .containsExactlyElementsOf(domain.getVerticesProjectedOnDomain(vertexSet, parameters));
+        }
+    }
+
+    @Test
+    void domainsForOtherHubsAreRejected() {
+        final List<CompiledFlowBasedDomain> domains = List.of(CompiledFlowBasedDomain.compile(branches, coreHubs),
+                                                              CompiledFlowBasedDomain.compile(branches, coreHubs.subList(0, 2)));
+        final List<Vertex> vertices = List.of();
+        final ProjectionParameters parameters = ProjectionParameters.sequential(ProjectionEngine.FIXED_POINT);
+        Assertions.assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> CompiledFlowBasedDomain.getVerticesProjectedOnDomains(vertices, domains, parameters))
+                .withMessage("All domains must be compiled for the same hubs");
+    }
+
+    private record TestBranch(int getRam0Core, int getAmr,
+                              Map<String, BigDecimal> getPtdfValues) implements FlowBasedDomainBranchData {
+    }
+}
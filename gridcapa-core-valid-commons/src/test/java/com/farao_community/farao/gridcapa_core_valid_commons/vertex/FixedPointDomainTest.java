@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ */
+package com.farao_community.farao.gridcapa_core_valid_commons.vertex;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static com.farao_community.farao.gridcapa_core_valid_commons.vertex.FixedPointDomain.DELTA_SCALE;
+import static com.farao_community.farao.gridcapa_core_valid_commons.vertex.FixedPointDomain.OUT_OF_RANGE;
+import static java.math.RoundingMode.HALF_EVEN;
+
+class FixedPointDomainTest {
+
+    private final Random random = new Random(42);
+
+    @Test
+    void deltaIsRoundedLikeBigDecimal() {
+        for (int i = 0; i < 10_000; i++) {
+            final long margin = random.nextInt(20_000) - 5_000L;
+            final long f0Core = (random.nextBoolean() ? 1 : -1) * (1 + (long) random.nextInt(Integer.MAX_VALUE));
+            final long delta = FixedPointDomain.delta(margin, f0Core);
+            final BigDecimal expected = BigDecimal.valueOf(margin).divide(BigDecimal.valueOf(f0Core), DELTA_SCALE, HALF_EVEN);
+            Assertions.assertThat(BigDecimal.valueOf(delta, DELTA_SCALE)).isEqualByComparingTo(expected);
+        }
+        // exact half at the 16th decimal: 1 / 2^16 = 0.0000152587890625
+        Assertions.assertThat(FixedPointDomain.delta(1, 1 << 16)).isEqualTo(15_258_789_062L);
+        Assertions.assertThat(FixedPointDomain.delta(-3, 1 << 16)).isEqualTo(-45_776_367_188L);
+    }
+
+    @Test
+    void deltaOutOfRange() {
+        Assertions.assertThat(FixedPointDomain.delta(1_000_000, 1)).isEqualTo(OUT_OF_RANGE);
+    }
+
+    @Test
+    void projectedPositionIsRoundedLikeBigDecimal() {
+        for (int i = 0; i < 10_000; i++) {
+            final int netPosition = random.nextInt();
+            final long delta = random.nextLong() % 9_000_000_000_000_000_000L;
+            final int expected = BigDecimal.valueOf(netPosition).multiply(BigDecimal.valueOf(delta, DELTA_SCALE)).setScale(0, HALF_EVEN).intValue();
+            Assertions.assertThat(FixedPointDomain.toProjectedPosition(netPosition, delta)).isEqualTo(expected);
+        }
+        Assertions.assertThat(FixedPointDomain.toProjectedPosition(5, 500_000_000_000_000L)).isEqualTo(2);
+        Assertions.assertThat(FixedPointDomain.toProjectedPosition(-7, 500_000_000_000_000L)).isEqualTo(-4);
+    }
+
+    @Test
+    void compileRejectsUnrepresentableDomains() {
+        final Map<String, String> fbToVertexCode = Map.of("fb1", "AA");
+        final List<String> coordinateCodes = List.of("AA");
+        Assertions.assertThat(FixedPointDomain.compile(List.of(new TestBranch(1, 1, Map.of())), fbToVertexCode, coordinateCodes)).isNull();
+        Assertions.assertThat(FixedPointDomain.compile(List.of(new TestBranch(1, 1, Map.of("fb1", new BigDecimal("0.0123456789")))), fbToVertexCode, coordinateCodes)).isNull();
+        Assertions.assertThat(FixedPointDomain.compile(List.of(new TestBranch(1, 1, Map.of("fb1", new BigDecimal("0.123456789")))), fbToVertexCode, coordinateCodes)).isNotNull();
+    }
+
+    @Test
+    void hugeNetPositionsAreOutOfRange() {
+        final FixedPointDomain domain = FixedPointDomain.compile(List.of(new TestBranch(100, 0, Map.of("fb1", new BigDecimal("999.123456789")))),
+                                                                 Map.of("fb1", "AA"),
+                                                                 List.of("AA"));
+        Assertions.assertThat(domain).isNotNull();
+        Assertions.assertThat(domain.minimalDelta(new int[]{Integer.MAX_VALUE}, 0)).isEqualTo(OUT_OF_RANGE);
+        Assertions.assertThat(domain.minimalDelta(new int[]{0}, 0)).isEqualTo(FixedPointDomain.DELTA_ONE);
+    }
+
+    @Test
+    void safeBoxIsShrunkWithinDomain() {
+        final FixedPointDomain domain = FixedPointDomain.compile(List.of(new TestBranch(100, 0, Map.of("fb1", new BigDecimal("0.5"), "fb2", new BigDecimal("0.25")))),
+                                                                 Map.of("fb1", "AA", "fb2", "BB", "fb3", "CC"),
+                                                                 List.of("AA", "BB", "CC"));
+        final FixedPointDomain safeDomain = domain.withSafeBox(new double[]{-1000, Double.NaN, -7}, new double[]{1000, 400.5, 7});
+        // 0.5 * 1000 * f + 0.25 * 400.5 * f <= 100 for f = 100 / 600.125, BB lower limit being taken as zero
+        // and CC being unbounded as no branch depends on it
+        Assertions.assertThat(safeDomain.safeLowerBounds()).containsExactly(-166, 0, -Integer.MAX_VALUE);
+        Assertions.assertThat(safeDomain.safeUpperBounds()).containsExactly(166, 66, Integer.MAX_VALUE);
+        Assertions.assertThat(safeDomain.isInSafeBox(new int[]{166, 66, -5000}, 0)).isTrue();
+        Assertions.assertThat(safeDomain.minimalDelta(new int[]{166, 66, 0}, 0)).isEqualTo(FixedPointDomain.DELTA_ONE);
+        Assertions.assertThat(safeDomain.isInSafeBox(new int[]{200, 0, 0}, 0)).isFalse();
+        Assertions.assertThat(safeDomain.minimalDelta(new int[]{201, 0, 0}, 0)).isEqualTo(domain.minimalDelta(new int[]{201, 0, 0}, 0)).isLessThan(FixedPointDomain.DELTA_ONE);
+
+        final FixedPointDomain negativeMargin = FixedPointDomain.compile(List.of(new TestBranch(-100, 0, Map.of("fb1", new BigDecimal("0.5")))),
+                                                                         Map.of("fb1", "AA"),
+                                                                         List.of("AA"));
+        Assertions.assertThat(negativeMargin.withSafeBox(new double[]{-1000}, new double[]{1000})).isSameAs(negativeMargin);
+    }
+
+    @Test
+    void branchesAreOrderedForPruning() {
+        final Map<String, String> fbToVertexCode = Map.of("fb1", "AA", "fb2", "BB");
+        final List<TestBranch> branches = List.of(
+                new TestBranch(300, 0, Map.of("fb1", new BigDecimal("0.5"), "fb2", new BigDecimal("-0.5"))),
+                new TestBranch(100, 0, Map.of("fb1", BigDecimal.ZERO)),
+                new TestBranch(100, 0, Map.of("fb1", new BigDecimal("0.1"), "fb2", new BigDecimal("0.1"))),
+                new TestBranch(-10, 0, Map.of("fb1", new BigDecimal("-0.1"))),
+                new TestBranch(200, 0, Map.of("fb1", new BigDecimal("1"), "fb2", new BigDecimal("0"))));
+        final FixedPointDomain domain = FixedPointDomain.compile(branches, fbToVertexCode, List.of("AA", "BB"));
+
+        Assertions.assertThat(domain).isNotNull();
+        Assertions.assertThat(domain.branchCount()).isEqualTo(4);
+        Assertions.assertThat(IntStream.range(0, domain.branchCount()).map(domain::branchIndex)).containsExactly(3, 4, 0, 2);
+        // branch 4 gives at least 200 / (1 * 400) = 0.5: it is pruned once a smaller delta is found, the bound being conservative
+        Assertions.assertThat(domain.canStopAt(0, 400, 0)).isFalse();
+        Assertions.assertThat(domain.canStopAt(1, 400, FixedPointDomain.DELTA_ONE / 2 - 1_000_000)).isTrue();
+        Assertions.assertThat(domain.canStopAt(1, 400, FixedPointDomain.DELTA_ONE / 2)).isFalse();
+        Assertions.assertThat(domain.minimalDelta(new int[]{400, 0}, 0)).isEqualTo(FixedPointDomain.DELTA_ONE / 2);
+        Assertions.assertThat(domain.minimalDelta(new int[]{400, -400}, 0)).isEqualTo(FixedPointDomain.DELTA_ONE / 2);
+    }
+
+    private record TestBranch(int getRam0Core, int getAmr,
+                              Map<String, BigDecimal> getPtdfValues) implements FlowBasedDomainBranchData {
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ */
+package com.farao_community.farao.gridcapa_core_valid_commons.vertex;
+
+import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.CoreHub;
+import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.HubRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+class FlowBasedDomainPresolverTest {
+
+    private final List<CoreHub> coreHubs = List.of(
+            new CoreHub("Test1", "ram1", "fb1", "fc1", "AA", false, 1),
+            new CoreHub("Test2", "ram2", "fb2", "fc2", "BB", false, 1),
+            new CoreHub("Test3", "ram3", "fb3", "fc3", "CC", false, 1)
+    );
+
+    @Test
+    void dominatedBranchesAreRemoved() {
+        final List<TestBranch> branches = List.of(
+                branch("cb1", 100, 0, "0.1", "0.2", "0.3"),
+                // same PTDFs, larger margin
+                branch("cb2", 100, 20, "0.1", "0.2", "0.3"),
+                // twice the PTDFs of cb1 for less than twice its margin: tighter than cb1
+                branch("cb3", 150, 0, "0.2", "0.4", "0.6"),
+                // opposite direction
+                branch("cb4", 100, 0, "-0.1", "-0.2", "-0.3"),
+                // no flow on any hub
+                branch("cb5", 10, 0, "0", "0", "0"),
+                // no margin
+                branch("cb6", -10, 0, "0.1", "0.2", "0.3"),
+                branch("cb7", 0, 0, "0", "0", "0"),
+                new TestBranch("cb8", 10, 0, Map.of())
+        );
+        final FlowBasedDomainPresolver.PresolvedDomain presolvedDomain = FlowBasedDomainPresolver.presolve(branches, coreHubs);
+        Assertions.assertThat(presolvedDomain.removedCount()).isEqualTo(3);
+        Assertions.assertThat(presolvedDomain.branchesData())
+                .extracting(FlowBasedDomainBranchData::getId)
+                .containsExactly("cb3", "cb4", "cb6", "cb7", "cb8");
+    }
+
+    @Test
+    void projectionIsUnchanged() {
+        final Random random = new Random(17);
+        final List<TestBranch> branches = new ArrayList<>();
+        for (int direction = 0; direction < 40; direction++) {
+            final int[] ptdfs = random.ints(coreHubs.size(), -500, 500).toArray();
+            for (int copy = 0; copy < 10; copy++) {
+                final int factor = 1 + random.nextInt(3);
+                branches.add(new TestBranch("cb" + branches.size(), random.nextInt(3_000) - 200, random.nextInt(100), Map.of(
+                        "fb1", BigDecimal.valueOf((long) factor * ptdfs[0], 4),
+                        "fb2", BigDecimal.valueOf((long) factor * ptdfs[1], 4),
+                        "fb3", BigDecimal.valueOf((long) factor * ptdfs[2], 4))));
+            }
+        }
+        final VertexSet.Builder builder = new VertexSet.Builder(VertexSet.toHubCodes(coreHubs));
+        for (int id = 0; id < 3_000; id++) {
+            builder.add(id, random.ints(coreHubs.size(), -8_000, 8_000).toArray());
+        }
+        final VertexSet vertexSet = builder.build();
+
+        final FlowBasedDomainPresolver.PresolvedDomain presolvedDomain = FlowBasedDomainPresolver.presolve(branches, coreHubs);
+        final BranchDataSet branchDataSet = BranchDataSet.of(branches, BranchDataSet.toHubCodes(coreHubs));
+        final FlowBasedDomainPresolver.PresolvedDomain presolvedSet = FlowBasedDomainPresolver.presolve(branchDataSet, HubRegistry.of(coreHubs));
+        Assertions.assertThat(presolvedDomain.removedCount()).isGreaterThan(branches.size() / 2);
+        Assertions.assertThat(presolvedSet.removedCount()).isEqualTo(presolvedDomain.removedCount());
+        Assertions.assertThat(presolvedSet.branchesData()).isInstanceOf(BranchDataSet.class);
+
+        final CompiledFlowBasedDomain domain = CompiledFlowBasedDomain.compile(branches, coreHubs);
+        final CompiledFlowBasedDomain reducedDomain = CompiledFlowBasedDomain.compile(presolvedDomain.branchesData(), coreHubs);
+        final CompiledFlowBasedDomain reducedSet = CompiledFlowBasedDomain.compile(presolvedSet.branchesData(), coreHubs);
+        for (final ProjectionEngine engine : ProjectionEngine.values()) {
+            final ProjectionParameters parameters = ProjectionParameters.sequential(engine);
+            final List<Vertex> expected = domain.getVerticesProjectedOnDomain(vertexSet, parameters);
+            Assertions.assertThat(reducedDomain.getVerticesProjectedOnDomain(vertexSet, parameters)).containsExactlyElementsOf(expected);
+            Assertions.assertThat(reducedSet.getVerticesProjectedOnDomain(vertexSet, parameters)).containsExactlyElementsOf(expected);
+        }
+    }
+
+    @Test
+    void inexactDomainIsUnchanged() {
+        final List<TestBranch> branches = List.of(
+                new TestBranch("cb1", 100, 0, Map.of("fb1", new BigDecimal("0.1000000000000001"))),
+                new TestBranch("cb2", 200, 0, Map.of("fb1", new BigDecimal("0.1000000000000001"))));
+        final FlowBasedDomainPresolver.PresolvedDomain presolvedDomain = FlowBasedDomainPresolver.presolve(branches, coreHubs);
+        Assertions.assertThat(presolvedDomain.removedCount()).isZero();
+        Assertions.assertThat(presolvedDomain.branchesData()).containsExactlyElementsOf(branches);
+    }
+
+    private static TestBranch branch(final String id, final int ram0Core, final int amr,
+                                     final String fb1, final String fb2, final String fb3) {
+        return new TestBranch(id, ram0Core, amr, Map.of("fb1", new BigDecimal(fb1), "fb2", new BigDecimal(fb2), "fb3", new BigDecimal(fb3)));
+    }
+
+    private record TestBranch(String getId, int getRam0Core, int getAmr,
+                              Map<String, BigDecimal> getPtdfValues) implements FlowBasedDomainBranchData {
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ */
+package com.farao_community.farao.gridcapa_core_valid_commons.vertex;
+
+import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.CoreHub;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+class IncrementalProjectionTest {
+
+    private final List<CoreHub> coreHubs = List.of(
+            new CoreHub("Test1", "ram1", "fb1", "fc1", "AA", false, 1),
+            new CoreHub("Test2", "ram2", "fb2", "fc2", "BB", false, 1),
+            new CoreHub("Test3", "ram3", "fb3", "fc3", "CC", false, 1)
+    );
+
+    private final Random random = new Random(23);
+    private final ProjectionParameters parameters = ProjectionParameters.sequential(ProjectionEngine.FIXED_POINT);
+
+    @Test
+    void updateMatchesFullProjection() {
+        final VertexSet vertexSet = randomVertexSet(3_000);
+        final List<TestBranch> branches = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            branches.add(randomBranch("cnec" + i));
+        }
+        IncrementalProjection projection = IncrementalProjection.project(vertexSet, CompiledFlowBasedDomain.compile(branches, coreHubs), parameters);
+        Assertions.assertThat(projection.getRecomputedVertexCount()).isEqualTo(vertexSet.size());
+
+        for (int run = 0; run < 5; run++) {
+            branches.remove(random.nextInt(branches.size()));
+            branches.set(random.nextInt(branches.size()), randomBranch(branches.get(random.nextInt(branches.size())).getId() + "-" + run));
+            final int modified = random.nextInt(branches.size());
+            branches.set(modified, randomBranch(branches.get(modified).getId()));
+            branches.add(random.nextInt(branches.size()), randomBranch("added" + run));
+
+            final CompiledFlowBasedDomain newDomain = CompiledFlowBasedDomain.compile(branches, coreHubs);
+            projection = projection.update(newDomain, parameters);
+
+            Assertions.assertThat(projection.getDomain()).isSameAs(newDomain);
+            Assertions.assertThat(projection.getProjectedVertices())
+                    .containsExactlyElementsOf(VerticesUtils.getVerticesProjectedOnDomain(List.copyOf(vertexSet), branches, coreHubs, ProjectionEngine.BIG_DECIMAL));
+            Assertions.assertThat(projection.getRecomputedVertexCount()).isLessThan(vertexSet.size() / 4);
+        }
+    }
+
+    @Test
+    void branchesWithoutIdsAreFullyRecomputed() {
+        final VertexSet vertexSet = randomVertexSet(100);
+        final List<FlowBasedDomainBranchData> branches = List.of(new TestBranch(null, 100, 0, Map.of("fb1", BigDecimal.ONE)));
+        final CompiledFlowBasedDomain domain = CompiledFlowBasedDomain.compile(branches, coreHubs);
+
+        final IncrementalProjection projection = IncrementalProjection.project(vertexSet, domain, parameters).update(domain, parameters);
+
+        Assertions.assertThat(projection.getRecomputedVertexCount()).isEqualTo(vertexSet.size());
+        Assertions.assertThat(projection.getProjectedVertices()).containsExactlyElementsOf(domain.getVerticesProjectedOnDomain(vertexSet, parameters));
+    }
+
+    @Test
+    void unchangedDomainRecomputesNothing() {
+        final VertexSet vertexSet = randomVertexSet(100);
+        final CompiledFlowBasedDomain domain = CompiledFlowBasedDomain.compile(List.of(randomBranch("a"), randomBranch("b")), coreHubs);
+
+        final IncrementalProjection projection = IncrementalProjection.project(vertexSet, domain, parameters).update(domain, parameters);
+
+        Assertions.assertThat(projection.getRecomputedVertexCount()).isZero();
+        Assertions.assertThat(projection.getProjectedVertices()).containsExactlyElementsOf(domain.getVerticesProjectedOnDomain(vertexSet, parameters));
+    }
+
+    @Test
+    void otherHubsAreRejected() {
+        final VertexSet vertexSet = new VertexSet.Builder(List.of("AA", "BB")).build();
+        final CompiledFlowBasedDomain domain = CompiledFlowBasedDomain.compile(List.of(randomBranch("a")), coreHubs);
+        Assertions.assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> IncrementalProjection.project(vertexSet, domain, parameters))
+                .withMessage("Vertex set hubs [AA, BB] differ from domain hubs [AA, BB, CC]");
+    }
+
+    private VertexSet randomVertexSet(final int size) {
+        final VertexSet.Builder builder = new VertexSet.Builder(VertexSet.toHubCodes(coreHubs));
+        for (int id = 0; id < size; id++) {
+            builder.add(id, random.ints(coreHubs.size(), -5_000, 5_000).toArray());
+        }
+        return builder.build();
+    }
+
+    private TestBranch randomBranch(final String id) {
+        return new TestBranch(id, random.nextInt(2_000) + 500, random.nextInt(100) - 50, Map.of(
+                "fb1", BigDecimal.valueOf(random.nextInt(100_000) - 50_000, 5),
+                "fb2", BigDecimal.valueOf(random.nextInt(100_000) - 50_000, 5),
+                "fb3", BigDecimal.valueOf(random.nextInt(1_000) - 500, 3)));
+    }
+
+    private record TestBranch(String getId, int getRam0Core, int getAmr,
+                              Map<String, BigDecimal> getPtdfValues) implements FlowBasedDomainBranchData {
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ */
+package com.farao_community.farao.gridcapa_core_valid_commons.vertex;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static com.farao_community.farao.gridcapa_core_valid_commons.vertex.FixedPointDomain.OUT_OF_RANGE;
+
+class ProjectionKernelTest {
+
+    private static final List<String> HUB_CODES = List.of("AA", "BB", "CC");
+    private static final Map<String, String> FB_TO_VERTEX_CODE = Map.of("fb1", "AA", "fb2", "BB", "fb3", "CC");
+
+    private final Random random = new Random(3);
+
+    @Test
+    void batchDeltasMatchVertexByVertexDeltas() {
+        final List<TestBranch> branches = random.ints(293, -100, 2_000)
+                .mapToObj(ram -> new TestBranch(ram, random.nextInt(100) - 50, Map.of(
+                        "fb1", BigDecimal.valueOf(random.nextInt(100_000) - 50_000, 5),
+                        "fb2", BigDecimal.valueOf(random.nextInt(100_000) - 50_000, 5),
+                        "fb3", random.nextInt(4) == 0 ? BigDecimal.ZERO : BigDecimal.valueOf(random.nextInt(1_000) - 500, 3))))
+                .toList();
+        final FixedPointDomain domain = FixedPointDomain.compile(branches, FB_TO_VERTEX_CODE, HUB_CODES);
+        Assertions.assertThat(domain).isNotNull();
+
+        final int vertexCount = ProjectionKernel.VERTEX_BLOCK + ProjectionKernel.VERTEX_TILE + 5;
+        final int[] coordinates = random.ints(vertexCount * HUB_CODES.size(), -5_000, 5_000).toArray();
+        coordinates[42] = Integer.MAX_VALUE;
+        assertSameDeltas(domain, coordinates, 0, vertexCount);
+        assertSameDeltas(domain, coordinates, 13, vertexCount - 7);
+    }
+
+    @Test
+    void outOfRangeVerticesAreFlagged() {
+        final FixedPointDomain domain = FixedPointDomain.compile(List.of(new TestBranch(100, 0, Map.of("fb1", new BigDecimal("999.123456789")))),
+                                                                 Map.of("fb1", "AA"),
+                                                                 List.of("AA"));
+        final long[] deltas = new long[3];
+        ProjectionKernel.minimalDeltas(domain, new int[]{0, Integer.MAX_VALUE, 1_000}, 0, 3, deltas);
+        Assertions.assertThat(deltas).containsExactly(FixedPointDomain.DELTA_ONE, OUT_OF_RANGE, domain.minimalDelta(new int[]{1_000}, 0));
+    }
+
+    private static void assertSameDeltas(final FixedPointDomain domain, final int[] coordinates, final int from, final int to) {
+        final long[] deltas = new long[to - from];
+        ProjectionKernel.minimalDeltas(domain, coordinates, from, to, deltas);
+        for (int i = from; i < to; i++) {
+            Assertions.assertThat(deltas[i - from]).isEqualTo(domain.minimalDelta(coordinates, i * domain.coordinateCount()));
+        }
+    }
+
+    private record TestBranch(int getRam0Core, int getAmr,
+                              Map<String, BigDecimal> getPtdfValues) implements FlowBasedDomainBranchData {
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ */
+package com.farao_community.farao.gridcapa_core_valid_commons.vertex;
+
+import com.farao_community.farao.gridcapa_core_valid_commons.exception.CoreValidCommonsInvalidDataException;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+class VertexSetFilesTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void writtenSetIsReadBackInOriginalOrder() throws IOException {
+        final Random random = new Random(17);
+        final VertexSet.Builder builder = new VertexSet.Builder(List.of("AA", "BB", "CC"));
+        for (int id = 0; id < 5_000; id++) {
+            builder.add(id * 3 + random.nextInt(3), random.ints(3, -5_000, 5_000).toArray());
+        }
+        builder.add(-1, new int[]{Integer.MIN_VALUE, Integer.MAX_VALUE, 0});
+        final VertexSet vertexSet = builder.build();
+        final Path file = directory.resolve("vertices.bin");
+
+        VertexSetFiles.write(vertexSet, file);
+        final VertexSet readSet = VertexSetFiles.read(file);
+
+        Assertions.assertThat(readSet.getHubCodes()).isEqualTo(vertexSet.getHubCodes());
+        Assertions.assertThat(readSet).containsExactlyElementsOf(vertexSet);
+        Assertions.assertThat(Files.size(file)).isLessThan(vertexSet.size() * 4L * (vertexSet.hubCount() + 1));
+        Assertions.assertThat(directory).isDirectoryContaining(path -> path.equals(file)).isDirectoryNotContaining("glob:**.tmp");
+    }
+
+    @Test
+    void emptySetIsReadBack() throws IOException {
+        final VertexSet vertexSet = new VertexSet.Builder(List.of("AA")).build();
+        final Path file = directory.resolve("empty.bin");
+        VertexSetFiles.write(vertexSet, file);
+        Assertions.assertThat(VertexSetFiles.read(file)).isEmpty();
+    }
+
+    @Test
+    void otherFilesAreRejected() throws IOException {
+        final Path file = Files.writeString(directory.resolve("vertices.csv"), "Vertex ID,AA\n1,2\n");
+        Assertions.assertThatExceptionOfType(CoreValidCommonsInvalidDataException.class)
+                .isThrownBy(() -> VertexSetFiles.read(file))
+                .withMessage("%s is not a vertex set file".formatted(file));
+    }
+}
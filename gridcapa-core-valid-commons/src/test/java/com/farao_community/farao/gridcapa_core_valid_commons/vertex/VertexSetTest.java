@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ */
+package com.farao_community.farao.gridcapa_core_valid_commons.vertex;
+
+import com.farao_community.farao.gridcapa_core_valid_commons.exception.CoreValidCommonsInvalidDataException;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+class VertexSetTest {
+
+    private static final List<String> HUB_CODES = List.of("AA", "BB", "CC");
+
+    private VertexSet getTestVertexSet() {
+        return new VertexSet.Builder(HUB_CODES, 1)
+                .add(1, new int[]{11, 111, 1111})
+                .add(2, new int[]{22, 222, 2222})
+                .add(3, new int[]{-33, -333, -3333})
+                .build();
+    }
+
+    @Test
+    void getVertices() {
+        final VertexSet vertexSet = getTestVertexSet();
+        Assertions.assertThat(vertexSet).hasSize(3);
+        Assertions.assertThat(vertexSet.hubCount()).isEqualTo(3);
+        Assertions.assertThat(vertexSet.vertexId(2)).isEqualTo(3);
+        Assertions.assertThat(vertexSet.coordinate(1, vertexSet.hubOrdinal("BB"))).isEqualTo(222);
+        Assertions.assertThat(vertexSet.get(2))
+                .isEqualTo(new Vertex(3, Map.of("AA", -33, "BB", -333, "CC", -3333)));
+    }
+
+    @Test
+    void coordinatesViewBehavesAsReadOnlyMap() {
+        final Map<String, Integer> coordinates = getTestVertexSet().getFirst().coordinates();
+        Assertions.assertThat(coordinates)
+                .hasSize(3)
+                .containsExactlyInAnyOrderEntriesOf(Map.of("AA", 11, "BB", 111, "CC", 1111))
+                .doesNotContainKey("DD");
+        Assertions.assertThat(coordinates.get("DD")).isNull();
+        Assertions.assertThat(coordinates.getOrDefault(null, 0)).isZero();
+        Assertions.assertThat(coordinates).hasSameHashCodeAs(Map.of("AA", 11, "BB", 111, "CC", 1111));
+        Assertions.assertThatExceptionOfType(UnsupportedOperationException.class)
+                .isThrownBy(() -> coordinates.put("AA", 0));
+    }
+
+    @Test
+    void unknownHubHasNoOrdinal() {
+        Assertions.assertThat(getTestVertexSet().hubOrdinal("DD")).isEqualTo(-1);
+        Assertions.assertThat(getTestVertexSet().hubOrdinal(null)).isEqualTo(-1);
+    }
+
+    @Test
+    void outOfBoundsIndexThrows() {
+        final VertexSet vertexSet = getTestVertexSet();
+        Assertions.assertThatExceptionOfType(IndexOutOfBoundsException.class)
+                .isThrownBy(() -> vertexSet.get(3));
+        Assertions.assertThatExceptionOfType(IndexOutOfBoundsException.class)
+                .isThrownBy(() -> vertexSet.vertexId(-1));
+    }
+
+    @Test
+    void duplicateHubCodesThrow() {
+        final List<String> duplicatedCodes = List.of("AA", "AA");
+        Assertions.assertThatExceptionOfType(CoreValidCommonsInvalidDataException.class)
+                .isThrownBy(() -> new VertexSet.Builder(duplicatedCodes).build())
+                .withMessage("Duplicate vertex code AA in core hubs");
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ *  This Source Code Form is subject to the terms of the Mozilla Public
+ *  License, v. 2.0. If a copy of the MPL was not distributed with this
+ *  file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ *
+ */
+package com.farao_community.farao.gridcapa_core_valid_commons.vertex;
+
+import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.CoreHub;
+import com.farao_community.farao.gridcapa_core_valid_commons.exception.CoreValidCommonsInvalidDataException;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+class VerticesCsvParserTest {
+
+    private final List<CoreHub> coreHubs = List.of(
+            new CoreHub("Test1", "ram1", "fb1", "fc1", "AA", false, 1),
+            new CoreHub("Test2", "ram2", "fb2", "fc2", "BB", false, 1),
+            new CoreHub("Test3", "ram3", "fb3", "fc3", "CC", false, 1),
+            new CoreHub("Test4", "ram4", "fb4", "fc4", "D_D", true, 1)
+    );
+
+    @Test
+    void parsesLikeCommonsCsv() {
+        final Random random = new Random(5);
+        final StringBuilder csv = new StringBuilder("CC,Vertex ID,\"AA\",Other,D_D,BB\r\n");
+        for (int id = 0; id < 60_000; id++) {
+            csv.append(random.nextInt()).append(',')
+                    .append(id).append(',')
+                    .append(random.nextBoolean() ? "\"" + random.nextInt(10_000) + "\"" : random.nextInt(10_000)).append(',')
+                    .append("x,")
+                    .append(random.nextBoolean() ? " " : "+" + random.nextInt(100)).append(',')
+                    .append(random.nextBoolean() ? Integer.MIN_VALUE : -random.nextInt(10_000))
+                    .append(random.nextBoolean() ? "\r\n" : "\n");
+        }
+        assertSameVertices(csv.toString());
+        assertSameVertices("Vertex ID,AA,BB,CC,D_D\n1,2,3,4,\n2,3,4,5,006");
+        assertSameVertices("Vertex ID,AA,BB,CC,D_D\n");
+        assertSameVertices("");
+    }
+
+    @Test
+    void invalidValuesThrow() {
+        assertThrows("Vertex ID,AA,BB,CC,D_D\n1,2,,4,5\n", "Could not parse  as an integer");
+        assertThrows("Vertex ID,AA,BB,CC,D_D\n1,2,3,4,2147483648\n", "Could not parse 2147483648 as an integer");
+        assertThrows("Vertex ID,AA,BB,CC,D_D\n1,2,3,4.5,5\n", "Could not parse 4.5 as an integer");
+        assertThrows("Vertex ID,AA,BB,CC,D_D\n1,2,3,4\n", "Missing D_D value in vertices line: 1,2,3,4");
+        assertThrows("Vertex ID,AA,BB,D_D\n1,2,3,4\n", "Mapping for CC not found, expected one of [Vertex ID, AA, BB, D_D]");
+    }
+
+    private void assertSameVertices(final String csv) {
+        final List<Vertex> expected;
+        try (final Stream<Vertex> vertices = VerticesUtils.streamVertices(new ByteArrayInputStream(csv.getBytes(UTF_8)), coreHubs)) {
+            expected = vertices.toList();
+        }
+        Assertions.assertThat(VerticesCsvParser.parse(csv.getBytes(UTF_8), coreHubs))
+                .containsExactlyElementsOf(expected);
+        for (final int blockSize : new int[] {16, 4096, 1 << 20}) {
+            Assertions.assertThat(parseBlocks(csv, blockSize))
+                    .containsExactlyElementsOf(expected);
+        }
+    }
+
+    /**
+     * Parses the content by blocks, out of a stream returning at most 7 bytes per read, as a slow download would.
+     */
+    private List<Vertex> parseBlocks(final String csv, final int blockSize) {
+        final List<Vertex> vertices = new ArrayList<>();
+        final InputStream trickle = new ByteArrayInputStream(csv.getBytes(UTF_8)) {
+            @Override
+            public synchronized int read(final byte[] b, final int off, final int len) {
+                return super.read(b, off, Math.min(len, 7));
+            }
+        };
+        final long count;
+        try {
+            count = VerticesCsvParser.parseBlocks(trickle, coreHubs, blockSize, block -> block.forEach(vertex -> vertices.add(new Vertex(vertex.vertexId(), Map.copyOf(vertex.coordinates())))));
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Assertions.assertThat(count).isEqualTo(vertices.size());
+        return vertices;
+    }
+
+    private void assertThrows(final String csv, final String message) {
+        Assertions.assertThatExceptionOfType(CoreValidCommonsInvalidDataException.class)
+                .isThrownBy(() -> VerticesCsvParser.parse(csv.getBytes(UTF_8), coreHubs))
+                .withMessage(message);
+        Assertions.assertThatExceptionOfType(CoreValidCommonsInvalidDataException.class)
+                .isThrownBy(() -> VerticesUtils.importVertices(new ByteArrayInputStream(csv.getBytes(UTF_8)), coreHubs))
+                .withMessage("Exception occurred while parsing vertices file");
+        Assertions.assertThatExceptionOfType(CoreValidCommonsInvalidDataException.class)
+                .isThrownBy(() -> VerticesUtils.forEachVertexBlock(new ByteArrayInputStream(csv.getBytes(UTF_8)), coreHubs, block -> { }))
+                .withMessage("Exception occurred while parsing vertices file");
+    }
+}
@@ -16,8 +16,13 @@ import org.mockito.Mockito;
 import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 
 import static java.math.RoundingMode.HALF_EVEN;
 
@@ -77,6 +82,44 @@ class VerticesUtilsTest {
         }
     }
 
+    @Test
+    void streamVertices() throws IOException {
+        try (final InputStream inputStream = getClass().getResource("vertices.csv").openStream();
+             final InputStream expectedStream = getClass().getResource("vertices.csv").openStream();
+             final Stream<Vertex> vertices = VerticesUtils.streamVertices(inputStream, coreHubs)) {
+            Assertions.assertThat(vertices.toList())
+                    .containsExactlyElementsOf(VerticesUtils.importVertices(expectedStream, coreHubs));
+        }
+    }
+
+    @Test
+    void forEachVertexProjectsVerticesAsTheyAreRead() throws IOException {
+        final CompiledFlowBasedDomain domain = CompiledFlowBasedDomain.compile(getTestBranches(), coreHubs);
+        final List<Vertex> projected = new ArrayList<>();
+        try (final InputStream inputStream = getClass().getResource("vertices.csv").openStream();
+             final InputStream expectedStream = getClass().getResource("vertices.csv").openStream()) {
+            final long count = VerticesUtils.forEachVertex(inputStream, coreHubs,
+                                                           vertex -> projected.add(domain.getVertexProjectedOnDomain(vertex, ProjectionEngine.FIXED_POINT)));
+            Assertions.assertThat(count).isEqualTo(4);
+            Assertions.assertThat(projected)
+                    .containsExactlyElementsOf(domain.getVerticesProjectedOnDomain(VerticesUtils.importVertices(expectedStream, coreHubs),
+                                                                                   ProjectionParameters.sequential(ProjectionEngine.BIG_DECIMAL)));
+        }
+    }
+
+    @Test
+    void streamBadVerticesWithException() throws IOException {
+        try (final InputStream inputStream = getClass().getResource("bad-vertices.csv").openStream();
+             final Stream<Vertex> vertices = VerticesUtils.streamVertices(inputStream, coreHubs)) {
+            final Iterator<Vertex> iterator = vertices.iterator();
+            Assertions.assertThat(iterator.next().vertexId()).isEqualTo(1);
+            Assertions.assertThat(iterator.next().vertexId()).isEqualTo(2);
+            Assertions.assertThatExceptionOfType(CoreValidCommonsInvalidDataException.class)
+                    .isThrownBy(iterator::next)
+                    .withMessage("Exception occurred while parsing vertices file");
+        }
+    }
+
     @Test
     void projectVertices() {
         final List<TestBranch> branches = getTestBranches();
@@ -105,6 +148,90 @@ class VerticesUtilsTest {
                 .containsExactlyInAnyOrderEntriesOf(vertex2.coordinates());
     }
 
+    @Test
+    void projectImportedVertexSet() throws IOException {
+        try (final InputStream inputStream = getClass().getResource("vertices.csv").openStream()) {
+            final List<Vertex> vertices = VerticesUtils.importVertices(inputStream, coreHubs);
+            final List<Vertex> projected = VerticesUtils.getVerticesProjectedOnDomain(vertices, getTestBranches(), coreHubs);
+            final List<Vertex> expected = VerticesUtils.getVerticesProjectedOnDomain(List.copyOf(vertices), getTestBranches(), coreHubs);
+            Assertions.assertThat(projected)
+                    .isInstanceOf(VertexSet.class)
+                    .containsExactlyElementsOf(expected);
+        }
+    }
+
+    @Test
+    void fixedPointEngineMatchesBigDecimalEngine() {
+        final Random random = new Random(7);
+        final VertexSet.Builder builder = new VertexSet.Builder(VertexSet.toHubCodes(coreHubs));
+        for (int id = 0; id < 500; id++) {
+            builder.add(id, random.ints(coreHubs.size(), -5_000, 5_000).toArray());
+        }
+        final VertexSet vertexSet = builder.build();
+        final List<Vertex> vertexList = List.copyOf(vertexSet);
+        final List<TestBranch> branches = random.ints(50, 0, 2_000)
+                .mapToObj(ram -> new TestBranch(ram, random.nextInt(100) - 50, Map.of(
+                        "fb1", BigDecimal.valueOf(random.nextInt(100_000) - 50_000, 5),
+                        "fb2", BigDecimal.valueOf(random.nextInt(100_000) - 50_000, 5),
+                        "fb3", BigDecimal.valueOf(random.nextInt(1_000) - 500, 3),
+                        "fb4", BigDecimal.valueOf(random.nextInt(100_000) - 50_000, 5))))
+                .toList();
+
+        final List<Vertex> expected = VerticesUtils.getVerticesProjectedOnDomain(vertexList, branches, coreHubs, ProjectionEngine.BIG_DECIMAL);
+        Assertions.assertThat(expected).isNotEqualTo(vertexList);
+        Assertions.assertThat(VerticesUtils.getVerticesProjectedOnDomain(vertexList, branches, coreHubs, ProjectionEngine.FIXED_POINT))
+                .containsExactlyElementsOf(expected);
+        Assertions.assertThat(VerticesUtils.getVerticesProjectedOnDomain(vertexList, branches, coreHubs, ProjectionEngine.COMPARE))
+                .containsExactlyElementsOf(expected);
+        Assertions.assertThat(VerticesUtils.getVerticesProjectedOnDomain(vertexSet, branches, coreHubs, ProjectionEngine.FIXED_POINT))
+                .containsExactlyElementsOf(expected);
+        Assertions.assertThat(VerticesUtils.getVerticesProjectedOnDomain(vertexSet, branches, coreHubs, ProjectionEngine.COMPARE))
+                .containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void parallelProjectionKeepsVerticesOrder() {
+        final Random random = new Random(11);
+        final VertexSet.Builder builder = new VertexSet.Builder(VertexSet.toHubCodes(coreHubs));
+        for (int id = 0; id < 2_000; id++) {
+            builder.add(id, random.ints(coreHubs.size(), -3_000, 3_000).toArray());
+        }
+        final VertexSet vertexSet = builder.build();
+        final List<Vertex> vertexList = List.copyOf(vertexSet);
+        final List<TestBranch> branches = getTestBranches();
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final ProjectionParameters parallel = new ProjectionParameters(ProjectionEngine.FIXED_POINT, pool, 16);
+            final List<Vertex> expected = VerticesUtils.getVerticesProjectedOnDomain(vertexList, branches, coreHubs, ProjectionEngine.BIG_DECIMAL);
+            Assertions.assertThat(VerticesUtils.getVerticesProjectedOnDomain(vertexSet, branches, coreHubs, parallel))
+                    .containsExactlyElementsOf(expected);
+            Assertions.assertThat(VerticesUtils.getVerticesProjectedOnDomain(vertexList, branches, coreHubs, parallel))
+                    .containsExactlyElementsOf(expected);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void invalidProjectionParametersThrow() {
+        Assertions.assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> new ProjectionParameters(null, null, 1));
+        Assertions.assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> new ProjectionParameters(ProjectionEngine.FIXED_POINT, null, 0))
+                .withMessage("Sequential threshold must be positive, got 0");
+    }
+
+    @Test
+    void emptyPtdfsThrowWithEveryEngine() {
+        final List<TestBranch> branches = List.of(new TestBranch(100, 0, Map.of()));
+        final List<Vertex> vertices = List.of(getTestVertex1());
+        for (final ProjectionEngine engine : ProjectionEngine.values()) {
+            Assertions.assertThatExceptionOfType(CoreValidCommonsInvalidDataException.class)
+                    .isThrownBy(() -> VerticesUtils.getVerticesProjectedOnDomain(vertices, branches, coreHubs, engine))
+                    .withMessage("Cannot compute f0Core: no PTDF values provided for vertex 1");
+        }
+    }
+
     private List<CoreHub> getTestCoreHubs() {
         return List.of(
                 new CoreHub("Test1", "ram1", "fb1", "fc1", "AA", false, 1),
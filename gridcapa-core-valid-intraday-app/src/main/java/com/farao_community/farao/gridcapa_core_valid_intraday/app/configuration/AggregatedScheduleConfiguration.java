@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa_core_valid_intraday.app.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * EIC code of the bidding zone of each hub in aggregated schedules, by ramcep2 code. Hubs without area, such as
+ * HVDC hubs, get no net position.
+ */
+@Configuration
+@ConfigurationProperties("core-valid-intraday-runner.aggregated-schedule")
+public class AggregatedScheduleConfiguration {
+    private final Map<String, String> areaCodes = new HashMap<>();
+
+    public Map<String, String> getAreaCodes() {
+        return areaCodes;
+    }
+}
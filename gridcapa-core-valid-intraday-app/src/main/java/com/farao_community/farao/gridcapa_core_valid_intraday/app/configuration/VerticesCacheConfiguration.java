@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa_core_valid_intraday.app.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Local directory where parsed vertices files are kept in binary form. The cache is disabled when no directory is set.
+ * A cached file not used for longer than the maximum age is deleted, unless the maximum age is not positive.
+ */
+@Configuration
+@ConfigurationProperties("core-valid-intraday-runner.vertices-cache")
+public class VerticesCacheConfiguration {
+    private String directory;
+    private Duration maxAge = Duration.ofDays(7);
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(final String directory) {
+        this.directory = directory;
+    }
+
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+
+    public void setMaxAge(final Duration maxAge) {
+        this.maxAge = maxAge;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa_core_valid_intraday.app.services;
+
+import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.HubRegistry;
+import com.farao_community.farao.gridcapa_core_valid_intraday.app.configuration.AggregatedScheduleConfiguration;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Keeps in memory, under the SHA-256 of their content, the net positions of the last aggregated schedules read. The
+ * first task on a schedule reads it once for all its hours; the following ones, for other hours of the same schedule,
+ * only hash it. The French net position, see {@link AggregatedScheduleImporter#importFrenchNetPositions}, and the
+ * net positions of every hub, see {@link AggregatedScheduleImporter#importNetPositions}, are kept apart: the former
+ * reads the French series only, whatever the other areas and the hub configuration.
+ */
+@Service
+public class AggregatedScheduleCache {
+    private static final int MAX_DOCUMENTS = 8;
+
+    private final HubRegistry hubRegistry;
+    private final Map<String, String> areaCodes;
+    private final Map<String, ScheduleNetPositions> netPositionsByDocument = lruMap();
+    private final Map<String, ScheduleNetPositions> frenchNetPositionsByDocument = lruMap();
+
+    public AggregatedScheduleCache(final HubRegistry hubRegistry,
+                                   final AggregatedScheduleConfiguration aggregatedScheduleConfiguration) {
+        this.hubRegistry = hubRegistry;
+        this.areaCodes = Map.copyOf(aggregatedScheduleConfiguration.getAreaCodes());
+    }
+
+    /**
+     * @see AggregatedScheduleImporter#calculateFrenchNetPositionFromScheduleMarketDocument
+     */
+    public BigDecimal importFrenchNetPosition(final InputStream aggregatedScheduleStream,
+                                              final OffsetDateTime targetProcessDateTime) {
+        return importCached(aggregatedScheduleStream, frenchNetPositionsByDocument, AggregatedScheduleImporter::importFrenchNetPositions)
+                .highestNetPosition(AggregatedScheduleImporter.FR_ORDINAL, targetProcessDateTime);
+    }
+
+    /**
+     * @see AggregatedScheduleImporter#importNetPositions
+     */
+    public ScheduleNetPositions importNetPositions(final InputStream aggregatedScheduleStream) {
+        return importCached(aggregatedScheduleStream, netPositionsByDocument, is -> AggregatedScheduleImporter.importNetPositions(is, hubRegistry, areaCodes));
+    }
+
+    private static ScheduleNetPositions importCached(final InputStream aggregatedScheduleStream,
+                                                     final Map<String, ScheduleNetPositions> netPositionsByDocument,
+                                                     final Function<InputStream, ScheduleNetPositions> importer) {
+        final byte[] content;
+        try {
+            content = aggregatedScheduleStream.readAllBytes();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        final String cacheKey = ContentHashes.sha256(content);
+        synchronized (netPositionsByDocument) {
+            final ScheduleNetPositions cached = netPositionsByDocument.get(cacheKey);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        final ScheduleNetPositions netPositions = importer.apply(new ByteArrayInputStream(content));
+        synchronized (netPositionsByDocument) {
+            netPositionsByDocument.put(cacheKey, netPositions);
+        }
+        return netPositions;
+    }
+
+    /**
+     * @return a map keeping its last {@value #MAX_DOCUMENTS} accessed entries
+     */
+    private static Map<String, ScheduleNetPositions> lruMap() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, ScheduleNetPositions> eldest) {
+                return size() > MAX_DOCUMENTS;
+            }
+        };
+    }
+}
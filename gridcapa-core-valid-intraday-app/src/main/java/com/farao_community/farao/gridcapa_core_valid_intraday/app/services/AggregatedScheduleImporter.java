@@ -6,115 +6,192 @@
  */
 package com.farao_community.farao.gridcapa_core_valid_intraday.app.services;
 
-import _351.iec62325.tc57wg16._451_2.scheduledocument._5._1.Point;
-import _351.iec62325.tc57wg16._451_2.scheduledocument._5._1.ScheduleMarketDocument;
-import _351.iec62325.tc57wg16._451_2.scheduledocument._5._1.TimeSeries;
+import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.HubRegistry;
 import com.farao_community.farao.gridcapa_core_valid_intraday.api.exception.CoreValidIntradayInvalidDataException;
-import jakarta.xml.bind.JAXBContext;
-import jakarta.xml.bind.JAXBElement;
-import jakarta.xml.bind.JAXBException;
-import jakarta.xml.bind.Unmarshaller;
 
-import javax.xml.transform.stream.StreamSource;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import java.io.InputStream;
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
-import java.util.Comparator;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.LinkedHashMap;
-import java.util.List;
+
+import static com.farao_community.farao.gridcapa_core_valid_intraday.app.services.StaxReaders.nextChild;
+import static com.farao_community.farao.gridcapa_core_valid_intraday.app.services.StaxReaders.skipElement;
 
 /**
  * @author Amira Kahya {@literal <amira.kahya at rte-france.com>}
  */
 public final class AggregatedScheduleImporter {
-    private static final String FR_EIC = "10YFR-RTE------C";
-    private static final JAXBContext JAXB_CONTEXT = initJaxbContext();
+    static final String FR_EIC = "10YFR-RTE------C";
+    /**
+     * Ordinal of the French hub in the net positions read by {@link #importFrenchNetPositions}.
+     */
+    static final int FR_ORDINAL = 0;
+    private static final XMLInputFactory XML_INPUT_FACTORY = StaxReaders.newXmlInputFactory();
 
     private AggregatedScheduleImporter() {
         // Utility class
     }
 
     public static BigDecimal calculateFrenchNetPositionFromScheduleMarketDocument(final InputStream inputStream, final OffsetDateTime targetProcessDateTime) {
-        final ScheduleMarketDocument schedule = importAggregatedSchedule(inputStream);
-        return getHighestFrenchNetPositionQuantity(schedule, targetProcessDateTime);
+        return importFrenchNetPositions(inputStream).highestNetPosition(FR_ORDINAL, targetProcessDateTime);
     }
 
-    private static ScheduleMarketDocument importAggregatedSchedule(final InputStream inputStream) {
-        try {
-            final Unmarshaller unmarshaller = JAXB_CONTEXT.createUnmarshaller();
-            final JAXBElement<ScheduleMarketDocument> root =
-                    unmarshaller.unmarshal(
-                            new StreamSource(inputStream),
-                            ScheduleMarketDocument.class
-                    );
+    /**
+     * Reads the net position of France only, the French hub having ordinal {@link #FR_ORDINAL}, the series of the
+     * other areas being skipped unread. A series both out of and into France counts as an export.
+     */
+    public static ScheduleNetPositions importFrenchNetPositions(final InputStream inputStream) {
+        return importNetPositions(inputStream, Map.of(FR_EIC, FR_ORDINAL), 1, true);
+    }
 
-            return root.getValue();
-        } catch (final Exception e) {
-            throw new CoreValidIntradayInvalidDataException("Cannot unmarshal ScheduleMarketDocument", e);
+    /**
+     * Reads the net positions of all the hubs in one pass over the document, without building its tree.
+     *
+     * @param areaCodes EIC code of the area of each hub, by ramcep2 code, hubs without area getting no net position
+     */
+    public static ScheduleNetPositions importNetPositions(final InputStream inputStream,
+                                                          final HubRegistry hubRegistry,
+                                                          final Map<String, String> areaCodes) {
+        final Map<String, Integer> hubOrdinalsByArea = new HashMap<>();
+        for (int hub = 0; hub < hubRegistry.size(); hub++) {
+            final String areaCode = areaCodes.get(hubRegistry.ramcep2Code(hub));
+            if (areaCode != null && hubOrdinalsByArea.putIfAbsent(areaCode, hub) != null) {
+                throw new CoreValidIntradayInvalidDataException("Duplicate area code %s in core hubs".formatted(areaCode));
+            }
         }
+        return importNetPositions(inputStream, hubOrdinalsByArea, hubRegistry.size(), false);
     }
 
-    private static BigDecimal getHighestFrenchNetPositionQuantity(final ScheduleMarketDocument schedule, final OffsetDateTime targetProcessDateTime) {
-        if (schedule == null || schedule.getTimeSeries() == null) {
-            throw new CoreValidIntradayInvalidDataException("Schedule or TimeSeries is null.");
-        }
-        final Map<Integer, BigDecimal> totalQuantityByPosition = new LinkedHashMap<>();
-        for (final TimeSeries ts : schedule.getTimeSeries()) {
-            if (ts != null) {
-                final String inDomain = ts.getInDomainMRID() != null ? ts.getInDomainMRID().getValue() : null;
-                final String outDomain = ts.getOutDomainMRID() != null ? ts.getOutDomainMRID().getValue() : null;
-                if (FR_EIC.equals(inDomain) || FR_EIC.equals(outDomain)) {
-                    final List<Point> hourlyPoints = findPointsForTargetHour(ts, targetProcessDateTime);
-                    int sign = FR_EIC.equals(outDomain) ? 1 : -1;
-                    for (final Point point : hourlyPoints) {
-                        final BigDecimal quantity = point.getQuantity().multiply(BigDecimal.valueOf(sign));
-                        totalQuantityByPosition.put(
-                                point.getPosition(),
-                                totalQuantityByPosition.getOrDefault(point.getPosition(), BigDecimal.ZERO).add(quantity)
-                        );
+    /**
+     * Only the first period of the time series into or out of the areas of the hubs is read, the others being skipped,
+     * as well as every element but the domains and points. Each point is 15 minutes after the previous position from
+     * the start of its period, the positions of the matrix starting with the schedule time period, or else with the
+     * earliest point read. Points out of the quarter-hours of the matrix are skipped, see
+     * {@link ScheduleNetPositions.Builder}. In and out domains are expected before the periods, as the schema orders
+     * them.
+     *
+     * @param internalSeriesExported whether a series out of and into the same area counts as an export of it,
+     *                               rather than netting to zero
+     */
+    private static ScheduleNetPositions importNetPositions(final InputStream inputStream,
+                                                           final Map<String, Integer> hubOrdinalsByArea,
+                                                           final int hubCount,
+                                                           final boolean internalSeriesExported) {
+        final ScheduleNetPositions.Builder builder = new ScheduleNetPositions.Builder(hubOrdinalsByArea, hubCount);
+        try {
+            final XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(inputStream);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                        switch (reader.getLocalName()) {
+                            case "schedule_Time_Period.timeInterval" -> {
+                                final Long start = readStart(reader);
+                                if (start != null) {
+                                    builder.start(start);
+                                }
+                            }
+                            case "TimeSeries" -> readTimeSeries(reader, builder, internalSeriesExported);
+                            default -> {
+                                // the children of the document are read in turn
+                            }
+                        }
                     }
                 }
+            } finally {
+                reader.close();
             }
+        } catch (final XMLStreamException | NumberFormatException | DateTimeParseException | ArithmeticException e) {
+            throw new CoreValidIntradayInvalidDataException("Cannot read ScheduleMarketDocument", e);
         }
-        return totalQuantityByPosition.values().stream()
-                .max(Comparator.comparing(BigDecimal::abs))
-                .orElseThrow(() -> new CoreValidIntradayInvalidDataException("No quantities found."));
+        return builder.build();
     }
 
-    private static List<Point> findPointsForTargetHour(final TimeSeries ts, final OffsetDateTime targetProcessDateTime) {
-        if (ts.getPeriod() == null || ts.getPeriod().isEmpty()) {
+    private static void readTimeSeries(final XMLStreamReader reader,
+                                       final ScheduleNetPositions.Builder builder,
+                                       final boolean internalSeriesExported) throws XMLStreamException {
+        int importingHub = HubRegistry.UNKNOWN;
+        int exportingHub = HubRegistry.UNKNOWN;
+        boolean hasPeriod = false;
+        while (nextChild(reader)) {
+            switch (reader.getLocalName()) {
+                case "in_Domain.mRID" -> importingHub = builder.ordinalOfArea(reader.getElementText().strip());
+                case "out_Domain.mRID" -> exportingHub = builder.ordinalOfArea(reader.getElementText().strip());
+                case "Period" -> {
+                    if (!hasPeriod && (importingHub != HubRegistry.UNKNOWN || exportingHub != HubRegistry.UNKNOWN)) {
+                        readPeriod(reader, exportingHub, internalSeriesExported && importingHub == exportingHub ? HubRegistry.UNKNOWN : importingHub, builder);
+                    } else {
+                        skipElement(reader);
+                    }
+                    hasPeriod = true;
+                }
+                default -> skipElement(reader);
+            }
+        }
+        if (!hasPeriod && (importingHub != HubRegistry.UNKNOWN || exportingHub != HubRegistry.UNKNOWN)) {
             throw new CoreValidIntradayInvalidDataException("Time series contains no periods.");
         }
-        final OffsetDateTime periodStart = OffsetDateTime.parse(
-                ts.getPeriod().getFirst().getTimeInterval()
-                        .getStart()
-        );
-        final OffsetDateTime hourStart = targetProcessDateTime
-                .withMinute(0)
-                .withSecond(0)
-                .withNano(0);
-        final OffsetDateTime hourEnd = hourStart.plusHours(1);
-        return ts.getPeriod().getFirst().getPoint() == null
-                ? List.of()
-                : ts.getPeriod().getFirst().getPoint().stream()
-                .filter(p -> isPointWithinHour(periodStart, hourStart, hourEnd, p))
-                .toList();
     }
 
-    private static boolean isPointWithinHour(final OffsetDateTime periodStart, final OffsetDateTime hourStart, final OffsetDateTime hourEnd, final Point p) {
-        final OffsetDateTime pointDateTime =
-                periodStart.plusMinutes(
-                        15L * (p.getPosition() - 1)
-                );
-        return !pointDateTime.isBefore(hourStart) && pointDateTime.isBefore(hourEnd);
+    private static void readPeriod(final XMLStreamReader reader,
+                                   final int exportingHub,
+                                   final int importingHub,
+                                   final ScheduleNetPositions.Builder builder) throws XMLStreamException {
+        Long periodStart = null;
+        while (nextChild(reader)) {
+            switch (reader.getLocalName()) {
+                case "timeInterval" -> periodStart = readStart(reader);
+                case "Point" -> {
+                    if (periodStart == null) {
+                        throw new CoreValidIntradayInvalidDataException("Period has no start before its points.");
+                    }
+                    readPoint(reader, periodStart, exportingHub, importingHub, builder);
+                }
+                default -> skipElement(reader);
+            }
+        }
     }
 
-    private static JAXBContext initJaxbContext() {
-        try {
-            return JAXBContext.newInstance(ScheduleMarketDocument.class);
-        } catch (JAXBException e) {
-            throw new ExceptionInInitializerError(e);
+    private static void readPoint(final XMLStreamReader reader,
+                                  final long periodStart,
+                                  final int exportingHub,
+                                  final int importingHub,
+                                  final ScheduleNetPositions.Builder builder) throws XMLStreamException {
+        String position = null;
+        String quantity = null;
+        while (nextChild(reader)) {
+            switch (reader.getLocalName()) {
+                case "position" -> position = reader.getElementText();
+                case "quantity" -> quantity = reader.getElementText();
+                default -> skipElement(reader);
+            }
+        }
+        if (position == null || quantity == null) {
+            throw new CoreValidIntradayInvalidDataException("Point without position or quantity.");
+        }
+        final long pointStart = periodStart + ScheduleNetPositions.POSITION_SECONDS * (Integer.parseInt(position.strip()) - 1);
+        builder.add(exportingHub, importingHub, pointStart, new BigDecimal(quantity.strip()));
+    }
+
+    /**
+     * Reads a time interval element.
+     *
+     * @return the start of the interval in epoch seconds, or null if it has none
+     */
+    private static Long readStart(final XMLStreamReader reader) throws XMLStreamException {
+        Long start = null;
+        while (nextChild(reader)) {
+            if ("start".equals(reader.getLocalName())) {
+                start = OffsetDateTime.parse(reader.getElementText().strip()).toEpochSecond();
+            } else {
+                skipElement(reader);
+            }
         }
+        return start;
     }
 }
@@ -0,0 +1,399 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa_core_valid_intraday.app.services;
+
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.Vertex;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Low-dimensional projections of a set of projected vertices, built once by {@link VerticesSelector#approximateIndex}
+ * for requests where an approximate selection is enough.
+ * <p>
+ * The weighted coordinates ({@code sqrt(coefficient) * coordinate}) are projected on their principal components, up to
+ * {@link #VARIANCE_SHARE} of their variance, and the norm of what the components leave out is kept aside. Both give a
+ * lower bound of the distance to the market, cheaper to compute than the distance itself. Vertices are sorted along the
+ * first component, so that queries only walk the vertices close enough to the market along it, and only compute the
+ * exact distance of the ones whose lower bound is small enough.
+ * <p>
+ * Error bound: when selecting the closest vertices, a vertex is skipped only when its lower bound, times
+ * {@code 1 + DISTANCE_TOLERANCE}, exceeds the distance of the farthest vertex selected so far. Every vertex left out of
+ * the selection is hence at least {@code farthest / (1 + DISTANCE_TOLERANCE)} away, farthest being the distance of the
+ * farthest selected vertex, and every selected vertex is at most {@code 1 + DISTANCE_TOLERANCE} times farther than the
+ * n-th closest vertex. Vertices within a sphere are found exactly.
+ * The recall against the exact selection is given by {@link VerticesSelector#closestVerticesRecall}.
+ */
+public final class ApproximateVerticesIndex {
+
+    /**
+     * Selected vertices are at most this much farther, relatively, than the n-th closest vertex.
+     */
+    public static final double DISTANCE_TOLERANCE = 0.1;
+    /**
+     * Share of the variance of the weighted coordinates kept by the principal components.
+     */
+    static final double VARIANCE_SHARE = 0.95;
+    private static final double LOWER_BOUND_TOLERANCE = 1e-9;
+    private static final int MAX_JACOBI_SWEEPS = 64;
+
+    private final List<Vertex> vertices;
+    private final int[] coordinates;
+    private final double[] coefficients;
+    private final int hubCount;
+    private final int componentCount;
+    private final double[] mean;
+    private final double[] components;
+    // by slot, the vertices being sorted along the first principal component
+    private final int[] sortedIndexes;
+    private final double[] projections;
+    private final double[] residualNorms;
+
+    ApproximateVerticesIndex(final List<Vertex> vertices,
+                             final int[] coordinates,
+                             final double[] coefficients) {
+        this.vertices = vertices;
+        this.coordinates = coordinates;
+        this.coefficients = coefficients;
+        this.hubCount = coefficients.length;
+        final int size = vertices.size();
+        this.mean = new double[hubCount];
+        for (int index = 0; index < size; index++) {
+            for (int hub = 0; hub < hubCount; hub++) {
+                mean[hub] += weighted(coordinates[index * hubCount + hub], hub);
+            }
+        }
+        for (int hub = 0; hub < hubCount; hub++) {
+            mean[hub] /= Math.max(size, 1);
+        }
+        final PrincipalComponents principalComponents = principalComponents(covariance(size));
+        this.componentCount = principalComponents.count();
+        this.components = principalComponents.vectors();
+        final double[] unsortedProjections = new double[size * componentCount];
+        final double[] unsortedResidualNorms = new double[size];
+        final IntStream indexes = IntStream.range(0, size);
+        (size < NearestVertices.PARALLEL_THRESHOLD ? indexes : indexes.parallel()).forEach(index -> {
+            final double[] centered = new double[hubCount];
+            for (int hub = 0; hub < hubCount; hub++) {
+                centered[hub] = weighted(coordinates[index * hubCount + hub], hub) - mean[hub];
+            }
+            unsortedResidualNorms[index] = project(centered, unsortedProjections, index * componentCount);
+        });
+        this.sortedIndexes = IntStream.range(0, size).boxed()
+            .sorted(Comparator.comparingDouble(index -> firstComponent(unsortedProjections, index)))
+            .mapToInt(Integer::intValue)
+            .toArray();
+        this.projections = new double[size * componentCount];
+        this.residualNorms = new double[size];
+        for (int slot = 0; slot < size; slot++) {
+            System.arraycopy(unsortedProjections, sortedIndexes[slot] * componentCount, projections, slot * componentCount, componentCount);
+            residualNorms[slot] = unsortedResidualNorms[sortedIndexes[slot]];
+        }
+    }
+
+    public List<Vertex> getVertices() {
+        return vertices;
+    }
+
+    public int size() {
+        return vertices.size();
+    }
+
+    /**
+     * Walks the vertices away from the market along the first principal component, computing exact distances only for
+     * the vertices whose lower bound can beat the current selection, until no further vertex can.
+     *
+     * @return the indexes of n vertices close to the market, nearest first
+     */
+    int[] nearest(final double[] marketPositions,
+                  final int n) {
+        final Market market = market(marketPositions);
+        final double toleranceFactor = (1 + DISTANCE_TOLERANCE) * (1 + DISTANCE_TOLERANCE);
+        final NearestVertices.BoundedHeap heap = new NearestVertices.BoundedHeap(Math.clamp(n, 0, size()));
+        int lower = firstSlotAbove(market.firstComponent()) - 1;
+        int upper = lower + 1;
+        while (lower >= 0 || upper < size()) {
+            final boolean goLower = upper >= size()
+                || lower >= 0 && market.firstComponent() - firstComponent(projections, lower) < firstComponent(projections, upper) - market.firstComponent();
+            final int slot = goLower ? lower-- : upper++;
+            final double firstDifference = firstComponent(projections, slot) - market.firstComponent();
+            if (heap.isFull() && lowered(firstDifference * firstDifference) * toleranceFactor > heap.farthestSquaredDistance()) {
+                // vertices further along the first component are even farther
+                break;
+            }
+            if (!heap.isFull() || squaredLowerBound(slot, market) * toleranceFactor <= heap.farthestSquaredDistance()) {
+                heap.offer(sortedIndexes[slot], squaredDistance(sortedIndexes[slot], marketPositions));
+            }
+        }
+        return heap.sorted();
+    }
+
+    /**
+     * Only the vertices whose lower bound is within the radius have their exact distance computed, so that the
+     * vertices found are exactly the ones within the sphere.
+     *
+     * @return the indexes of the vertices found within the sphere, in increasing order, and their squared distances
+     */
+    VerticesIndex.SphereVertices withinSphere(final double[] marketPositions,
+                                              final double radius) {
+        final VerticesIndex.SphereVertices sphereVertices = new VerticesIndex.SphereVertices();
+        if (!(radius >= 0)) {
+            return sphereVertices;
+        }
+        final Market market = market(marketPositions);
+        final double squaredRadius = radius * radius;
+        final double reach = radius * (1 + LOWER_BOUND_TOLERANCE);
+        for (int slot = firstSlotAbove(market.firstComponent() - reach); slot < size() && firstComponent(projections, slot) <= market.firstComponent() + reach; slot++) {
+            if (squaredLowerBound(slot, market) <= squaredRadius) {
+                final double squaredDistance = squaredDistance(sortedIndexes[slot], marketPositions);
+                if (NearestVertices.isWithin(squaredDistance, radius, squaredRadius)) {
+                    sphereVertices.add(sortedIndexes[slot], squaredDistance);
+                }
+            }
+        }
+        sphereVertices.sortByIndex();
+        return sphereVertices;
+    }
+
+    /**
+     * @param candidates vertex indexes, in increasing order
+     * @return the indexes of the n candidates nearest to the market, nearest first
+     */
+    int[] rankExactly(final int[] candidates,
+                      final double[] marketPositions,
+                      final int n) {
+        final double[] squaredDistances = new double[candidates.length];
+        for (int c = 0; c < candidates.length; c++) {
+            squaredDistances[c] = squaredDistance(candidates[c], marketPositions);
+        }
+        return Arrays.stream(NearestVertices.nearest(squaredDistances, n)).map(c -> candidates[c]).toArray();
+    }
+
+    private Market market(final double[] marketPositions) {
+        final double[] centeredMarket = new double[hubCount];
+        for (int hub = 0; hub < hubCount; hub++) {
+            centeredMarket[hub] = weighted(marketPositions[hub], hub) - mean[hub];
+        }
+        final double[] marketProjection = new double[componentCount];
+        final double marketResidualNorm = project(centeredMarket, marketProjection, 0);
+        return new Market(marketProjection, marketResidualNorm);
+    }
+
+    /**
+     * The distance projected on the principal components, plus the difference of the norms of what they leave out
+     * (triangle inequality), is at most the distance.
+     */
+    private double squaredLowerBound(final int slot,
+                                     final Market market) {
+        final double residualDifference = residualNorms[slot] - market.residualNorm();
+        double sum = residualDifference * residualDifference;
+        for (int component = 0; component < componentCount; component++) {
+            final double difference = market.projection()[component] - projections[slot * componentCount + component];
+            sum += difference * difference;
+        }
+        return lowered(sum);
+    }
+
+    /**
+     * Lowers a squared lower bound a bit more, to absorb rounding errors.
+     */
+    private static double lowered(final double squaredLowerBound) {
+        return squaredLowerBound * (1 - LOWER_BOUND_TOLERANCE);
+    }
+
+    private double firstComponent(final double[] projectionsByComponent,
+                                  final int position) {
+        return componentCount == 0 ? 0 : projectionsByComponent[position * componentCount];
+    }
+
+    /**
+     * @return the first slot whose first component is at least the given value
+     */
+    private int firstSlotAbove(final double value) {
+        int low = 0;
+        int high = size();
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (firstComponent(projections, middle) < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Writes the projection of the centered weighted point on the components at {@code offset} of {@code target}.
+     *
+     * @return the norm of the residual, the part of the point the components leave out
+     */
+    private double project(final double[] centered,
+                           final double[] target,
+                           final int offset) {
+        final double[] residual = centered.clone();
+        for (int component = 0; component < componentCount; component++) {
+            double projection = 0;
+            for (int hub = 0; hub < hubCount; hub++) {
+                projection += components[component * hubCount + hub] * centered[hub];
+            }
+            target[offset + component] = projection;
+            for (int hub = 0; hub < hubCount; hub++) {
+                residual[hub] -= projection * components[component * hubCount + hub];
+            }
+        }
+        double squaredNorm = 0;
+        for (int hub = 0; hub < hubCount; hub++) {
+            squaredNorm += residual[hub] * residual[hub];
+        }
+        return Math.sqrt(squaredNorm);
+    }
+
+    private double weighted(final double coordinate,
+                            final int hub) {
+        return Math.sqrt(coefficients[hub]) * coordinate;
+    }
+
+    private double[] covariance(final int size) {
+        final double[] covariance = new double[hubCount * hubCount];
+        final double[] centered = new double[hubCount];
+        for (int index = 0; index < size; index++) {
+            for (int hub = 0; hub < hubCount; hub++) {
+                centered[hub] = weighted(coordinates[index * hubCount + hub], hub) - mean[hub];
+            }
+            for (int row = 0; row < hubCount; row++) {
+                for (int column = row; column < hubCount; column++) {
+                    covariance[row * hubCount + column] += centered[row] * centered[column];
+                }
+            }
+        }
+        for (int row = 0; row < hubCount; row++) {
+            for (int column = 0; column < row; column++) {
+                covariance[row * hubCount + column] = covariance[column * hubCount + row];
+            }
+        }
+        return covariance;
+    }
+
+    /**
+     * Diagonalizes the covariance matrix with cyclic Jacobi rotations.
+     *
+     * @return the kept eigenvectors, by decreasing eigenvalue
+     */
+    private PrincipalComponents principalComponents(final double[] covariance) {
+        final double[] eigenvectors = new double[hubCount * hubCount];
+        for (int hub = 0; hub < hubCount; hub++) {
+            eigenvectors[hub * hubCount + hub] = 1;
+        }
+        for (int sweep = 0; sweep < MAX_JACOBI_SWEEPS && offDiagonalNorm(covariance) > 0; sweep++) {
+            for (int p = 0; p < hubCount - 1; p++) {
+                for (int q = p + 1; q < hubCount; q++) {
+                    rotate(covariance, eigenvectors, p, q);
+                }
+            }
+        }
+        final Integer[] order = IntStream.range(0, hubCount).boxed().toArray(Integer[]::new);
+        Arrays.sort(order, (i, j) -> Double.compare(covariance[j * hubCount + j], covariance[i * hubCount + i]));
+        double totalVariance = 0;
+        for (int hub = 0; hub < hubCount; hub++) {
+            totalVariance += Math.max(covariance[hub * hubCount + hub], 0);
+        }
+        int kept = 0;
+        double keptVariance = 0;
+        // at least one component, to sort the vertices along
+        while (kept < hubCount && (kept == 0 || keptVariance < VARIANCE_SHARE * totalVariance)) {
+            keptVariance += Math.max(covariance[order[kept] * hubCount + order[kept]], 0);
+            kept++;
+        }
+        final double[] vectors = new double[kept * hubCount];
+        for (int component = 0; component < kept; component++) {
+            for (int hub = 0; hub < hubCount; hub++) {
+                // eigenvectors are stored as columns
+                vectors[component * hubCount + hub] = eigenvectors[hub * hubCount + order[component]];
+            }
+        }
+        return new PrincipalComponents(kept, vectors);
+    }
+
+    private double offDiagonalNorm(final double[] matrix) {
+        double sum = 0;
+        double diagonal = 0;
+        for (int row = 0; row < hubCount; row++) {
+            for (int column = 0; column < hubCount; column++) {
+                final double value = matrix[row * hubCount + column];
+                if (row == column) {
+                    diagonal += value * value;
+                } else {
+                    sum += value * value;
+                }
+            }
+        }
+        return sum > 1e-24 * diagonal ? sum : 0;
+    }
+
+    private void rotate(final double[] matrix,
+                        final double[] eigenvectors,
+                        final int p,
+                        final int q) {
+        final double apq = matrix[p * hubCount + q];
+        if (apq == 0) {
+            return;
+        }
+        final double theta = (matrix[q * hubCount + q] - matrix[p * hubCount + p]) / (2 * apq);
+        final double t = Math.signum(theta == 0 ? 1 : theta) / (Math.abs(theta) + Math.sqrt(theta * theta + 1));
+        final double c = 1 / Math.sqrt(t * t + 1);
+        final double s = t * c;
+        for (int k = 0; k < hubCount; k++) {
+            final double akp = matrix[k * hubCount + p];
+            final double akq = matrix[k * hubCount + q];
+            matrix[k * hubCount + p] = c * akp - s * akq;
+            matrix[k * hubCount + q] = s * akp + c * akq;
+        }
+        for (int k = 0; k < hubCount; k++) {
+            final double apk = matrix[p * hubCount + k];
+            final double aqk = matrix[q * hubCount + k];
+            matrix[p * hubCount + k] = c * apk - s * aqk;
+            matrix[q * hubCount + k] = s * apk + c * aqk;
+        }
+        for (int k = 0; k < hubCount; k++) {
+            final double vkp = eigenvectors[k * hubCount + p];
+            final double vkq = eigenvectors[k * hubCount + q];
+            eigenvectors[k * hubCount + p] = c * vkp - s * vkq;
+            eigenvectors[k * hubCount + q] = s * vkp + c * vkq;
+        }
+    }
+
+    /**
+     * Same formula and summation order as {@link VerticesSelector}, for bitwise identical distances.
+     */
+    private double squaredDistance(final int index,
+                                   final double[] marketPositions) {
+        double sumOfWeightedSquared = 0.0;
+        for (int hub = 0; hub < hubCount; hub++) {
+            final double distanceIn1D = marketPositions[hub] - coordinates[index * hubCount + hub];
+            sumOfWeightedSquared = sumOfWeightedSquared + coefficients[hub] * distanceIn1D * distanceIn1D;
+        }
+        return sumOfWeightedSquared;
+    }
+
+    /**
+     * Principal components, one vector of hub count values each.
+     */
+    private record PrincipalComponents(int count, double[] vectors) {
+    }
+
+    /**
+     * The market projected on the principal components, with the norm of what they leave out.
+     */
+    private record Market(double[] projection, double residualNorm) {
+        double firstComponent() {
+            return projection.length == 0 ? 0 : projection[0];
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa_core_valid_intraday.app.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Age eviction of the files of the local caches: a cache file is kept for a given duration after it was last written
+ * or read, the caches touching the files they read.
+ */
+final class CacheFiles {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CacheFiles.class);
+
+    private CacheFiles() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Marks a cache file as used now, so that its age starts over.
+     */
+    static void touch(final Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+        } catch (final IOException e) {
+            LOGGER.warn("Cannot touch cache file {}", file, e);
+        }
+    }
+
+    /**
+     * Deletes the files of the directory with the given extension that were not used for longer than the maximum
+     * age. Nothing is deleted when no positive maximum age is given.
+     */
+    static void evictOlderThan(final Path directory,
+                               final String extension,
+                               final Duration maxAge) {
+        if (maxAge == null || maxAge.isNegative() || maxAge.isZero()) {
+            return;
+        }
+        final FileTime oldestKept = FileTime.from(Instant.now().minus(maxAge));
+        try (final DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + extension)) {
+            for (final Path file : files) {
+                try {
+                    if (Files.getLastModifiedTime(file).compareTo(oldestKept) < 0) {
+                        Files.deleteIfExists(file);
+                    }
+                } catch (final IOException e) {
+                    // deleted meanwhile by another task, or left for the next eviction
+                    LOGGER.warn("Cannot evict cache file {}", file, e);
+                }
+            }
+        } catch (final IOException e) {
+            LOGGER.warn("Cannot list cache directory {}", directory, e);
+        }
+    }
+}
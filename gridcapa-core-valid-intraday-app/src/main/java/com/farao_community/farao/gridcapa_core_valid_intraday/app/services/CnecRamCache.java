@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa_core_valid_intraday.app.services;
+
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.FlowBasedDomainBranchData;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.NetPositionLimits;
+import com.farao_community.farao.gridcapa_core_valid_intraday.app.configuration.CnecRamCacheConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Keeps the interval index of CNEC RAM files in a local directory, see {@link CnecRamIndex}, under the SHA-256 of
+ * their content. The first task on a file indexes it in one scan; the following ones, for other timestamps of the same
+ * file, read the interval of their timestamp only, whatever the number of intervals in the file. Indexes not used for
+ * longer than the maximum age of the configuration are deleted whenever a new index is cached.
+ */
+@Service
+public class CnecRamCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CnecRamCache.class);
+    private static final String INDEX_FILE_EXTENSION = ".f645.index";
+
+    private final Path directory;
+    private final Duration maxAge;
+
+    public CnecRamCache(final CnecRamCacheConfiguration cnecRamCacheConfiguration) {
+        final String configuredDirectory = cnecRamCacheConfiguration.getDirectory();
+        this.directory = configuredDirectory == null || configuredDirectory.isBlank() ? null : Path.of(configuredDirectory);
+        this.maxAge = cnecRamCacheConfiguration.getMaxAge();
+    }
+
+    /**
+     * @see CnecRamImporter#importBranchData
+     */
+    public List<FlowBasedDomainBranchData> importBranchData(final InputStream cnecRamStream,
+                                                            final OffsetDateTime timestamp) {
+        return importInterval(cnecRamStream, timestamp, CnecRamImporter::importBranchData, CnecRamImporter::importIntervalBranchData);
+    }
+
+    /**
+     * @see CnecRamImporter#importNetPositionLimits
+     */
+    public NetPositionLimits importNetPositionLimits(final InputStream cnecRamStream,
+                                                     final OffsetDateTime timestamp) {
+        return importInterval(cnecRamStream, timestamp, CnecRamImporter::importNetPositionLimits, CnecRamImporter::importIntervalNetPositionLimits);
+    }
+
+    /**
+     * @see CnecRamImporter#importBranchDataByTimestamp(InputStream, ForkJoinPool)
+     */
+    public SortedMap<OffsetDateTime, List<FlowBasedDomainBranchData>> importBranchDataByTimestamp(final InputStream cnecRamStream,
+                                                                                                final ForkJoinPool pool) {
+        if (directory == null) {
+            return CnecRamImporter.importBranchDataByTimestamp(cnecRamStream, pool);
+        }
+        final byte[] content;
+        try {
+            content = cnecRamStream.readAllBytes();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        final CnecRamIndex index = index(content);
+        if (index == null) {
+            return CnecRamImporter.importBranchDataByTimestamp(new ByteArrayInputStream(content), pool);
+        }
+        return CnecRamImporter.importBranchDataByTimestamp(content, index, pool);
+    }
+
+    /**
+     * @param documentImporter reads the interval covering the timestamp out of the whole document
+     * @param intervalImporter reads the single interval of a document cut down by the index
+     */
+    private <T> T importInterval(final InputStream cnecRamStream,
+                                 final OffsetDateTime timestamp,
+                                 final BiFunction<InputStream, OffsetDateTime, T> documentImporter,
+                                 final Function<InputStream, T> intervalImporter) {
+        if (directory == null) {
+            return documentImporter.apply(cnecRamStream, timestamp);
+        }
+        final byte[] content;
+        try {
+            content = cnecRamStream.readAllBytes();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        final CnecRamIndex index = index(content);
+        final InputStream intervalDocument = index == null ? null : index.intervalDocument(content, timestamp);
+        if (intervalDocument == null) {
+            return documentImporter.apply(new ByteArrayInputStream(content), timestamp);
+        }
+        return intervalImporter.apply(intervalDocument);
+    }
+
+    /**
+     * @return the index of the content, read from the cache or built and cached, or null if the content cannot be indexed
+     */
+    private CnecRamIndex index(final byte[] content) {
+        final Path indexFile = directory.resolve(cacheKey(content) + INDEX_FILE_EXTENSION);
+        if (Files.isRegularFile(indexFile)) {
+            try {
+                final CnecRamIndex cached = CnecRamIndex.read(indexFile);
+                CacheFiles.touch(indexFile);
+                return cached;
+            } catch (final Exception e) {
+                LOGGER.warn("Cannot read cached CNEC RAM index {}, indexing file again", indexFile, e);
+            }
+        }
+        final CnecRamIndex index;
+        try {
+            index = CnecRamIndex.build(content);
+        } catch (final IllegalArgumentException e) {
+            LOGGER.warn("Cannot index CNEC RAM file, reading it whole", e);
+            return null;
+        }
+        try {
+            Files.createDirectories(directory);
+            index.write(indexFile);
+        } catch (final IOException e) {
+            LOGGER.warn("Cannot write cached CNEC RAM index {}", indexFile, e);
+        }
+        CacheFiles.evictOlderThan(directory, INDEX_FILE_EXTENSION, maxAge);
+        return index;
+    }
+
+    static String cacheKey(final byte[] content) {
+        return ContentHashes.sha256(content);
+    }
+}
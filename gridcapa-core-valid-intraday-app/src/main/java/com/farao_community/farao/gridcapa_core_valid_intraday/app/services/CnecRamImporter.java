@@ -6,29 +6,522 @@
  */
 package com.farao_community.farao.gridcapa_core_valid_intraday.app.services;
 
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.BranchDataSet;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.FlowBasedDomainBranchData;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.NetPositionLimits;
 import com.farao_community.farao.gridcapa_core_valid_intraday.api.exception.CoreValidIntradayInvalidDataException;
 import com.farao_community.gridcapa_core_valid_intraday.xsd.f645.FlowBasedDomainDocument;
 import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
 import jakarta.xml.bind.Unmarshaller;
 
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.LongStream;
+
+import static com.farao_community.farao.gridcapa_core_valid_intraday.app.services.StaxReaders.nextChild;
+import static com.farao_community.farao.gridcapa_core_valid_intraday.app.services.StaxReaders.skipElement;
 
 /**
  * @author Amira Kahya {@literal <amira.kahya at rte-france.com>}
  */
 public final class CnecRamImporter {
 
+    private static final JAXBContext JAXB_CONTEXT = initJaxbContext();
+    private static final XMLInputFactory XML_INPUT_FACTORY = StaxReaders.newXmlInputFactory();
+
     private CnecRamImporter() {
         // utility class
     }
 
     public static FlowBasedDomainDocument importCnecRam(final InputStream inputStream) {
         try {
-            final JAXBContext context = JAXBContext.newInstance(FlowBasedDomainDocument.class);
-            final Unmarshaller unmarshaller = context.createUnmarshaller();
+            final Unmarshaller unmarshaller = JAXB_CONTEXT.createUnmarshaller();
             return (FlowBasedDomainDocument) unmarshaller.unmarshal(inputStream);
         } catch (final Exception e) {
             throw new CoreValidIntradayInvalidDataException("Cannot unmarshal FlowBasedDomainDocument", e);
         }
     }
+
+    /**
+     * Reads the branches of the flow-based domain in force at the given timestamp, without building the document tree:
+     * intervals not covering the timestamp are skipped, as well as every element but the ids, RAM0core, AMR and PTDFs
+     * of the constraint results and the net position limits. Only the first flow-based domain of the interval having
+     * constraint results is read.
+     * <p>
+     * RAM0core and AMR are rounded to the nearest integer; an absent AMR is read as zero. PTDFs keep the exact
+     * decimal value written in the document, at the largest scale of the PTDFs of the domain, a hub without PTDF for
+     * a branch having a zero one. Constraint results without a critical branch are ignored.
+     *
+     * @return the branches of the domain, in the order of the document, as a {@link BranchDataSet} whose hubs are
+     * in the order they first appear in the domain
+     */
+    public static List<FlowBasedDomainBranchData> importBranchData(final InputStream inputStream,
+                                                                   final OffsetDateTime timestamp) {
+        return importDomain(inputStream, timestamp).branches();
+    }
+
+    /**
+     * Reads the net position limits of the flow-based domain in force at the given timestamp, that is of the domain
+     * {@link #importBranchData} reads the branches of, the same way. A limit is the net position of its hub at the
+     * vertex given with it; limits without such a coordinate are ignored.
+     *
+     * @return the limits of the domain, {@link NetPositionLimits#NONE} if it has none
+     */
+    public static NetPositionLimits importNetPositionLimits(final InputStream inputStream,
+                                                            final OffsetDateTime timestamp) {
+        return importDomain(inputStream, timestamp).netPositionLimits();
+    }
+
+    /**
+     * Reads the branches of the first interval of a document, as {@link #importBranchData} would for a timestamp
+     * covered by that interval. Meant for documents cut down to a single interval, see {@link CnecRamIndex}.
+     */
+    static List<FlowBasedDomainBranchData> importIntervalBranchData(final InputStream inputStream) {
+        return importIntervalDomain(inputStream).branches();
+    }
+
+    /**
+     * Reads the net position limits of the first interval of a document, as {@link #importNetPositionLimits} would
+     * for a timestamp covered by that interval.
+     */
+    static NetPositionLimits importIntervalNetPositionLimits(final InputStream inputStream) {
+        return importIntervalDomain(inputStream).netPositionLimits();
+    }
+
+    private static IntervalDomain importDomain(final InputStream inputStream,
+                                               final OffsetDateTime timestamp) {
+        final IntervalDomain domain;
+        try {
+            final XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(inputStream);
+            try {
+                domain = readDomain(reader, timestamp);
+            } finally {
+                reader.close();
+            }
+        } catch (final XMLStreamException | NumberFormatException | DateTimeParseException | ArithmeticException e) {
+            throw new CoreValidIntradayInvalidDataException("Cannot read FlowBasedDomainDocument", e);
+        }
+        if (domain == null) {
+            throw new CoreValidIntradayInvalidDataException(String.format("No interval of FlowBasedDomainDocument covers %s", timestamp));
+        }
+        return domain;
+    }
+
+    private static IntervalDomain importIntervalDomain(final InputStream inputStream) {
+        try {
+            final XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(inputStream);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT && "Interval".equals(reader.getLocalName())) {
+                        return readIntervalDomains(reader);
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (final XMLStreamException | NumberFormatException | ArithmeticException e) {
+            throw new CoreValidIntradayInvalidDataException("Cannot read FlowBasedDomainDocument", e);
+        }
+        throw new CoreValidIntradayInvalidDataException("No interval in FlowBasedDomainDocument");
+    }
+
+    /**
+     * Reads the branches of every interval of the document, each interval being parsed out of its slice of the
+     * document (see {@link CnecRamIndex}) as {@link #importBranchData} would for its start.
+     *
+     * @param pool pool in which the intervals are parsed in parallel, or null to parse them one after the other in the
+     *             calling thread
+     * @return the branches of each interval, by interval start, in UTC
+     */
+    public static SortedMap<OffsetDateTime, List<FlowBasedDomainBranchData>> importBranchDataByTimestamp(final InputStream inputStream,
+                                                                                                       final ForkJoinPool pool) {
+        final byte[] content;
+        try {
+            content = inputStream.readAllBytes();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        final CnecRamIndex index;
+        try {
+            index = CnecRamIndex.build(content);
+        } catch (final IllegalArgumentException e) {
+            throw new CoreValidIntradayInvalidDataException("Cannot read FlowBasedDomainDocument", e);
+        }
+        return importBranchDataByTimestamp(content, index, pool);
+    }
+
+    static SortedMap<OffsetDateTime, List<FlowBasedDomainBranchData>> importBranchDataByTimestamp(final byte[] content,
+                                                                                                final CnecRamIndex index,
+                                                                                                final ForkJoinPool pool) {
+        final List<List<FlowBasedDomainBranchData>> intervalsBranches;
+        if (pool == null) {
+            intervalsBranches = index.slices().stream()
+                    .map(slice -> importIntervalBranchData(index.intervalDocument(content, slice)))
+                    .toList();
+        } else {
+            final List<ForkJoinTask<List<FlowBasedDomainBranchData>>> tasks = index.slices().stream()
+                    .map(slice -> pool.submit(() -> importIntervalBranchData(index.intervalDocument(content, slice))))
+                    .toList();
+            intervalsBranches = tasks.stream().map(ForkJoinTask::join).toList();
+        }
+        final SortedMap<OffsetDateTime, List<FlowBasedDomainBranchData>> branchesByTimestamp = new TreeMap<>();
+        for (int i = 0; i < intervalsBranches.size(); i++) {
+            // as for a single timestamp, the first interval covering it wins
+            branchesByTimestamp.putIfAbsent(OffsetDateTime.ofInstant(index.slices().get(i).start(), ZoneOffset.UTC), intervalsBranches.get(i));
+        }
+        return Collections.unmodifiableSortedMap(branchesByTimestamp);
+    }
+
+    private static IntervalDomain readDomain(final XMLStreamReader reader,
+                                             final OffsetDateTime timestamp) throws XMLStreamException {
+        while (reader.hasNext()) {
+            if (reader.next() == XMLStreamConstants.START_ELEMENT && "Period".equals(reader.getLocalName())) {
+                final IntervalDomain domain = readPeriod(reader, timestamp);
+                if (domain != null) {
+                    return domain;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the domain of the interval of the period covering the timestamp, or null if there is none
+     */
+    private static IntervalDomain readPeriod(final XMLStreamReader reader,
+                                             final OffsetDateTime timestamp) throws XMLStreamException {
+        OffsetDateTime periodStart = null;
+        Duration resolution = null;
+        IntervalDomain domain = null;
+        while (nextChild(reader)) {
+            switch (reader.getLocalName()) {
+                case "TimeInterval" -> periodStart = OffsetDateTime.parse(reader.getAttributeValue(null, "v").split("/")[0].strip());
+                case "Resolution" -> resolution = Duration.parse(reader.getAttributeValue(null, "v").strip());
+                case "Interval" -> {
+                    if (domain == null && periodStart != null && resolution != null) {
+                        domain = readInterval(reader, periodStart, resolution, timestamp);
+                        continue;
+                    }
+                }
+                default -> {
+                    // not needed
+                }
+            }
+            skipElement(reader);
+        }
+        return domain;
+    }
+
+    /**
+     * @return the domain of the interval if it covers the timestamp, or null otherwise
+     */
+    private static IntervalDomain readInterval(final XMLStreamReader reader,
+                                               final OffsetDateTime periodStart,
+                                               final Duration resolution,
+                                               final OffsetDateTime timestamp) throws XMLStreamException {
+        if (!nextChild(reader)) {
+            return null;
+        }
+        if (!"Pos".equals(reader.getLocalName())) {
+            skipElement(reader);
+            skipElement(reader);
+            return null;
+        }
+        final long position = Long.parseLong(reader.getAttributeValue(null, "v").strip());
+        skipElement(reader);
+        final OffsetDateTime intervalStart = periodStart.plus(resolution.multipliedBy(position - 1));
+        if (timestamp.isBefore(intervalStart) || !timestamp.isBefore(intervalStart.plus(resolution))) {
+            skipElement(reader);
+            return null;
+        }
+        return readIntervalDomains(reader);
+    }
+
+    /**
+     * Reads the flow-based domains of an interval, its position being already read or skipped.
+     */
+    private static IntervalDomain readIntervalDomains(final XMLStreamReader reader) throws XMLStreamException {
+        final DomainBranches branches = new DomainBranches();
+        NetPositionLimits netPositionLimits = NetPositionLimits.NONE;
+        while (nextChild(reader)) {
+            if (branches.isEmpty() && "FlowBasedDomain".equals(reader.getLocalName())) {
+                netPositionLimits = readFlowBasedDomain(reader, branches);
+            } else {
+                skipElement(reader);
+            }
+        }
+        return new IntervalDomain(branches.build(), netPositionLimits);
+    }
+
+    /**
+     * @return the net position limits of the domain
+     */
+    private static NetPositionLimits readFlowBasedDomain(final XMLStreamReader reader,
+                                                         final DomainBranches branches) throws XMLStreamException {
+        final Map<String, Double> minNetPositions = new HashMap<>();
+        final Map<String, Double> maxNetPositions = new HashMap<>();
+        while (nextChild(reader)) {
+            switch (reader.getLocalName()) {
+                case "constraintResults" -> {
+                    while (nextChild(reader)) {
+                        if ("constraintResult".equals(reader.getLocalName())) {
+                            readConstraintResult(reader, branches);
+                        } else {
+                            skipElement(reader);
+                        }
+                    }
+                }
+                case "limitNetPositions" -> {
+                    while (nextChild(reader)) {
+                        if ("limitnetposition".equals(reader.getLocalName())) {
+                            readLimitNetPosition(reader, minNetPositions, maxNetPositions);
+                        } else {
+                            skipElement(reader);
+                        }
+                    }
+                }
+                default -> skipElement(reader);
+            }
+        }
+        return minNetPositions.isEmpty() && maxNetPositions.isEmpty()
+            ? NetPositionLimits.NONE
+            : new NetPositionLimits(minNetPositions, maxNetPositions);
+    }
+
+    private static void readLimitNetPosition(final XMLStreamReader reader,
+                                             final Map<String, Double> minNetPositions,
+                                             final Map<String, Double> maxNetPositions) throws XMLStreamException {
+        final Map<String, Double> coordinates = new HashMap<>();
+        String type = null;
+        String hub = null;
+        while (nextChild(reader)) {
+            switch (reader.getLocalName()) {
+                case "coordinates" -> {
+                    while (nextChild(reader)) {
+                        if ("coordinate".equals(reader.getLocalName())) {
+                            readCoordinate(reader, coordinates);
+                        } else {
+                            skipElement(reader);
+                        }
+                    }
+                }
+                case "type" -> type = reader.getElementText().strip();
+                case "hub" -> {
+                    hub = reader.getAttributeValue(null, "name");
+                    skipElement(reader);
+                }
+                default -> skipElement(reader);
+            }
+        }
+        final Double netPosition = coordinates.get(hub);
+        if (netPosition != null && "MIN".equals(type)) {
+            minNetPositions.put(hub, netPosition);
+        } else if (netPosition != null && "MAX".equals(type)) {
+            maxNetPositions.put(hub, netPosition);
+        }
+    }
+
+    private static void readCoordinate(final XMLStreamReader reader,
+                                       final Map<String, Double> coordinates) throws XMLStreamException {
+        String hub = null;
+        Double value = null;
+        while (nextChild(reader)) {
+            switch (reader.getLocalName()) {
+                case "hub" -> {
+                    hub = reader.getAttributeValue(null, "name");
+                    skipElement(reader);
+                }
+                case "value" -> value = Double.valueOf(reader.getElementText().strip());
+                default -> skipElement(reader);
+            }
+        }
+        if (hub != null && value != null) {
+            coordinates.put(hub, value);
+        }
+    }
+
+    private static void readConstraintResult(final XMLStreamReader reader,
+                                             final DomainBranches branches) throws XMLStreamException {
+        final String id = reader.getAttributeValue(null, "id");
+        boolean hasCriticalBranch = false;
+        String ram0Core = null;
+        String amr = null;
+        while (nextChild(reader)) {
+            switch (reader.getLocalName()) {
+                case "criticalBranch" -> {
+                    hasCriticalBranch = true;
+                    while (nextChild(reader)) {
+                        switch (reader.getLocalName()) {
+                            case "RAM0core" -> ram0Core = reader.getElementText();
+                            case "amr" -> amr = reader.getElementText();
+                            default -> skipElement(reader);
+                        }
+                    }
+                }
+                case "ptdfs" -> {
+                    while (nextChild(reader)) {
+                        if ("ptdf".equals(reader.getLocalName())) {
+                            readPtdf(reader, branches);
+                        } else {
+                            skipElement(reader);
+                        }
+                    }
+                }
+                default -> skipElement(reader);
+            }
+        }
+        if (hasCriticalBranch) {
+            if (ram0Core == null) {
+                throw new CoreValidIntradayInvalidDataException(String.format("Missing RAM0core for constraint result %s", id));
+            }
+            branches.addBranch(id, roundedInt(ram0Core), amr == null ? 0 : roundedInt(amr));
+        } else {
+            branches.discardPtdfs();
+        }
+    }
+
+    private static void readPtdf(final XMLStreamReader reader,
+                                 final DomainBranches branches) throws XMLStreamException {
+        String hub = null;
+        BigDecimal value = null;
+        while (nextChild(reader)) {
+            switch (reader.getLocalName()) {
+                case "hub" -> {
+                    hub = reader.getAttributeValue(null, "name");
+                    skipElement(reader);
+                }
+                case "value" -> value = new BigDecimal(reader.getElementText().strip());
+                default -> skipElement(reader);
+            }
+        }
+        if (hub != null && value != null) {
+            branches.addPtdf(hub, value);
+        }
+    }
+
+    private static int roundedInt(final String value) {
+        return Math.round(Float.parseFloat(value.strip()));
+    }
+
+    private static JAXBContext initJaxbContext() {
+        try {
+            return JAXBContext.newInstance(FlowBasedDomainDocument.class);
+        } catch (JAXBException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * What is read of the flow-based domain of an interval.
+     */
+    private record IntervalDomain(List<FlowBasedDomainBranchData> branches,
+                                  NetPositionLimits netPositionLimits) {
+    }
+
+    /**
+     * Branches of a flow-based domain being read, kept in primitive columns until the domain is read and its hubs and
+     * the largest scale of its PTDFs are known, then turned into a {@link BranchDataSet}. The PTDFs of the branch
+     * being read are pending until it is added or discarded.
+     */
+    private static final class DomainBranches {
+        private static final int INITIAL_CAPACITY = 1024;
+        private static final long[] POWERS_OF_TEN = LongStream.iterate(1, power -> power * 10).limit(BranchDataSet.MAX_PTDF_SCALE + 1L).toArray();
+
+        private final Map<String, Integer> hubOrdinals = new LinkedHashMap<>();
+        private final List<String> ids = new ArrayList<>();
+        private int[] ram0Cores = new int[INITIAL_CAPACITY];
+        private int[] amrs = new int[INITIAL_CAPACITY];
+        private int[] ptdfEnds = new int[INITIAL_CAPACITY];
+        private int[] ptdfHubs = new int[INITIAL_CAPACITY];
+        private long[] unscaledPtdfs = new long[INITIAL_CAPACITY];
+        private int[] ptdfScales = new int[INITIAL_CAPACITY];
+        private int ptdfCount;
+        private int maxPtdfScale;
+
+        boolean isEmpty() {
+            return ids.isEmpty();
+        }
+
+        /**
+         * @throws ArithmeticException if the PTDF cannot be kept exactly in a long at a supported scale
+         */
+        void addPtdf(final String hub, final BigDecimal value) {
+            final BigDecimal ptdf = value.scale() < 0 ? value.setScale(0) : value;
+            if (ptdf.scale() > BranchDataSet.MAX_PTDF_SCALE) {
+                throw new ArithmeticException("PTDF %s of hub %s has more than %d decimals".formatted(value, hub, BranchDataSet.MAX_PTDF_SCALE));
+            }
+            if (ptdfCount == ptdfHubs.length) {
+                final int capacity = ptdfCount + (ptdfCount >> 1);
+                ptdfHubs = Arrays.copyOf(ptdfHubs, capacity);
+                unscaledPtdfs = Arrays.copyOf(unscaledPtdfs, capacity);
+                ptdfScales = Arrays.copyOf(ptdfScales, capacity);
+            }
+            ptdfHubs[ptdfCount] = hubOrdinals.computeIfAbsent(hub, name -> hubOrdinals.size());
+            unscaledPtdfs[ptdfCount] = ptdf.unscaledValue().longValueExact();
+            ptdfScales[ptdfCount] = ptdf.scale();
+            maxPtdfScale = Math.max(maxPtdfScale, ptdf.scale());
+            ptdfCount++;
+        }
+
+        /**
+         * Adds a branch with the pending PTDFs.
+         */
+        void addBranch(final String id, final int ram0Core, final int amr) {
+            final int size = ids.size();
+            if (size == ram0Cores.length) {
+                final int capacity = size + (size >> 1);
+                ram0Cores = Arrays.copyOf(ram0Cores, capacity);
+                amrs = Arrays.copyOf(amrs, capacity);
+                ptdfEnds = Arrays.copyOf(ptdfEnds, capacity);
+            }
+            ids.add(id);
+            ram0Cores[size] = ram0Core;
+            amrs[size] = amr;
+            ptdfEnds[size] = ptdfCount;
+        }
+
+        void discardPtdfs() {
+            ptdfCount = ids.isEmpty() ? 0 : ptdfEnds[ids.size() - 1];
+        }
+
+        /**
+         * @throws ArithmeticException if a PTDF cannot be kept in a long at the largest scale
+         */
+        BranchDataSet build() {
+            final BranchDataSet.Builder builder = new BranchDataSet.Builder(List.copyOf(hubOrdinals.keySet()), maxPtdfScale);
+            final long[] row = new long[hubOrdinals.size()];
+            int ptdf = 0;
+            for (int branch = 0; branch < ids.size(); branch++) {
+                Arrays.fill(row, 0);
+                for (; ptdf < ptdfEnds[branch]; ptdf++) {
+                    // as in a map, the last PTDF of a hub wins
+                    row[ptdfHubs[ptdf]] = Math.multiplyExact(unscaledPtdfs[ptdf], POWERS_OF_TEN[maxPtdfScale - ptdfScales[ptdf]]);
+                }
+                builder.add(ids.get(branch), ram0Cores[branch], amrs[branch], row);
+            }
+            return builder.build();
+        }
+    }
 }
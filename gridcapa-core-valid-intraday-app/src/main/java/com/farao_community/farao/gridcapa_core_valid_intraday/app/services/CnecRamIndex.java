@@ -0,0 +1,327 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa_core_valid_intraday.app.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Byte offsets of the intervals of a flow-based domain document, so that the domain in force at a timestamp can be
+ * read out of its interval alone instead of the whole document.
+ * <p>
+ * The index is built by a single scan over the bytes of the document, looking for the tags of the periods and
+ * intervals without parsing anything else. A slice is then read as the document prolog up to the root start tag,
+ * the bytes of the interval, and the root end tag, which keeps namespace declarations and encoding in force.
+ */
+final class CnecRamIndex {
+
+    private static final int MAGIC = 0x46363435;
+    private static final int VERSION = 1;
+
+    private final int prologLength;
+    private final String rootName;
+    private final List<Slice> slices;
+
+    private CnecRamIndex(final int prologLength,
+                         final String rootName,
+                         final List<Slice> slices) {
+        this.prologLength = prologLength;
+        this.rootName = rootName;
+        this.slices = slices;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the document is not well-formed enough to be indexed
+     */
+    static CnecRamIndex build(final byte[] content) {
+        final Scanner scanner;
+        try {
+            scanner = new Scanner(content);
+        } catch (final DateTimeException e) {
+            throw new IllegalArgumentException("Invalid period of flow-based domain document", e);
+        }
+        return new CnecRamIndex(scanner.prologLength, scanner.rootName, Collections.unmodifiableList(scanner.slices));
+    }
+
+    static CnecRamIndex read(final Path path) throws IOException {
+        try (final DataInputStream input = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(path)))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                throw new IOException(String.format("%s is not a CNEC RAM index", path));
+            }
+            final int prologLength = input.readInt();
+            final String rootName = input.readUTF();
+            final int size = input.readInt();
+            final List<Slice> slices = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                slices.add(new Slice(Instant.ofEpochSecond(input.readLong()), Instant.ofEpochSecond(input.readLong()), input.readInt(), input.readInt()));
+            }
+            return new CnecRamIndex(prologLength, rootName, Collections.unmodifiableList(slices));
+        }
+    }
+
+    /**
+     * Writes the index to a temporary file first, then moves it atomically to the target path.
+     */
+    void write(final Path path) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeInt(prologLength);
+            output.writeUTF(rootName);
+            output.writeInt(slices.size());
+            for (final Slice slice : slices) {
+                output.writeLong(slice.start().getEpochSecond());
+                output.writeLong(slice.end().getEpochSecond());
+                output.writeInt(slice.offset());
+                output.writeInt(slice.length());
+            }
+        }
+        final Path temporaryFile = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temporaryFile, bytes.toByteArray());
+            Files.move(temporaryFile, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    List<Slice> slices() {
+        return slices;
+    }
+
+    /**
+     * @return the document cut down to the first interval covering the timestamp, or null if there is none
+     */
+    InputStream intervalDocument(final byte[] content,
+                                 final OffsetDateTime timestamp) {
+        final Instant instant = timestamp.toInstant();
+        for (final Slice slice : slices) {
+            if (!instant.isBefore(slice.start()) && instant.isBefore(slice.end())) {
+                return intervalDocument(content, slice);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the document cut down to the interval of the slice
+     */
+    InputStream intervalDocument(final byte[] content,
+                                 final Slice slice) {
+        return new SequenceInputStream(Collections.enumeration(List.of(
+                new ByteArrayInputStream(content, 0, prologLength),
+                new ByteArrayInputStream(content, slice.offset(), slice.length()),
+                new ByteArrayInputStream(("</" + rootName + ">").getBytes(UTF_8))
+        )));
+    }
+
+    /**
+     * An interval, covering [start, end), and its bytes in the document.
+     */
+    record Slice(Instant start, Instant end, int offset, int length) {
+    }
+
+    /**
+     * Single pass over the tags of a document, skipping comments, CDATA sections, processing instructions
+     * and declarations, and keeping track of the periods and intervals.
+     */
+    private static final class Scanner {
+        private final byte[] content;
+        private final List<Slice> slices = new ArrayList<>();
+        private int prologLength = -1;
+        private String rootName;
+        private Instant periodStart;
+        private Duration resolution;
+        private int intervalOffset = -1;
+        private long position;
+
+        Scanner(final byte[] content) {
+            this.content = content;
+            int i = indexOf(content, "<", 0);
+            while (i >= 0) {
+                if (startsWith(i, "<!--")) {
+                    i = endOf(i, "-->");
+                } else if (startsWith(i, "<![CDATA[")) {
+                    i = endOf(i, "]]>");
+                } else if (startsWith(i, "<?")) {
+                    i = endOf(i, "?>");
+                } else if (startsWith(i, "<!")) {
+                    i = endOf(i, ">");
+                } else if (startsWith(i, "</")) {
+                    final int tagEnd = tagEnd(i);
+                    if (isLocalName(i + 2, nameEnd(i + 2), "Interval") && intervalOffset >= 0) {
+                        addSlice(tagEnd);
+                    }
+                    i = tagEnd;
+                } else {
+                    i = startTag(i);
+                }
+                i = indexOf(content, "<", i);
+            }
+            if (rootName == null) {
+                throw new IllegalArgumentException("No root element");
+            }
+        }
+
+        /**
+         * @return the offset following the start tag
+         */
+        private int startTag(final int tagStart) {
+            final int nameEnd = nameEnd(tagStart + 1);
+            final int tagEnd = tagEnd(tagStart);
+            if (rootName == null) {
+                rootName = new String(content, tagStart + 1, nameEnd - tagStart - 1, UTF_8);
+                prologLength = tagEnd;
+            } else if (isLocalName(tagStart + 1, nameEnd, "TimeInterval")) {
+                periodStart = OffsetDateTime.parse(valueAttribute(nameEnd, tagEnd).split("/")[0].strip()).toInstant();
+            } else if (isLocalName(tagStart + 1, nameEnd, "Resolution")) {
+                resolution = Duration.parse(valueAttribute(nameEnd, tagEnd).strip());
+            } else if (isLocalName(tagStart + 1, nameEnd, "Interval") && content[tagEnd - 2] != '/') {
+                intervalOffset = tagStart;
+                position = 0;
+            } else if (isLocalName(tagStart + 1, nameEnd, "Pos") && intervalOffset >= 0) {
+                position = Long.parseLong(valueAttribute(nameEnd, tagEnd).strip());
+            }
+            return tagEnd;
+        }
+
+        private void addSlice(final int intervalEnd) {
+            if (periodStart != null && resolution != null && position > 0) {
+                final Instant start = periodStart.plus(resolution.multipliedBy(position - 1));
+                slices.add(new Slice(start, start.plus(resolution), intervalOffset, intervalEnd - intervalOffset));
+            }
+            intervalOffset = -1;
+        }
+
+        private String valueAttribute(final int from,
+                                      final int tagEnd) {
+            int i = from;
+            while (i < tagEnd) {
+                while (i < tagEnd && isWhitespace(content[i])) {
+                    i++;
+                }
+                final int attributeNameEnd = nameEnd(i);
+                int equals = attributeNameEnd;
+                while (equals < tagEnd && content[equals] != '=') {
+                    equals++;
+                }
+                int quote = equals + 1;
+                while (quote < tagEnd && content[quote] != '"' && content[quote] != '\'') {
+                    quote++;
+                }
+                if (quote >= tagEnd) {
+                    break;
+                }
+                final int valueEnd = indexOf(content, content[quote] == '"' ? "\"" : "'", quote + 1);
+                if (attributeNameEnd - i == 1 && content[i] == 'v') {
+                    return new String(content, quote + 1, valueEnd - quote - 1, UTF_8);
+                }
+                i = valueEnd + 1;
+            }
+            throw new IllegalArgumentException(String.format("Missing v attribute at offset %d", from));
+        }
+
+        private boolean isLocalName(final int nameStart,
+                                    final int nameEnd,
+                                    final String localName) {
+            final int localStart = nameEnd - localName.length();
+            return localStart >= nameStart
+                && (localStart == nameStart || content[localStart - 1] == ':')
+                && startsWith(localStart, localName);
+        }
+
+        private int nameEnd(final int nameStart) {
+            int i = nameStart;
+            while (i < content.length && !isWhitespace(content[i]) && content[i] != '>' && content[i] != '/' && content[i] != '=') {
+                i++;
+            }
+            return i;
+        }
+
+        /**
+         * @return the offset following the closing bracket of the tag, ignoring brackets in quoted attribute values
+         */
+        private int tagEnd(final int tagStart) {
+            byte quote = 0;
+            for (int i = tagStart + 1; i < content.length; i++) {
+                final byte b = content[i];
+                if (quote != 0) {
+                    if (b == quote) {
+                        quote = 0;
+                    }
+                } else if (b == '"' || b == '\'') {
+                    quote = b;
+                } else if (b == '>') {
+                    return i + 1;
+                }
+            }
+            throw new IllegalArgumentException(String.format("Unterminated tag at offset %d", tagStart));
+        }
+
+        private int endOf(final int from,
+                          final String terminator) {
+            final int i = indexOf(content, terminator, from);
+            if (i < 0) {
+                throw new IllegalArgumentException(String.format("Unterminated markup at offset %d", from));
+            }
+            return i + terminator.length();
+        }
+
+        private boolean startsWith(final int offset,
+                                   final String prefix) {
+            if (offset + prefix.length() > content.length) {
+                return false;
+            }
+            for (int i = 0; i < prefix.length(); i++) {
+                if (content[offset + i] != prefix.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean isWhitespace(final byte b) {
+            return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+        }
+
+        private static int indexOf(final byte[] content,
+                                   final String target,
+                                   final int from) {
+            final byte first = (byte) target.charAt(0);
+            for (int i = from; i <= content.length - target.length(); i++) {
+                if (content[i] == first) {
+                    int j = 1;
+                    while (j < target.length() && content[i + j] == target.charAt(j)) {
+                        j++;
+                    }
+                    if (j == target.length()) {
+                        return i;
+                    }
+                }
+            }
+            return -1;
+        }
+    }
+}
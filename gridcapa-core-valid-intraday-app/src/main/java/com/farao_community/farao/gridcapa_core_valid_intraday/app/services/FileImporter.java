@@ -8,6 +8,8 @@ package com.farao_community.farao.gridcapa_core_valid_intraday.app.services;
 
 import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.CoreHub;
 import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.CoreHubsConfiguration;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.FlowBasedDomainBranchData;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.NetPositionLimits;
 import com.farao_community.farao.gridcapa_core_valid_commons.vertex.Vertex;
 import com.farao_community.farao.gridcapa_core_valid_commons.vertex.VerticesUtils;
 import com.farao_community.farao.gridcapa_core_valid_intraday.api.exception.CoreValidIntradayInvalidDataException;
@@ -33,6 +35,9 @@ import java.net.URISyntaxException;
 import java.time.OffsetDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.SortedMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 /**
@@ -43,11 +48,20 @@ import java.util.function.Function;
 public class FileImporter {
     private final List<CoreHub> coreHubs;
     private final UrlValidationService urlValidationService;
+    private final VerticesCache verticesCache;
+    private final CnecRamCache cnecRamCache;
+    private final AggregatedScheduleCache aggregatedScheduleCache;
 
     public FileImporter(final UrlValidationService urlValidationService,
-                        final CoreHubsConfiguration coreHubsConfiguration) {
+                        final CoreHubsConfiguration coreHubsConfiguration,
+                        final VerticesCache verticesCache,
+                        final CnecRamCache cnecRamCache,
+                        final AggregatedScheduleCache aggregatedScheduleCache) {
         this.coreHubs = Collections.unmodifiableList(coreHubsConfiguration.getCoreHubs());
         this.urlValidationService = urlValidationService;
+        this.verticesCache = verticesCache;
+        this.cnecRamCache = cnecRamCache;
+        this.aggregatedScheduleCache = aggregatedScheduleCache;
     }
 
     public ReferenceProgram importReferenceProgram(final CoreValidIntradayFileResource refProgFile,
@@ -60,7 +74,18 @@ public class FileImporter {
     }
 
     public List<Vertex> importVertices(final CoreValidIntradayFileResource verticesFile) {
-        return importFile(verticesFile, is -> VerticesUtils.importVertices(is, coreHubs));
+        return importFile(verticesFile, is -> verticesCache.importVertices(is, coreHubs));
+    }
+
+    /**
+     * Hands each vertex to the consumer as soon as it is read, while the file is still being downloaded,
+     * so that vertices can be projected and filtered without keeping the whole file in memory.
+     *
+     * @return the number of vertices read
+     */
+    public long importVertices(final CoreValidIntradayFileResource verticesFile,
+                               final Consumer<Vertex> vertexConsumer) {
+        return importFile(verticesFile, is -> VerticesUtils.forEachVertex(is, coreHubs, vertexConsumer));
     }
 
     public GlskDocument importGlskFile(final CoreValidIntradayFileResource glskFile) {
@@ -71,6 +96,18 @@ public class FileImporter {
         return importFile(cnecRamFile, CnecRamImporter::importCnecRam);
     }
 
+    public List<FlowBasedDomainBranchData> importCnecRamBranchData(final CoreValidIntradayFileResource cnecRamFile, final OffsetDateTime targetProcessDateTime) {
+        return importFile(cnecRamFile, is -> cnecRamCache.importBranchData(is, targetProcessDateTime));
+    }
+
+    public NetPositionLimits importCnecRamNetPositionLimits(final CoreValidIntradayFileResource cnecRamFile, final OffsetDateTime targetProcessDateTime) {
+        return importFile(cnecRamFile, is -> cnecRamCache.importNetPositionLimits(is, targetProcessDateTime));
+    }
+
+    public SortedMap<OffsetDateTime, List<FlowBasedDomainBranchData>> importCnecRamBranchDataByTimestamp(final CoreValidIntradayFileResource cnecRamFile, final ForkJoinPool pool) {
+        return importFile(cnecRamFile, is -> cnecRamCache.importBranchDataByTimestamp(is, pool));
+    }
+
     public FbConstraintCreationContext importMergedCnec(final CoreValidIntradayFileResource mergedCnecFile,  final Network network, final OffsetDateTime targetProcessDateTime) {
         final CracCreationParameters cracCreationParameters = new CracCreationParameters();
         cracCreationParameters.addExtension(FbConstraintCracCreationParameters.class, new FbConstraintCracCreationParameters());
@@ -79,7 +116,11 @@ public class FileImporter {
     }
 
     public BigDecimal importAggregatedScheduleFile(final CoreValidIntradayFileResource aggregatedScheduleFile, final OffsetDateTime targetProcessDateTime) {
-        return importFile(aggregatedScheduleFile, is -> AggregatedScheduleImporter.calculateFrenchNetPositionFromScheduleMarketDocument(is, targetProcessDateTime));
+        return importFile(aggregatedScheduleFile, is -> aggregatedScheduleCache.importFrenchNetPosition(is, targetProcessDateTime));
+    }
+
+    public ScheduleNetPositions importAggregatedScheduleNetPositions(final CoreValidIntradayFileResource aggregatedScheduleFile) {
+        return importFile(aggregatedScheduleFile, aggregatedScheduleCache::importNetPositions);
     }
 
     public <T> T importFile(final CoreValidIntradayFileResource file,
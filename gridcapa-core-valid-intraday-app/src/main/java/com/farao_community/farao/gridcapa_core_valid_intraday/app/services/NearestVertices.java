@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa_core_valid_intraday.app.services;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Top-k selection over squared distances held in primitive arrays, with bounded max-heaps of vertex indexes.
+ * <p>
+ * Vertices are ordered by distance, then by index, exactly as a stable sort on {@code Math.sqrt} of the squared
+ * distances would: square roots are only compared when two squared distances are close enough to share one.
+ * Large inputs are split into chunks whose heaps are filled in parallel, then merged.
+ */
+final class NearestVertices {
+
+    static final int PARALLEL_THRESHOLD = 1 << 15;
+    private static final int SQRT_COLLISION_ULPS = 8;
+
+    private NearestVertices() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * @param squaredDistances the squared distance of each vertex
+     * @param n                how many vertices to select
+     * @return the indexes of the n nearest vertices, nearest first
+     */
+    static int[] nearest(final double[] squaredDistances,
+                         final int n) {
+        return nearest(squaredDistances, null, squaredDistances.length, n);
+    }
+
+    /**
+     * @param candidates the indexes of the vertices to select from, in increasing order
+     * @return the indexes of the n nearest candidates, nearest first
+     */
+    static int[] nearest(final double[] squaredDistances,
+                         final int[] candidates,
+                         final int n) {
+        return nearest(squaredDistances, candidates, candidates.length, n);
+    }
+
+    /**
+     * Whether a vertex is within the sphere, exactly as {@code Math.sqrt(squaredDistance) <= radius},
+     * the square root being taken only near the boundary.
+     */
+    static boolean isWithin(final double squaredDistance,
+                            final double radius,
+                            final double squaredRadius) {
+        if (!(radius >= 0)) {
+            return false;
+        }
+        final double margin = Math.ulp(squaredRadius) * SQRT_COLLISION_ULPS;
+        if (squaredDistance < squaredRadius - margin) {
+            return true;
+        } else if (squaredDistance > squaredRadius + margin) {
+            return false;
+        }
+        return Math.sqrt(squaredDistance) <= radius;
+    }
+
+    private static int[] nearest(final double[] squaredDistances,
+                                 final int[] candidates,
+                                 final int candidateCount,
+                                 final int n) {
+        final int k = Math.clamp(n, 0, candidateCount);
+        final BoundedHeap merged;
+        if (candidateCount < PARALLEL_THRESHOLD || k == 0) {
+            merged = new BoundedHeap(k);
+            for (int c = 0; c < candidateCount; c++) {
+                final int index = candidates == null ? c : candidates[c];
+                merged.offer(index, squaredDistances[index]);
+            }
+        } else {
+            final int chunkCount = Math.min(candidateCount / (PARALLEL_THRESHOLD / 2), 4 * Runtime.getRuntime().availableProcessors());
+            final BoundedHeap[] heaps = new BoundedHeap[chunkCount];
+            IntStream.range(0, chunkCount).parallel().forEach(chunk -> {
+                final BoundedHeap heap = new BoundedHeap(k);
+                final int to = (int) ((long) candidateCount * (chunk + 1) / chunkCount);
+                for (int c = (int) ((long) candidateCount * chunk / chunkCount); c < to; c++) {
+                    final int index = candidates == null ? c : candidates[c];
+                    heap.offer(index, squaredDistances[index]);
+                }
+                heaps[chunk] = heap;
+            });
+            merged = new BoundedHeap(k);
+            for (final BoundedHeap heap : heaps) {
+                for (int i = 0; i < heap.size; i++) {
+                    merged.offer(heap.indexes[i], heap.squaredDistances[i]);
+                }
+            }
+        }
+        return merged.sorted();
+    }
+
+    /**
+     * @return a negative value if vertex i, at squared distance di, comes before vertex j, at squared distance dj
+     */
+    private static int compare(final double di,
+                               final int i,
+                               final double dj,
+                               final int j) {
+        if (di != dj) {
+            if (Math.abs(di - dj) > Math.ulp(Math.max(di, dj)) * SQRT_COLLISION_ULPS) {
+                return di < dj ? -1 : 1;
+            }
+            final int bySqrt = Double.compare(Math.sqrt(di), Math.sqrt(dj));
+            if (bySqrt != 0) {
+                return bySqrt;
+            }
+        }
+        return Integer.compare(i, j);
+    }
+
+    /**
+     * Max-heap of at most k vertex indexes with their squared distances, whose root is the farthest kept vertex.
+     */
+    static final class BoundedHeap {
+        private final int[] indexes;
+        private final double[] squaredDistances;
+        private int size;
+
+        BoundedHeap(final int capacity) {
+            this.indexes = new int[capacity];
+            this.squaredDistances = new double[capacity];
+        }
+
+        boolean isFull() {
+            return size == indexes.length;
+        }
+
+        /**
+         * Must only be called on a full heap.
+         */
+        double farthestSquaredDistance() {
+            return squaredDistances[0];
+        }
+
+        /**
+         * @return the index that is not kept because of this offer: the farthest kept one, evicted, or the offered one,
+         * rejected, or -1 if the heap was not full
+         */
+        int offer(final int index,
+                  final double squaredDistance) {
+            if (size < indexes.length) {
+                int child = size++;
+                while (child > 0) {
+                    final int parent = (child - 1) >>> 1;
+                    if (compare(squaredDistances[parent], indexes[parent], squaredDistance, index) >= 0) {
+                        break;
+                    }
+                    set(child, indexes[parent], squaredDistances[parent]);
+                    child = parent;
+                }
+                set(child, index, squaredDistance);
+                return -1;
+            } else if (size > 0 && compare(squaredDistance, index, squaredDistances[0], indexes[0]) < 0) {
+                final int evicted = indexes[0];
+                siftDown(index, squaredDistance, size);
+                return evicted;
+            }
+            return index;
+        }
+
+        /**
+         * Sorts the kept indexes in place, nearest first, by popping the farthest one to the end until the heap is empty.
+         */
+        int[] sorted() {
+            for (int end = size - 1; end > 0; end--) {
+                final int farthest = indexes[0];
+                final double farthestSquaredDistance = squaredDistances[0];
+                siftDown(indexes[end], squaredDistances[end], end);
+                set(end, farthest, farthestSquaredDistance);
+            }
+            return Arrays.copyOf(indexes, size);
+        }
+
+        /**
+         * Puts the index at the root of the heap made of the first {@code limit} slots, then moves it down to its place.
+         */
+        private void siftDown(final int index,
+                              final double squaredDistance,
+                              final int limit) {
+            int parent = 0;
+            int child = 1;
+            while (child < limit) {
+                if (child + 1 < limit && compare(squaredDistances[child + 1], indexes[child + 1], squaredDistances[child], indexes[child]) > 0) {
+                    child++;
+                }
+                if (compare(squaredDistances[child], indexes[child], squaredDistance, index) <= 0) {
+                    break;
+                }
+                set(parent, indexes[child], squaredDistances[child]);
+                parent = child;
+                child = 2 * parent + 1;
+            }
+            set(parent, index, squaredDistance);
+        }
+
+        private void set(final int slot,
+                         final int index,
+                         final double squaredDistance) {
+            indexes[slot] = index;
+            squaredDistances[slot] = squaredDistance;
+        }
+    }
+}
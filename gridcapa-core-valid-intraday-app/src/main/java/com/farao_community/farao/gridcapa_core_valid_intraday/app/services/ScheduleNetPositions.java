@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa_core_valid_intraday.app.services;
+
+import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.HubRegistry;
+import com.farao_community.farao.gridcapa_core_valid_intraday.api.exception.CoreValidIntradayInvalidDataException;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Net positions of every hub over every quarter-hour of an aggregated schedule, as a dense hub-ordinal &times; position
+ * matrix of unscaled longs sharing the largest scale of the quantities of the document. Position p is the quarter-hour
+ * starting p &times; 15 minutes after {@link #start()}. A hub exports the quantities of the series out of its area and
+ * imports those into it, exports being positive.
+ * <p>
+ * The matrix also keeps the scale of each net position, the largest scale of the quantities summed into it, so that a
+ * net position is returned at the scale a {@link BigDecimal} sum of its own quantities would have.
+ */
+public final class ScheduleNetPositions {
+    static final long POSITION_SECONDS = 15 * 60L;
+    private static final long HOUR_SECONDS = 60 * 60L;
+    private static final byte NO_POINT = -1;
+
+    private final Map<String, Integer> hubOrdinalsByArea;
+    private final int hubCount;
+    private final long start;
+    private final int positionCount;
+    private final int scale;
+    private final long[] unscaledNetPositions;
+    private final byte[] scales;
+
+    private ScheduleNetPositions(final Builder builder) {
+        this.hubOrdinalsByArea = builder.hubOrdinalsByArea;
+        this.hubCount = builder.hubCount;
+        this.start = builder.start == null ? 0 : builder.start;
+        this.positionCount = builder.positionCount;
+        this.scale = builder.scale;
+        this.unscaledNetPositions = new long[hubCount * positionCount];
+        this.scales = new byte[hubCount * positionCount];
+        for (int hub = 0; hub < hubCount; hub++) {
+            System.arraycopy(builder.unscaledNetPositions[hub], 0, unscaledNetPositions, hub * positionCount, positionCount);
+            System.arraycopy(builder.scales[hub], 0, scales, hub * positionCount, positionCount);
+        }
+    }
+
+    public int hubCount() {
+        return hubCount;
+    }
+
+    public int positionCount() {
+        return positionCount;
+    }
+
+    /**
+     * @return the start of the first position, in UTC
+     */
+    public OffsetDateTime start() {
+        return OffsetDateTime.ofInstant(Instant.ofEpochSecond(start), ZoneOffset.UTC);
+    }
+
+    /**
+     * @return the scale of the unscaled net positions, the largest scale of the quantities of the document
+     */
+    public int scale() {
+        return scale;
+    }
+
+    /**
+     * @return the ordinal of the hub of the area, or {@link HubRegistry#UNKNOWN} if no hub has that area
+     */
+    public int ordinalOfArea(final String areaCode) {
+        return areaCode == null ? HubRegistry.UNKNOWN : hubOrdinalsByArea.getOrDefault(areaCode, HubRegistry.UNKNOWN);
+    }
+
+    /**
+     * @return whether a series of the area of the hub has a point at the position
+     */
+    public boolean hasNetPosition(final int hubOrdinal, final int position) {
+        return scales[hubOrdinal * positionCount + position] != NO_POINT;
+    }
+
+    /**
+     * @return the net position multiplied by 10 to the power of {@link #scale()}
+     */
+    public long unscaledNetPosition(final int hubOrdinal, final int position) {
+        return unscaledNetPositions[hubOrdinal * positionCount + position];
+    }
+
+    /**
+     * @return the net position at the largest scale of its own quantities, or zero if the hub has no point at the
+     * position
+     */
+    public BigDecimal netPosition(final int hubOrdinal, final int position) {
+        final byte positionScale = scales[hubOrdinal * positionCount + position];
+        if (positionScale == NO_POINT) {
+            return BigDecimal.ZERO;
+        }
+        // exact, the digits beyond the scale of the quantities being zero
+        return BigDecimal.valueOf(unscaledNetPosition(hubOrdinal, position), scale).setScale(positionScale);
+    }
+
+    /**
+     * @return the net position of largest absolute value among the positions of the hub in the hour of the timestamp,
+     * the first one on a tie
+     * @throws CoreValidIntradayInvalidDataException if the hub has no point in the hour
+     */
+    public BigDecimal highestNetPosition(final int hubOrdinal, final OffsetDateTime timestamp) {
+        final long hourStart = timestamp.withMinute(0).withSecond(0).withNano(0).toEpochSecond();
+        final long firstPosition = Math.max(0, Math.ceilDiv(hourStart - start, POSITION_SECONDS));
+        final long endPosition = Math.min(positionCount, Math.ceilDiv(hourStart + HOUR_SECONDS - start, POSITION_SECONDS));
+        int highest = -1;
+        for (int position = (int) firstPosition; position < endPosition; position++) {
+            if (hubOrdinal != HubRegistry.UNKNOWN && hasNetPosition(hubOrdinal, position)
+                    && (highest < 0 || Math.abs(unscaledNetPosition(hubOrdinal, position)) > Math.abs(unscaledNetPosition(hubOrdinal, highest)))) {
+                highest = position;
+            }
+        }
+        if (highest < 0) {
+            throw new CoreValidIntradayInvalidDataException("No quantities found.");
+        }
+        return netPosition(hubOrdinal, highest);
+    }
+
+    /**
+     * Sums the quantities of the points of a schedule, growing the matrix as positions and scales are met. Points that
+     * are not on a quarter-hour of the matrix, or before the start of the schedule time period, are skipped, as they
+     * were when only the points of the target hour were read.
+     */
+    static final class Builder {
+        private static final int INITIAL_CAPACITY = 100;
+        private static final long MAX_POSITIONS = 366 * 24 * 4L;
+
+        private final Map<String, Integer> hubOrdinalsByArea;
+        private final int hubCount;
+        private final long[][] unscaledNetPositions;
+        private final byte[][] scales;
+        private Long start;
+        private boolean startOfDocument;
+        private int positionCount;
+        private int capacity = INITIAL_CAPACITY;
+        private int scale;
+
+        Builder(final Map<String, Integer> hubOrdinalsByArea,
+                final int hubCount) {
+            this.hubOrdinalsByArea = Map.copyOf(hubOrdinalsByArea);
+            this.hubCount = hubCount;
+            this.unscaledNetPositions = new long[hubCount][INITIAL_CAPACITY];
+            this.scales = new byte[hubCount][INITIAL_CAPACITY];
+            for (final byte[] hubScales : scales) {
+                Arrays.fill(hubScales, NO_POINT);
+            }
+        }
+
+        int ordinalOfArea(final String areaCode) {
+            return areaCode == null ? HubRegistry.UNKNOWN : hubOrdinalsByArea.getOrDefault(areaCode, HubRegistry.UNKNOWN);
+        }
+
+        /**
+         * Sets the start of the first position to the start of the schedule time period, unless already set by a
+         * previous call or point.
+         */
+        void start(final long epochSecond) {
+            if (start == null) {
+                start = epochSecond;
+                startOfDocument = true;
+            }
+        }
+
+        /**
+         * Adds a point exported by the first hub to the second one, either of them being possibly unknown. Without
+         * schedule time period, the matrix starts with the earliest point.
+         */
+        void add(final int exportingHub,
+                 final int importingHub,
+                 final long pointStart,
+                 final BigDecimal quantity) {
+            if (start == null) {
+                start = pointStart;
+            }
+            final long offset = pointStart - start;
+            if (offset % POSITION_SECONDS != 0) {
+                return;
+            }
+            if (offset < 0) {
+                if (startOfDocument || positionCount - offset / POSITION_SECONDS > MAX_POSITIONS) {
+                    return;
+                }
+                prepend((int) (-offset / POSITION_SECONDS));
+            } else if (offset / POSITION_SECONDS >= MAX_POSITIONS) {
+                return;
+            }
+            final int position = (int) ((pointStart - start) / POSITION_SECONDS);
+            if (quantity.scale() > scale) {
+                rescale(quantity.scale());
+            }
+            // as when adding to BigDecimal.ZERO
+            final byte quantityScale = (byte) Math.max(0, quantity.scale());
+            final long unscaledQuantity = quantity.setScale(scale).unscaledValue().longValueExact();
+            if (position >= positionCount) {
+                grow(position + 1);
+            }
+            if (exportingHub != HubRegistry.UNKNOWN) {
+                unscaledNetPositions[exportingHub][position] = Math.addExact(unscaledNetPositions[exportingHub][position], unscaledQuantity);
+                scales[exportingHub][position] = (byte) Math.max(scales[exportingHub][position], quantityScale);
+            }
+            if (importingHub != HubRegistry.UNKNOWN) {
+                unscaledNetPositions[importingHub][position] = Math.subtractExact(unscaledNetPositions[importingHub][position], unscaledQuantity);
+                scales[importingHub][position] = (byte) Math.max(scales[importingHub][position], quantityScale);
+            }
+        }
+
+        ScheduleNetPositions build() {
+            return new ScheduleNetPositions(this);
+        }
+
+        private void rescale(final int newScale) {
+            final long factor = BigDecimal.TEN.pow(newScale - scale).longValueExact();
+            for (final long[] hubNetPositions : unscaledNetPositions) {
+                for (int position = 0; position < positionCount; position++) {
+                    hubNetPositions[position] = Math.multiplyExact(hubNetPositions[position], factor);
+                }
+            }
+            scale = newScale;
+        }
+
+        /**
+         * Moves the start of the matrix earlier by the given number of positions.
+         */
+        private void prepend(final int positions) {
+            final int previousPositionCount = positionCount;
+            grow(previousPositionCount + positions);
+            for (int hub = 0; hub < hubCount; hub++) {
+                System.arraycopy(unscaledNetPositions[hub], 0, unscaledNetPositions[hub], positions, previousPositionCount);
+                Arrays.fill(unscaledNetPositions[hub], 0, positions, 0);
+                System.arraycopy(scales[hub], 0, scales[hub], positions, previousPositionCount);
+                Arrays.fill(scales[hub], 0, positions, NO_POINT);
+            }
+            start -= positions * POSITION_SECONDS;
+        }
+
+        private void grow(final int newPositionCount) {
+            if (newPositionCount > capacity) {
+                capacity = Math.max(newPositionCount, 2 * capacity);
+                for (int hub = 0; hub < hubCount; hub++) {
+                    unscaledNetPositions[hub] = Arrays.copyOf(unscaledNetPositions[hub], capacity);
+                    final int previousCapacity = scales[hub].length;
+                    scales[hub] = Arrays.copyOf(scales[hub], capacity);
+                    Arrays.fill(scales[hub], previousCapacity, capacity, NO_POINT);
+                }
+            }
+            positionCount = newPositionCount;
+        }
+    }
+}
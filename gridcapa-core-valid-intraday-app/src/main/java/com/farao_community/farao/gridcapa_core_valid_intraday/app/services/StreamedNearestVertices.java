@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa_core_valid_intraday.app.services;
+
+import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.CoreHub;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.Vertex;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.VerticesUtils;
+
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.DoublePredicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Fused import, projection and selection of vertices: the n vertices nearest to the market are kept in a bounded heap
+ * while the vertices file is read, so that no list of all the vertices is ever built.
+ * <p>
+ * Vertices are parsed on a virtual thread, while the file is still being downloaded, into blocks of primitive
+ * coordinates (see {@link VerticesUtils#forEachVertexBlock}) handed over through a bounded queue to the calling thread,
+ * which projects them and computes their distance. Kept vertices are copied out of their block, so that memory is
+ * bounded by the n kept vertices and the queued blocks, whatever the size of the file.
+ */
+final class StreamedNearestVertices {
+
+    static final int QUEUED_BLOCKS = 4;
+
+    private final NearestVertices.BoundedHeap heap;
+    private final Map<Integer, KeptVertex> keptVertices = new HashMap<>();
+    private final SquaredDistance squaredDistance;
+    private final DoublePredicate isWithinSphere;
+    private int count;
+    private int withinSphereCount;
+
+    private StreamedNearestVertices(final int n,
+                                    final SquaredDistance squaredDistance,
+                                    final DoublePredicate isWithinSphere) {
+        this.heap = new NearestVertices.BoundedHeap(Math.max(n, 0));
+        this.squaredDistance = squaredDistance;
+        this.isWithinSphere = isWithinSphere;
+    }
+
+    /**
+     * @param projection      projects a block of vertices, keeping their order
+     * @param squaredDistance squared distance of a projected vertex to the market
+     * @param isWithinSphere  whether a squared distance is within the sphere, to count the vertices within it
+     * @param n               how many vertices to keep
+     */
+    static StreamedNearestVertices read(final InputStream verticesStream,
+                                        final List<CoreHub> coreHubs,
+                                        final UnaryOperator<List<Vertex>> projection,
+                                        final SquaredDistance squaredDistance,
+                                        final DoublePredicate isWithinSphere,
+                                        final int n) {
+        final StreamedNearestVertices nearestVertices = new StreamedNearestVertices(n, squaredDistance, isWithinSphere);
+        // blocks are never empty: an empty one marks the end of the file
+        final BlockingQueue<List<Vertex>> blocks = new ArrayBlockingQueue<>(QUEUED_BLOCKS);
+        final AtomicReference<RuntimeException> readFailure = new AtomicReference<>();
+        final Thread reader = Thread.ofVirtual().name("vertices-reader").start(() -> readBlocks(verticesStream, coreHubs, blocks, readFailure));
+        try {
+            List<Vertex> block = blocks.take();
+            while (!block.isEmpty()) {
+                final List<Vertex> projectedBlock = projection.apply(block);
+                for (int index = 0; index < projectedBlock.size(); index++) {
+                    nearestVertices.offer(projectedBlock, index);
+                }
+                block = blocks.take();
+            }
+        } catch (final InterruptedException e) {
+            reader.interrupt();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reading vertices", e);
+        } catch (final RuntimeException e) {
+            // the reader would otherwise stay blocked on the full queue
+            reader.interrupt();
+            throw e;
+        }
+        if (readFailure.get() != null) {
+            throw readFailure.get();
+        }
+        return nearestVertices;
+    }
+
+    /**
+     * @return how many vertices were read
+     */
+    int count() {
+        return count;
+    }
+
+    /**
+     * @return how many vertices were within the sphere
+     */
+    int withinSphereCount() {
+        return withinSphereCount;
+    }
+
+    /**
+     * @return the kept vertices, nearest first
+     */
+    List<Vertex> nearest() {
+        return Arrays.stream(heap.sorted()).mapToObj(index -> keptVertices.get(index).vertex()).toList();
+    }
+
+    /**
+     * @return the kept vertices within the sphere, in the order of the file
+     */
+    List<Vertex> withinSphereInFileOrder() {
+        return keptVertices.keySet().stream()
+            .sorted()
+            .map(keptVertices::get)
+            .filter(keptVertex -> isWithinSphere.test(keptVertex.squaredDistance()))
+            .map(KeptVertex::vertex)
+            .toList();
+    }
+
+    /**
+     * @return the kept vertices, in the order of the file
+     */
+    List<Vertex> inFileOrder() {
+        return keptVertices.keySet().stream().sorted().map(index -> keptVertices.get(index).vertex()).toList();
+    }
+
+    private void offer(final List<Vertex> block,
+                       final int blockIndex) {
+        final int index = count++;
+        final double vertexSquaredDistance = squaredDistance.of(block, blockIndex);
+        if (isWithinSphere.test(vertexSquaredDistance)) {
+            withinSphereCount++;
+        }
+        final int dropped = heap.offer(index, vertexSquaredDistance);
+        if (dropped != index) {
+            final Vertex vertex = block.get(blockIndex);
+            keptVertices.put(index, new KeptVertex(new Vertex(vertex.vertexId(), Map.copyOf(vertex.coordinates())), vertexSquaredDistance));
+        }
+        if (dropped != -1 && dropped != index) {
+            keptVertices.remove(dropped);
+        }
+    }
+
+    private static void readBlocks(final InputStream verticesStream,
+                                   final List<CoreHub> coreHubs,
+                                   final BlockingQueue<List<Vertex>> blocks,
+                                   final AtomicReference<RuntimeException> readFailure) {
+        try {
+            VerticesUtils.forEachVertexBlock(verticesStream, coreHubs, block -> {
+                try {
+                    blocks.put(block);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new CancellationException("Selection stopped reading vertices");
+                }
+            });
+        } catch (final RuntimeException e) {
+            readFailure.set(e);
+        }
+        try {
+            blocks.put(List.of());
+        } catch (final InterruptedException e) {
+            // selection failed or was interrupted, nobody waits for the next blocks
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Squared distance to the market of a vertex of a projected block.
+     */
+    @FunctionalInterface
+    interface SquaredDistance {
+        double of(List<Vertex> block, int index);
+    }
+
+    private record KeptVertex(Vertex vertex, double squaredDistance) {
+    }
+}
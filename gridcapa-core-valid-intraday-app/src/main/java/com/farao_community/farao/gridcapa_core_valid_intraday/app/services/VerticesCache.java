@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa_core_valid_intraday.app.services;
+
+import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.CoreHub;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.VertexSet;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.VertexSetFiles;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.VerticesUtils;
+import com.farao_community.farao.gridcapa_core_valid_intraday.app.configuration.VerticesCacheConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Keeps parsed vertices files in a local directory, in the binary format of {@link VertexSetFiles},
+ * under the SHA-256 of their content and of the hubs they were parsed with. An unchanged vertices file is then
+ * decoded from its cache file instead of being parsed again as CSV: the download is still read whole to compute its
+ * key, and the cache file is decoded whole into a new {@link VertexSet}. Files not used for longer than the maximum
+ * age of the configuration are deleted whenever a new file is cached.
+ */
+@Service
+public class VerticesCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(VerticesCache.class);
+    private static final String CACHE_FILE_EXTENSION = ".vertices";
+
+    private final Path directory;
+    private final Duration maxAge;
+
+    public VerticesCache(final VerticesCacheConfiguration verticesCacheConfiguration) {
+        final String configuredDirectory = verticesCacheConfiguration.getDirectory();
+        this.directory = configuredDirectory == null || configuredDirectory.isBlank() ? null : Path.of(configuredDirectory);
+        this.maxAge = verticesCacheConfiguration.getMaxAge();
+    }
+
+    public VertexSet importVertices(final InputStream verticesStream,
+                                    final List<CoreHub> coreHubs) {
+        if (directory == null) {
+            return VerticesUtils.importVertexSet(verticesStream, coreHubs);
+        }
+        final byte[] content;
+        try {
+            content = verticesStream.readAllBytes();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        final Path cacheFile = directory.resolve(cacheKey(content, coreHubs) + CACHE_FILE_EXTENSION);
+        if (Files.isRegularFile(cacheFile)) {
+            try {
+                final VertexSet cached = VertexSetFiles.read(cacheFile);
+                CacheFiles.touch(cacheFile);
+                return cached;
+            } catch (final Exception e) {
+                LOGGER.warn("Cannot read cached vertices file {}, parsing vertices again", cacheFile, e);
+            }
+        }
+        final VertexSet vertexSet = VerticesUtils.importVertexSet(new ByteArrayInputStream(content), coreHubs);
+        try {
+            Files.createDirectories(directory);
+            VertexSetFiles.write(vertexSet, cacheFile);
+        } catch (final IOException e) {
+            LOGGER.warn("Cannot write cached vertices file {}", cacheFile, e);
+        }
+        CacheFiles.evictOlderThan(directory, CACHE_FILE_EXTENSION, maxAge);
+        return vertexSet;
+    }
+
+    static String cacheKey(final byte[] content,
+                           final List<CoreHub> coreHubs) {
+        final StringBuilder hubs = new StringBuilder();
+        for (final CoreHub coreHub : coreHubs) {
+            hubs.append(coreHub.clusterVerticeCode()).append(':').append(coreHub.isHvdcHub()).append(';');
+        }
+        return ContentHashes.sha256(content, hubs.toString().getBytes(UTF_8));
+    }
+}
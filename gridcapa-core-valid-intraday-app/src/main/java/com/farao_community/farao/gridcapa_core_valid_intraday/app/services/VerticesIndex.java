@@ -0,0 +1,374 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa_core_valid_intraday.app.services;
+
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.Vertex;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * KD-tree over a set of projected vertices, built once by {@link VerticesSelector#index} and queried for any
+ * reference program and radius.
+ * <p>
+ * Nodes are split on the hub of largest weighted spread, and subtrees are pruned with the weighted distance from the
+ * market to their bounding box, so that the {@code CoreHub.coefficient} of each hub is honoured. Pruning is conservative:
+ * distances of the remaining vertices are computed with the same formula as the linear scan, so that queries return
+ * exactly the same vertices.
+ */
+public final class VerticesIndex {
+
+    private static final int LEAF_SIZE = 32;
+    private static final double PRUNING_TOLERANCE = 1e-9;
+
+    private final List<Vertex> vertices;
+    private final double[] coefficients;
+    private final int hubCount;
+    /**
+     * Coordinates of the vertices, row-major in tree order.
+     */
+    private final int[] coordinates;
+    /**
+     * Index in {@link #vertices} of each vertex, in tree order.
+     */
+    private final int[] vertexIndexes;
+    private final int[] nodeStarts;
+    private final int[] nodeEnds;
+    private final int[] lowerChildren;
+    /**
+     * Bounding box of each node, row-major.
+     */
+    private final int[] minimums;
+    private final int[] maximums;
+    private int nodeCount;
+
+    VerticesIndex(final List<Vertex> vertices,
+                  final int[] coordinates,
+                  final double[] coefficients) {
+        this.vertices = vertices;
+        this.coefficients = coefficients;
+        this.hubCount = coefficients.length;
+        final int size = vertices.size();
+        final int maxNodeCount = Math.max(1, 4 * Math.ceilDiv(size, LEAF_SIZE));
+        this.nodeStarts = new int[maxNodeCount];
+        this.nodeEnds = new int[maxNodeCount];
+        this.lowerChildren = new int[maxNodeCount];
+        this.minimums = new int[maxNodeCount * hubCount];
+        this.maximums = new int[maxNodeCount * hubCount];
+
+        final int[] order = new int[size];
+        Arrays.setAll(order, index -> index);
+        nodeCount = 1;
+        build(0, coordinates, order, 0, size);
+
+        this.vertexIndexes = order;
+        this.coordinates = new int[size * hubCount];
+        for (int position = 0; position < size; position++) {
+            System.arraycopy(coordinates, order[position] * hubCount, this.coordinates, position * hubCount, hubCount);
+        }
+    }
+
+    public List<Vertex> getVertices() {
+        return vertices;
+    }
+
+    public int size() {
+        return vertices.size();
+    }
+
+    /**
+     * @return the indexes of the n vertices closest to the market, nearest first
+     */
+    int[] nearest(final double[] marketPositions,
+                  final int n) {
+        final NearestVertices.BoundedHeap heap = new NearestVertices.BoundedHeap(Math.clamp(n, 0, size()));
+        if (n > 0 && size() > 0) {
+            nearest(marketPositions, heap);
+        }
+        return heap.sorted();
+    }
+
+    /**
+     * @return the indexes of the vertices within the sphere, in increasing order, and their squared distances
+     */
+    SphereVertices withinSphere(final double[] marketPositions,
+                                final double radius) {
+        final double squaredRadius = radius * radius;
+        final SphereVertices sphereVertices = new SphereVertices();
+        if (size() > 0 && radius >= 0) {
+            withinSphere(0, marketPositions, radius, squaredRadius, sphereVertices);
+        }
+        sphereVertices.sortByIndex();
+        return sphereVertices;
+    }
+
+    /**
+     * Best-first traversal: nodes are visited by increasing distance of their bounding box, until the next one
+     * cannot hold a vertex nearer than the farthest one kept.
+     */
+    private void nearest(final double[] marketPositions,
+                         final NearestVertices.BoundedHeap heap) {
+        final NodeQueue queue = new NodeQueue();
+        queue.add(0, squaredLowerBound(0, marketPositions));
+        while (queue.size > 0) {
+            final double squaredLowerBound = queue.firstSquaredLowerBound();
+            final int node = queue.poll();
+            if (heap.isFull() && canPrune(squaredLowerBound, heap.farthestSquaredDistance())) {
+                return;
+            }
+            final int lowerChild = lowerChildren[node];
+            if (lowerChild < 0) {
+                for (int position = nodeStarts[node]; position < nodeEnds[node]; position++) {
+                    heap.offer(vertexIndexes[position], squaredDistance(position, marketPositions));
+                }
+            } else {
+                queue.add(lowerChild, squaredLowerBound(lowerChild, marketPositions));
+                queue.add(lowerChild + 1, squaredLowerBound(lowerChild + 1, marketPositions));
+            }
+        }
+    }
+
+    private void withinSphere(final int node,
+                              final double[] marketPositions,
+                              final double radius,
+                              final double squaredRadius,
+                              final SphereVertices sphereVertices) {
+        if (canPrune(squaredLowerBound(node, marketPositions), squaredRadius)) {
+            return;
+        }
+        final int lowerChild = lowerChildren[node];
+        if (lowerChild < 0) {
+            for (int position = nodeStarts[node]; position < nodeEnds[node]; position++) {
+                final double squaredDistance = squaredDistance(position, marketPositions);
+                if (NearestVertices.isWithin(squaredDistance, radius, squaredRadius)) {
+                    sphereVertices.add(vertexIndexes[position], squaredDistance);
+                }
+            }
+            return;
+        }
+        withinSphere(lowerChild, marketPositions, radius, squaredRadius, sphereVertices);
+        withinSphere(lowerChild + 1, marketPositions, radius, squaredRadius, sphereVertices);
+    }
+
+    /**
+     * @return true if every vertex of a node at this lower bound is farther than the given squared distance, beyond any rounding error
+     */
+    private static boolean canPrune(final double squaredLowerBound,
+                                    final double squaredDistance) {
+        return squaredLowerBound * (1 - PRUNING_TOLERANCE) > squaredDistance * (1 + PRUNING_TOLERANCE);
+    }
+
+    /**
+     * @return the weighted squared distance from the market to the bounding box of the node
+     */
+    private double squaredLowerBound(final int node,
+                                     final double[] marketPositions) {
+        double sumOfWeightedSquared = 0.0;
+        for (int hub = 0; hub < hubCount; hub++) {
+            final double gap = Math.max(0, Math.max(minimums[node * hubCount + hub] - marketPositions[hub],
+                                                    marketPositions[hub] - maximums[node * hubCount + hub]));
+            sumOfWeightedSquared = sumOfWeightedSquared + coefficients[hub] * gap * gap;
+        }
+        return sumOfWeightedSquared;
+    }
+
+    /**
+     * Same formula and summation order as {@link VerticesSelector}, for bitwise identical distances.
+     */
+    private double squaredDistance(final int position,
+                                   final double[] marketPositions) {
+        double sumOfWeightedSquared = 0.0;
+        for (int hub = 0; hub < hubCount; hub++) {
+            final double distanceIn1D = marketPositions[hub] - coordinates[position * hubCount + hub];
+            sumOfWeightedSquared = sumOfWeightedSquared + coefficients[hub] * distanceIn1D * distanceIn1D;
+        }
+        return sumOfWeightedSquared;
+    }
+
+    /**
+     * Fills the node covering {@code order[start, end)} and its subtree, children being allocated in pairs.
+     */
+    private void build(final int node,
+                       final int[] sourceCoordinates,
+                       final int[] order,
+                       final int start,
+                       final int end) {
+        nodeStarts[node] = start;
+        nodeEnds[node] = end;
+        lowerChildren[node] = -1;
+        Arrays.fill(minimums, node * hubCount, (node + 1) * hubCount, Integer.MAX_VALUE);
+        Arrays.fill(maximums, node * hubCount, (node + 1) * hubCount, Integer.MIN_VALUE);
+        for (int position = start; position < end; position++) {
+            for (int hub = 0; hub < hubCount; hub++) {
+                final int coordinate = sourceCoordinates[order[position] * hubCount + hub];
+                minimums[node * hubCount + hub] = Math.min(minimums[node * hubCount + hub], coordinate);
+                maximums[node * hubCount + hub] = Math.max(maximums[node * hubCount + hub], coordinate);
+            }
+        }
+        if (end - start <= LEAF_SIZE) {
+            return;
+        }
+        int splitHub = -1;
+        double largestSpread = 0;
+        for (int hub = 0; hub < hubCount; hub++) {
+            final double spread = Math.sqrt(coefficients[hub]) * ((double) maximums[node * hubCount + hub] - minimums[node * hubCount + hub]);
+            if (spread > largestSpread) {
+                largestSpread = spread;
+                splitHub = hub;
+            }
+        }
+        if (splitHub < 0) {
+            // every vertex of the node is at the same weighted position
+            return;
+        }
+        final int middle = (start + end) >>> 1;
+        select(sourceCoordinates, order, start, end, middle, splitHub);
+        final int lowerChild = nodeCount;
+        nodeCount += 2;
+        lowerChildren[node] = lowerChild;
+        build(lowerChild, sourceCoordinates, order, start, middle);
+        build(lowerChild + 1, sourceCoordinates, order, middle, end);
+    }
+
+    /**
+     * Quickselect: moves the vertex of rank {@code k} along the hub to position k, smaller ones before, larger ones after.
+     */
+    private void select(final int[] sourceCoordinates,
+                        final int[] order,
+                        final int start,
+                        final int end,
+                        final int k,
+                        final int hub) {
+        int low = start;
+        int high = end - 1;
+        while (low < high) {
+            final int pivot = sourceCoordinates[order[(low + high) >>> 1] * hubCount + hub];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (sourceCoordinates[order[i] * hubCount + hub] < pivot) {
+                    i++;
+                }
+                while (sourceCoordinates[order[j] * hubCount + hub] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    final int swapped = order[i];
+                    order[i++] = order[j];
+                    order[j--] = swapped;
+                }
+            }
+            if (k <= j) {
+                high = j;
+            } else if (k >= i) {
+                low = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Min-heap of nodes by squared lower bound, as growable primitive arrays.
+     */
+    private static final class NodeQueue {
+        private int[] nodes = new int[64];
+        private double[] squaredLowerBounds = new double[64];
+        private int size;
+
+        private double firstSquaredLowerBound() {
+            return squaredLowerBounds[0];
+        }
+
+        private void add(final int node,
+                         final double squaredLowerBound) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                squaredLowerBounds = Arrays.copyOf(squaredLowerBounds, size * 2);
+            }
+            int child = size++;
+            while (child > 0 && squaredLowerBounds[(child - 1) >>> 1] > squaredLowerBound) {
+                final int parent = (child - 1) >>> 1;
+                nodes[child] = nodes[parent];
+                squaredLowerBounds[child] = squaredLowerBounds[parent];
+                child = parent;
+            }
+            nodes[child] = node;
+            squaredLowerBounds[child] = squaredLowerBound;
+        }
+
+        private int poll() {
+            final int first = nodes[0];
+            final int lastNode = nodes[--size];
+            final double last = squaredLowerBounds[size];
+            int parent = 0;
+            int child = 1;
+            while (child < size) {
+                if (child + 1 < size && squaredLowerBounds[child + 1] < squaredLowerBounds[child]) {
+                    child++;
+                }
+                if (squaredLowerBounds[child] >= last) {
+                    break;
+                }
+                nodes[parent] = nodes[child];
+                squaredLowerBounds[parent] = squaredLowerBounds[child];
+                parent = child;
+                child = 2 * parent + 1;
+            }
+            nodes[parent] = lastNode;
+            squaredLowerBounds[parent] = last;
+            return first;
+        }
+    }
+
+    /**
+     * Vertices found within a sphere, as growable primitive arrays.
+     */
+    static final class SphereVertices {
+        private int[] indexes = new int[16];
+        private double[] squaredDistances = new double[16];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        int[] indexes() {
+            return Arrays.copyOf(indexes, size);
+        }
+
+        double[] squaredDistances() {
+            return Arrays.copyOf(squaredDistances, size);
+        }
+
+        void add(final int index,
+                 final double squaredDistance) {
+            if (size == indexes.length) {
+                indexes = Arrays.copyOf(indexes, size * 2);
+                squaredDistances = Arrays.copyOf(squaredDistances, size * 2);
+            }
+            indexes[size] = index;
+            squaredDistances[size++] = squaredDistance;
+        }
+
+        void sortByIndex() {
+            final long[] packed = new long[size];
+            for (int i = 0; i < size; i++) {
+                packed[i] = (long) indexes[i] << 32 | i;
+            }
+            Arrays.sort(packed);
+            final int[] sortedIndexes = new int[size];
+            final double[] sortedSquaredDistances = new double[size];
+            for (int i = 0; i < size; i++) {
+                sortedIndexes[i] = (int) (packed[i] >>> 32);
+                sortedSquaredDistances[i] = squaredDistances[(int) packed[i]];
+            }
+            indexes = sortedIndexes;
+            squaredDistances = sortedSquaredDistances;
+        }
+    }
+}
@@ -6,23 +6,35 @@
  */
 package com.farao_community.farao.gridcapa_core_valid_intraday.app.services;
 
-import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.CoreHub;
 import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.CoreHubsConfiguration;
+import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.HubRegistry;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.CompiledFlowBasedDomain;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.ProjectionParameters;
 import com.farao_community.farao.gridcapa_core_valid_commons.vertex.Vertex;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.VertexSet;
 import com.powsybl.openrao.data.refprog.referenceprogram.ReferenceProgram;
-import org.apache.commons.lang3.tuple.Pair;
 
-import java.util.Collections;
+import java.io.InputStream;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-
-import static java.util.Comparator.comparingDouble;
+import java.util.Set;
+import java.util.function.DoublePredicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class VerticesSelector {
-    private final List<CoreHub> coreHubs;
+    private final HubRegistry hubRegistry;
+    private final List<String> vertexCodes;
+    private final double[] coefficients;
 
     public VerticesSelector(final CoreHubsConfiguration coreHubsConfiguration) {
-        this.coreHubs = Collections.unmodifiableList(coreHubsConfiguration.getCoreHubs());
+        this(HubRegistry.of(coreHubsConfiguration));
+    }
+
+    public VerticesSelector(final HubRegistry hubRegistry) {
+        this.hubRegistry = hubRegistry;
+        this.vertexCodes = hubRegistry.vertexCodes();
+        this.coefficients = hubRegistry.coefficients();
     }
 
     /**
@@ -42,18 +54,20 @@ public class VerticesSelector {
             return projectedVertices;
         }
 
-        final List<Vertex> verticesInSphere = projectedVertices
-            .stream()
-            .filter(vertex -> isInNSphere(vertex, referenceProgram, radius))
-            .toList();
+        // each distance is computed once, for both the sphere filter and the selection of the closest vertices
+        final double[] squaredDistances = squaredMarketDistances(projectedVertices, referenceProgram);
+        final double squaredRadius = radius * radius;
+        final int[] verticesInSphere = IntStream.range(0, projectedVertices.size())
+            .filter(index -> NearestVertices.isWithin(squaredDistances[index], radius, squaredRadius))
+            .toArray();
 
-        if (verticesInSphere.isEmpty()) {
-            return selectClosestVertices(projectedVertices, referenceProgram, nbVertices);
-        } else if (verticesInSphere.size() <= nbVertices) {
-            return verticesInSphere;
+        if (verticesInSphere.length == 0) {
+            return toVertices(projectedVertices, NearestVertices.nearest(squaredDistances, nbVertices));
+        } else if (verticesInSphere.length <= nbVertices) {
+            return toVertices(projectedVertices, verticesInSphere);
         } else {
             // too many vertices, we filter again
-            return selectClosestVertices(verticesInSphere, referenceProgram, nbVertices);
+            return toVertices(projectedVertices, NearestVertices.nearest(squaredDistances, verticesInSphere, nbVertices));
         }
 
     }
@@ -72,57 +86,291 @@ public class VerticesSelector {
             return projectedVertices;
         }
 
-        return projectedVertices.stream()
-            .map(v -> vertexAndMarketDistance(referenceProgram, v))
-            .sorted(comparingDouble(Pair::getRight))
-            .limit(n)
-            .map(Pair::getLeft)
-            .toList();
+        return toVertices(projectedVertices, NearestVertices.nearest(squaredMarketDistances(projectedVertices, referenceProgram), n));
 
     }
 
     /**
-     * @param vertex           the considered vertex
-     * @param referenceProgram contains the market positions
-     * @param radius           n-dimension sphere radius, input by user
-     * @return if a vertex is within an n-sphere centered on market positions
+     * Same selection as {@link #selectVerticesWithinNSphere(List, ReferenceProgram, double, int)} on the vertices of
+     * the stream projected on the domain, fusing import, projection and selection: only nbVertices vertices are kept
+     * while the stream is read, see {@link StreamedNearestVertices}.
+     *
+     * @param verticesStream       vertices file content, read up to its end
+     * @param domain               flow-based domain the vertices are projected on
+     * @param projectionParameters engine and pool projecting each block of vertices read, the calling thread
+     *                             projecting it when no pool is given
+     */
+    public List<Vertex> selectVerticesWithinNSphere(final InputStream verticesStream,
+                                                    final CompiledFlowBasedDomain domain,
+                                                    final ProjectionParameters projectionParameters,
+                                                    final ReferenceProgram referenceProgram,
+                                                    final double radius,
+                                                    final int nbVertices) {
+        final double squaredRadius = radius * radius;
+        final StreamedNearestVertices nearestVertices = readNearestVertices(verticesStream, domain, projectionParameters, referenceProgram,
+            squaredDistance -> NearestVertices.isWithin(squaredDistance, radius, squaredRadius), nbVertices);
+
+        if (nearestVertices.count() <= nbVertices) {
+            return nearestVertices.inFileOrder();
+        } else if (nearestVertices.withinSphereCount() == 0 || nearestVertices.withinSphereCount() > nbVertices) {
+            // either no vertex is within the sphere, or the nearest ones are all within it
+            return nearestVertices.nearest();
+        } else {
+            // all the vertices within the sphere are among the nearest ones
+            return nearestVertices.withinSphereInFileOrder();
+        }
+    }
+
+    /**
+     * Same selection as {@link #selectClosestVertices(List, ReferenceProgram, int)} on the vertices of the stream
+     * projected on the domain with the given parameters, only n vertices being kept while the stream is read.
+     */
+    public List<Vertex> selectClosestVertices(final InputStream verticesStream,
+                                              final CompiledFlowBasedDomain domain,
+                                              final ProjectionParameters projectionParameters,
+                                              final ReferenceProgram referenceProgram,
+                                              final int n) {
+        final StreamedNearestVertices nearestVertices = readNearestVertices(verticesStream, domain, projectionParameters, referenceProgram, squaredDistance -> false, n);
+        return nearestVertices.count() <= n ? nearestVertices.inFileOrder() : nearestVertices.nearest();
+    }
+
+    /**
+     * Builds a spatial index over the projected vertices, to be built once and queried with
+     * {@link #selectVerticesWithinNSphere(VerticesIndex, ReferenceProgram, double, int)} and
+     * {@link #selectClosestVertices(VerticesIndex, ReferenceProgram, int)} for any reference program and radius.
+     * Selections are the same as the ones of the linear methods.
+     */
+    public VerticesIndex index(final List<Vertex> projectedVertices) {
+        return new VerticesIndex(projectedVertices, coordinates(projectedVertices), coefficients);
+    }
+
+    /**
+     * Projects the projected vertices on their principal components, see {@link ApproximateVerticesIndex}, for an
+     * approximate selection to be queried with
+     * {@link #selectVerticesWithinNSphere(ApproximateVerticesIndex, ReferenceProgram, double, int)} and
+     * {@link #selectClosestVertices(ApproximateVerticesIndex, ReferenceProgram, int)}. Selected vertices are ranked
+     * with their exact distance, but some of the exact selection may be missed: see {@link #closestVerticesRecall}.
+     */
+    public ApproximateVerticesIndex approximateIndex(final List<Vertex> projectedVertices) {
+        return new ApproximateVerticesIndex(projectedVertices, coordinates(projectedVertices), coefficients);
+    }
+
+    /**
+     * Same selection as {@link #selectVerticesWithinNSphere(List, ReferenceProgram, double, int)}, only visiting
+     * the parts of the index that can be within the sphere.
+     */
+    public List<Vertex> selectVerticesWithinNSphere(final VerticesIndex verticesIndex,
+                                                    final ReferenceProgram referenceProgram,
+                                                    final double radius,
+                                                    final int nbVertices) {
+        final List<Vertex> projectedVertices = verticesIndex.getVertices();
+        if (projectedVertices.size() <= nbVertices) {
+            return projectedVertices;
+        }
+
+        final double[] marketPositions = marketPositions(referenceProgram);
+        final VerticesIndex.SphereVertices verticesInSphere = verticesIndex.withinSphere(marketPositions, radius);
+        if (verticesInSphere.size() == 0) {
+            return toVertices(projectedVertices, verticesIndex.nearest(marketPositions, nbVertices));
+        }
+        final int[] indexesInSphere = verticesInSphere.indexes();
+        if (indexesInSphere.length <= nbVertices) {
+            return toVertices(projectedVertices, indexesInSphere);
+        }
+        // too many vertices, we filter again
+        final int[] nearestInSphere = NearestVertices.nearest(verticesInSphere.squaredDistances(), nbVertices);
+        return Arrays.stream(nearestInSphere).mapToObj(i -> projectedVertices.get(indexesInSphere[i])).toList();
+    }
+
+    /**
+     * Same selection as {@link #selectClosestVertices(List, ReferenceProgram, int)}, only visiting the parts of the
+     * index that can hold one of the n closest vertices.
+     */
+    public List<Vertex> selectClosestVertices(final VerticesIndex verticesIndex,
+                                              final ReferenceProgram referenceProgram,
+                                              final int n) {
+        final List<Vertex> projectedVertices = verticesIndex.getVertices();
+        if (projectedVertices.size() <= n) {
+            return projectedVertices;
+        }
+        return toVertices(projectedVertices, verticesIndex.nearest(marketPositions(referenceProgram), n));
+    }
+
+    /**
+     * Approximate counterpart of {@link #selectVerticesWithinNSphere(List, ReferenceProgram, double, int)}: only the
+     * vertices whose projected distance is close enough to the radius are checked against the sphere.
      */
-    private boolean isInNSphere(final Vertex vertex,
-                                final ReferenceProgram referenceProgram,
-                                final double radius) {
-        return vertexAndMarketDistance(referenceProgram, vertex).getRight() <= radius;
+    public List<Vertex> selectVerticesWithinNSphere(final ApproximateVerticesIndex verticesIndex,
+                                                    final ReferenceProgram referenceProgram,
+                                                    final double radius,
+                                                    final int nbVertices) {
+        final List<Vertex> projectedVertices = verticesIndex.getVertices();
+        if (projectedVertices.size() <= nbVertices) {
+            return projectedVertices;
+        }
+
+        final double[] marketPositions = marketPositions(referenceProgram);
+        final VerticesIndex.SphereVertices verticesInSphere = verticesIndex.withinSphere(marketPositions, radius);
+        if (verticesInSphere.size() == 0) {
+            return toVertices(projectedVertices, verticesIndex.nearest(marketPositions, nbVertices));
+        }
+        final int[] indexesInSphere = verticesInSphere.indexes();
+        if (indexesInSphere.length <= nbVertices) {
+            return toVertices(projectedVertices, indexesInSphere);
+        }
+        // too many vertices, we filter again
+        return toVertices(projectedVertices, verticesIndex.rankExactly(indexesInSphere, marketPositions, nbVertices));
+    }
+
+    /**
+     * Approximate counterpart of {@link #selectClosestVertices(List, ReferenceProgram, int)}: the candidates nearest
+     * in the projections are ranked with their exact distance.
+     */
+    public List<Vertex> selectClosestVertices(final ApproximateVerticesIndex verticesIndex,
+                                              final ReferenceProgram referenceProgram,
+                                              final int n) {
+        final List<Vertex> projectedVertices = verticesIndex.getVertices();
+        if (projectedVertices.size() <= n) {
+            return projectedVertices;
+        }
+        return toVertices(projectedVertices, verticesIndex.nearest(marketPositions(referenceProgram), n));
     }
 
     /**
-     * we return a pair because we want to be able to sort by distance but still keep the vertex data
+     * Runs both the approximate and the exact selection of the n closest vertices, to measure the error of the approximation.
      *
+     * @return the share of the exactly selected vertices that the approximate selection also selects
+     */
+    public double closestVerticesRecall(final ApproximateVerticesIndex verticesIndex,
+                                        final ReferenceProgram referenceProgram,
+                                        final int n) {
+        return recall(selectClosestVertices(verticesIndex, referenceProgram, n),
+                      selectClosestVertices(verticesIndex.getVertices(), referenceProgram, n));
+    }
+
+    /**
+     * @return the share of the exact selection found in the approximate one, by vertex id, 1 when the exact selection is empty
+     */
+    public static double recall(final List<Vertex> approximateSelection,
+                                final List<Vertex> exactSelection) {
+        if (exactSelection.isEmpty()) {
+            return 1.0;
+        }
+        final Set<Integer> approximateIds = approximateSelection.stream().map(Vertex::vertexId).collect(Collectors.toSet());
+        final long found = exactSelection.stream().map(Vertex::vertexId).filter(approximateIds::contains).count();
+        return (double) found / exactSelection.size();
+    }
+
+    /**
+     * @return the coordinates of the vertices, by vertex then hub ordinal
+     */
+    private int[] coordinates(final List<Vertex> projectedVertices) {
+        for (final double coefficient : coefficients) {
+            if (!(coefficient >= 0)) {
+                throw new IllegalStateException("Vertices can only be indexed with non-negative hub coefficients");
+            }
+        }
+        final int hubCount = vertexCodes.size();
+        final int[] coordinates = new int[projectedVertices.size() * hubCount];
+        if (projectedVertices instanceof VertexSet vertexSet && vertexSet.getHubCodes().equals(vertexCodes)) {
+            for (int index = 0; index < vertexSet.size(); index++) {
+                for (int hub = 0; hub < hubCount; hub++) {
+                    coordinates[index * hubCount + hub] = vertexSet.coordinate(index, hub);
+                }
+            }
+        } else {
+            for (int index = 0; index < projectedVertices.size(); index++) {
+                final Vertex vertex = projectedVertices.get(index);
+                for (int hub = 0; hub < hubCount; hub++) {
+                    coordinates[index * hubCount + hub] = requiredCoordinate(vertex, hub);
+                }
+            }
+        }
+        return coordinates;
+    }
+
+    private StreamedNearestVertices readNearestVertices(final InputStream verticesStream,
+                                                        final CompiledFlowBasedDomain domain,
+                                                        final ProjectionParameters projectionParameters,
+                                                        final ReferenceProgram referenceProgram,
+                                                        final DoublePredicate isWithinSphere,
+                                                        final int n) {
+        final double[] marketPositions = marketPositions(referenceProgram);
+        return StreamedNearestVertices.read(verticesStream,
+                                            hubRegistry.getCoreHubs(),
+                                            batch -> domain.getVerticesProjectedOnDomain(batch, projectionParameters),
+                                            (block, index) -> block instanceof VertexSet vertexSet && vertexSet.getHubCodes().equals(vertexCodes)
+                                                ? squaredDistance(vertexSet, index, marketPositions)
+                                                : squaredDistance(block.get(index), marketPositions),
+                                            isWithinSphere,
+                                            n);
+    }
+
+    private static List<Vertex> toVertices(final List<Vertex> vertices,
+                                           final int[] indexes) {
+        return Arrays.stream(indexes).mapToObj(vertices::get).toList();
+    }
+
+    /**
+     * Market positions are read once per call, indexed by hub ordinal, and coordinates are read by ordinal
+     * straight from the vertex set when its hubs are the configured ones. Large sets are computed in parallel.
+     *
+     * @param vertices         the considered vertices
      * @param referenceProgram contains the market positions
-     * @param vertex           the considered vertex
-     * @return the vertex and its distance from the market
+     * @return the squared distance of each vertex from the market
      */
-    private Pair<Vertex, Double> vertexAndMarketDistance(final ReferenceProgram referenceProgram,
-                                                         final Vertex vertex) {
+    private double[] squaredMarketDistances(final List<Vertex> vertices,
+                                            final ReferenceProgram referenceProgram) {
+        final double[] marketPositions = marketPositions(referenceProgram);
+        final VertexSet vertexSet = vertices instanceof VertexSet set && set.getHubCodes().equals(vertexCodes) ? set : null;
+        final double[] squaredDistances = new double[vertices.size()];
+        final IntStream indexes = IntStream.range(0, squaredDistances.length);
+        (squaredDistances.length < NearestVertices.PARALLEL_THRESHOLD ? indexes : indexes.parallel())
+            .forEach(index -> squaredDistances[index] = vertexSet != null
+                ? squaredDistance(vertexSet, index, marketPositions)
+                : squaredDistance(vertices.get(index), marketPositions));
+        return squaredDistances;
+    }
 
-        final Map<String, Integer> vertexPositions = vertex.coordinates();
+    private double[] marketPositions(final ReferenceProgram referenceProgram) {
+        final double[] marketPositions = new double[hubRegistry.size()];
+        for (int hub = 0; hub < marketPositions.length; hub++) {
+            marketPositions[hub] = referenceProgram.getGlobalNetPosition(hubRegistry.forecastCode(hub));
+        }
+        return marketPositions;
+    }
 
-        // global distance² = sum_over_hub(k_hub * [1D distance]²)
+    // global distance² = sum_over_hub(k_hub * [1D distance]²)
+    private double squaredDistance(final VertexSet vertexSet,
+                                   final int index,
+                                   final double[] marketPositions) {
         double sumOfWeightedSquared = 0.0;
-        for (final CoreHub hub : coreHubs) {
-            final Double marketPos = referenceProgram.getGlobalNetPosition(hub.forecastCode());
-            final Integer vertexPos = vertexPositions.get(hub.clusterVerticeCode());
-
-            if (vertexPos == null) {
-                throw new IllegalStateException(
-                    String.format("Vertex %d missing required coordinate for hub %s / %s",
-                                  vertex.vertexId(), hub.forecastCode(), hub.clusterVerticeCode()));
-            }
+        for (int hub = 0; hub < marketPositions.length; hub++) {
+            final double distanceIn1D = marketPositions[hub] - vertexSet.coordinate(index, hub);
+            sumOfWeightedSquared = sumOfWeightedSquared + coefficients[hub] * distanceIn1D * distanceIn1D;
+        }
+        return sumOfWeightedSquared;
+    }
 
-            final double distanceIn1D = marketPos - vertexPos;
-            final double weightedDistance = hub.coefficient() * distanceIn1D * distanceIn1D;
-            sumOfWeightedSquared = sumOfWeightedSquared + weightedDistance;
+    private double squaredDistance(final Vertex vertex,
+                                   final double[] marketPositions) {
+        double sumOfWeightedSquared = 0.0;
+        for (int hub = 0; hub < marketPositions.length; hub++) {
+            final double distanceIn1D = marketPositions[hub] - requiredCoordinate(vertex, hub);
+            sumOfWeightedSquared = sumOfWeightedSquared + coefficients[hub] * distanceIn1D * distanceIn1D;
         }
+        return sumOfWeightedSquared;
+    }
 
-        return Pair.of(vertex, Math.sqrt(sumOfWeightedSquared));
+    private int requiredCoordinate(final Vertex vertex,
+                                   final int hub) {
+        final Integer vertexPos = vertex.coordinates().get(vertexCodes.get(hub));
+        if (vertexPos == null) {
+            throw new IllegalStateException(
+                String.format("Vertex %d missing required coordinate for hub %s / %s",
+                              vertex.vertexId(), hubRegistry.forecastCode(hub), vertexCodes.get(hub)));
+        }
+        return vertexPos;
     }
 
 }
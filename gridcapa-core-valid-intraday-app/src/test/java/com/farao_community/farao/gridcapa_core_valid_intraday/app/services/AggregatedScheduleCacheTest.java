@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa_core_valid_intraday.app.services;
+
+import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.CoreHub;
+import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.HubRegistry;
+import com.farao_community.farao.gridcapa_core_valid_intraday.api.exception.CoreValidIntradayInvalidDataException;
+import com.farao_community.farao.gridcapa_core_valid_intraday.app.configuration.AggregatedScheduleConfiguration;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+class AggregatedScheduleCacheTest {
+
+    private static final OffsetDateTime DAY_START = OffsetDateTime.parse("2025-10-13T22:00Z");
+    private static final HubRegistry HUB_REGISTRY = HubRegistry.of(List.of(
+            new CoreHub("Belgique", "BE", "PTDF_BE", "BE-CORE", "BE", false, 1),
+            new CoreHub("Hub Belgique AleGro", "BE_ALEGrO", "PTDF_BE_AL", "ALBE-CORE", "BE_AL", true, 1),
+            new CoreHub("Allemagne", "DE", "PTDF_DE", "DE-CORE", "DE", false, 1),
+            new CoreHub("France", "FR", "PTDF_FR", "FR-CORE", "FR", false, 1)));
+    private static final AggregatedScheduleConfiguration CONFIGURATION = configuration();
+
+    @Test
+    void highestFrenchNetPositionIsReadForHour() throws IOException {
+        final byte[] content = resource("/DA_agregated_schedule_20251014_003_multiple_timeseries.xml");
+        Assertions.assertThat(AggregatedScheduleImporter.calculateFrenchNetPositionFromScheduleMarketDocument(new ByteArrayInputStream(content), DAY_START))
+                .isEqualTo(new BigDecimal("-20.000"));
+        Assertions.assertThat(AggregatedScheduleImporter.calculateFrenchNetPositionFromScheduleMarketDocument(new ByteArrayInputStream(content), DAY_START.plusHours(1)))
+                .isEqualTo(new BigDecimal("-9.000"));
+        Assertions.assertThat(AggregatedScheduleImporter.calculateFrenchNetPositionFromScheduleMarketDocument(
+                new ByteArrayInputStream(resource("/DA_agregated_schedule_20251014_003.xml")), OffsetDateTime.parse("2025-10-13T23:30+01:00")))
+                .isEqualTo(new BigDecimal("-15.500"));
+    }
+
+    @Test
+    void netPositionsOfAllHubsAreSummedOverSeries() {
+        final String schedule = schedule(
+                timeSeries("10YFR-RTE------C", "10Y1001A1001A82H", "2025-10-13T22:00Z", "1.5", "-4", "2", "1", "7"),
+                timeSeries("10YBE----------2", "10YFR-RTE------C", "2025-10-13T22:00Z", "2.25", "-3.125"),
+                timeSeries("10YBE----------2", "10YNL----------L", "2025-10-13T22:00Z", "1000", "1000"),
+                timeSeries("10YFR-RTE------C", "10YBE----------2", "2025-10-13T22:15Z", "0.5"));
+        final ScheduleNetPositions netPositions = AggregatedScheduleImporter.importNetPositions(new ByteArrayInputStream(schedule.getBytes(UTF_8)), HUB_REGISTRY, CONFIGURATION.getAreaCodes());
+        Assertions.assertThat(netPositions.hubCount()).isEqualTo(4);
+        Assertions.assertThat(netPositions.positionCount()).isEqualTo(5);
+        Assertions.assertThat(netPositions.start()).isEqualTo(OffsetDateTime.parse("2025-10-13T22:00Z"));
+        Assertions.assertThat(netPositions.scale()).isEqualTo(3);
+        // France imports from Germany and exports to Belgium, the last series starting a quarter-hour later
+        Assertions.assertThat(netPositions(netPositions, 3)).containsExactly("0.75", "0.375", "-2", "-1", "-7");
+        Assertions.assertThat(netPositions(netPositions, 2)).containsExactly("1.5", "-4", "2", "1", "7");
+        Assertions.assertThat(netPositions(netPositions, 0)).containsExactly("-1002.25", "-996.375", "0", "0", "0");
+        Assertions.assertThat(netPositions.hasNetPosition(0, 2)).isFalse();
+        Assertions.assertThat(netPositions.hasNetPosition(1, 0)).isFalse();
+        Assertions.assertThat(netPositions.highestNetPosition(3, DAY_START)).isEqualTo(new BigDecimal("-2"));
+        Assertions.assertThat(netPositions.highestNetPosition(3, DAY_START.plusMinutes(70))).isEqualTo(new BigDecimal("-7"));
+        Assertions.assertThat(netPositions.ordinalOfArea("10YNL----------L")).isEqualTo(HubRegistry.UNKNOWN);
+    }
+
+    @Test
+    void netPositionsKeepTheScaleOfTheirOwnQuantities() {
+        final String schedule = schedule(
+                timeSeries("10YBE----------2", "10YFR-RTE------C", "2025-10-13T22:00Z", "10", "-4", "2", "1", "3.5"),
+                timeSeries("10YBE----------2", "10YFR-RTE------C", "2025-10-13T22:15Z", "0.25"));
+        final ScheduleNetPositions netPositions = AggregatedScheduleImporter.importNetPositions(new ByteArrayInputStream(schedule.getBytes(UTF_8)), HUB_REGISTRY, CONFIGURATION.getAreaCodes());
+        Assertions.assertThat(netPositions.scale()).isEqualTo(2);
+        Assertions.assertThat(netPositions(netPositions, 3)).containsExactly("10", "-3.75", "2", "1", "3.5");
+        Assertions.assertThat(netPositions.highestNetPosition(3, DAY_START)).isEqualTo(new BigDecimal("10"));
+        Assertions.assertThat(netPositions.highestNetPosition(3, DAY_START.plusHours(1))).isEqualTo(new BigDecimal("3.5"));
+        Assertions.assertThat(AggregatedScheduleImporter.calculateFrenchNetPositionFromScheduleMarketDocument(new ByteArrayInputStream(schedule.getBytes(UTF_8)), DAY_START))
+                .isEqualTo(new BigDecimal("10"));
+        Assertions.assertThat(netPositions.netPosition(0, 0)).isEqualTo(new BigDecimal("-10"));
+        Assertions.assertThat(netPositions.netPosition(2, 0)).isEqualTo(BigDecimal.ZERO);
+    }
+
+    @Test
+    void pointsOutOfTheQuarterHoursAreSkipped() {
+        final String schedule = schedule(
+                timeSeries("10YBE----------2", "10YFR-RTE------C", "2025-10-13T22:30Z", "1", "2"),
+                timeSeries("10YBE----------2", "10YFR-RTE------C", "2025-10-13T22:05Z", "100"),
+                timeSeries("10YBE----------2", "10YFR-RTE------C", "2025-10-13T22:00Z", "4"));
+        // without schedule time period, the matrix starts with the earliest point
+        final ScheduleNetPositions netPositions = AggregatedScheduleImporter.importNetPositions(new ByteArrayInputStream(schedule.getBytes(UTF_8)), HUB_REGISTRY, CONFIGURATION.getAreaCodes());
+        Assertions.assertThat(netPositions.start()).isEqualTo(DAY_START);
+        Assertions.assertThat(netPositions(netPositions, 3)).containsExactly("4", "0", "1", "2");
+        Assertions.assertThat(netPositions.hasNetPosition(3, 1)).isFalse();
+
+        final String withTimePeriod = "<Schedule_MarketDocument xmlns=\"urn:iec62325.351:tc57wg16:451-2:scheduledocument:5:1\"><mRID>id</mRID>"
+                + "<schedule_Time_Period.timeInterval><start>2025-10-13T22:15Z</start><end>2025-10-14T22:00Z</end></schedule_Time_Period.timeInterval>"
+                + timeSeries("10YBE----------2", "10YFR-RTE------C", "2025-10-13T22:00Z", "4", "5") + "</Schedule_MarketDocument>";
+        Assertions.assertThat(AggregatedScheduleImporter.importNetPositions(new ByteArrayInputStream(withTimePeriod.getBytes(UTF_8)), HUB_REGISTRY, CONFIGURATION.getAreaCodes()))
+                .satisfies(positions -> Assertions.assertThat(netPositions(positions, 3)).containsExactly("5"));
+    }
+
+    @Test
+    void cachedDocumentIsNotReadAgain() throws IOException {
+        final AggregatedScheduleCache aggregatedScheduleCache = new AggregatedScheduleCache(HUB_REGISTRY, CONFIGURATION);
+        final byte[] content = resource("/DA_agregated_schedule_20251014_003.xml");
+        final ScheduleNetPositions netPositions = aggregatedScheduleCache.importNetPositions(new ByteArrayInputStream(content));
+        Assertions.assertThat(aggregatedScheduleCache.importNetPositions(new ByteArrayInputStream(content))).isSameAs(netPositions);
+        Assertions.assertThat(netPositions.netPosition(3, 0)).isEqualTo(new BigDecimal("-15.500"));
+        Assertions.assertThat(aggregatedScheduleCache.importFrenchNetPosition(new ByteArrayInputStream(content), DAY_START.plusMinutes(45)))
+                .isEqualTo(new BigDecimal("-15.500"));
+        Assertions.assertThat(aggregatedScheduleCache.importFrenchNetPosition(new ByteArrayInputStream(content), DAY_START.plusHours(1)))
+                .isEqualTo(new BigDecimal("-9.000"));
+    }
+
+    @Test
+    void frenchNetPositionOnlyReadsFrenchSeries() {
+        final AggregatedScheduleConfiguration configuration = configuration();
+        configuration.getAreaCodes().put("FR", "10YFR-OTHER----C");
+        final AggregatedScheduleCache aggregatedScheduleCache = new AggregatedScheduleCache(HUB_REGISTRY, configuration);
+        final byte[] content = schedule(
+                timeSeries("10YFR-RTE------C", "10YFR-RTE------C", "2025-10-13T22:00Z", "3"),
+                timeSeries("10YFR-RTE------C", "10YCB-GERMANY--8", "2025-10-13T22:00Z", "1"),
+                "<TimeSeries><in_Domain.mRID>10YBE----------2</in_Domain.mRID></TimeSeries>").getBytes(UTF_8);
+        // a series within France counts as an export, and the Belgian series without period is not read
+        Assertions.assertThat(aggregatedScheduleCache.importFrenchNetPosition(new ByteArrayInputStream(content), DAY_START))
+                .isEqualTo(new BigDecimal("2"));
+        Assertions.assertThatExceptionOfType(CoreValidIntradayInvalidDataException.class)
+                .isThrownBy(() -> aggregatedScheduleCache.importNetPositions(new ByteArrayInputStream(content)))
+                .withMessage("Time series contains no periods.");
+    }
+
+    @Test
+    void invalidSchedulesAreReported() {
+        final AggregatedScheduleCache aggregatedScheduleCache = new AggregatedScheduleCache(HUB_REGISTRY, CONFIGURATION);
+        final ByteArrayInputStream withoutPeriod = new ByteArrayInputStream(schedule("<TimeSeries><in_Domain.mRID>10YFR-RTE------C</in_Domain.mRID></TimeSeries>").getBytes(UTF_8));
+        Assertions.assertThatExceptionOfType(CoreValidIntradayInvalidDataException.class)
+                .isThrownBy(() -> aggregatedScheduleCache.importNetPositions(withoutPeriod))
+                .withMessage("Time series contains no periods.");
+        final ByteArrayInputStream truncated = new ByteArrayInputStream("<Schedule_MarketDocument><TimeSeries>".getBytes(UTF_8));
+        Assertions.assertThatExceptionOfType(CoreValidIntradayInvalidDataException.class)
+                .isThrownBy(() -> aggregatedScheduleCache.importNetPositions(truncated))
+                .withMessage("Cannot read ScheduleMarketDocument");
+        final ByteArrayInputStream otherHour = new ByteArrayInputStream(schedule(timeSeries("10YFR-RTE------C", "10YBE----------2", "2025-10-13T22:00Z", "1")).getBytes(UTF_8));
+        final OffsetDateTime nextHour = DAY_START.plusHours(1);
+        Assertions.assertThatExceptionOfType(CoreValidIntradayInvalidDataException.class)
+                .isThrownBy(() -> aggregatedScheduleCache.importFrenchNetPosition(otherHour, nextHour))
+                .withMessage("No quantities found.");
+    }
+
+    private static AggregatedScheduleConfiguration configuration() {
+        final AggregatedScheduleConfiguration configuration = new AggregatedScheduleConfiguration();
+        configuration.getAreaCodes().putAll(Map.of("BE", "10YBE----------2", "DE", "10Y1001A1001A82H", "FR", "10YFR-RTE------C"));
+        return configuration;
+    }
+
+    private static List<String> netPositions(final ScheduleNetPositions netPositions,
+                                             final int hubOrdinal) {
+        return IntStream.range(0, netPositions.positionCount())
+                .mapToObj(position -> netPositions.netPosition(hubOrdinal, position).toPlainString())
+                .toList();
+    }
+
+    private byte[] resource(final String name) throws IOException {
+        try (final InputStream inputStream = getClass().getResourceAsStream(name)) {
+            return inputStream.readAllBytes();
+        }
+    }
+
+    private static String schedule(final String... timeSeries) {
+        return "<Schedule_MarketDocument xmlns=\"urn:iec62325.351:tc57wg16:451-2:scheduledocument:5:1\"><mRID>id</mRID>"
+                + String.join("", timeSeries) + "</Schedule_MarketDocument>";
+    }
+
+    /**
+     * Series of 15 minutes points, with a second period that is ignored.
+     */
+    private static String timeSeries(final String inDomain,
+                                     final String outDomain,
+                                     final String start,
+                                     final String... quantities) {
+        final StringBuilder timeSeries = new StringBuilder("<TimeSeries><mRID>ts</mRID><in_Domain.mRID codingScheme=\"A01\">").append(inDomain)
+                .append("</in_Domain.mRID><out_Domain.mRID codingScheme=\"A01\">").append(outDomain)
+                .append("</out_Domain.mRID><Period><timeInterval><start>").append(start)
+                .append("</start><end>2025-10-14T22:00Z</end></timeInterval><resolution>PT15M</resolution>");
+        for (int i = 0; i < quantities.length; i++) {
+            timeSeries.append("<Point><position>").append(i + 1).append("</position><quantity>").append(quantities[i]).append("</quantity></Point>");
+        }
+        return timeSeries.append("</Period><Period><timeInterval><start>").append(start)
+                .append("</start></timeInterval><Point><position>1</position><quantity>1000</quantity></Point></Period></TimeSeries>").toString();
+    }
+}
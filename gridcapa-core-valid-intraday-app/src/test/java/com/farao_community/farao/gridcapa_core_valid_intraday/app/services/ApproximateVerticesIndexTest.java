@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa_core_valid_intraday.app.services;
+
+import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.CoreHub;
+import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.HubRegistry;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.Vertex;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.VerticesUtils;
+import com.powsybl.openrao.data.refprog.referenceprogram.ReferenceProgram;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ApproximateVerticesIndexTest {
+
+    private static final double[] COEFFICIENTS = {1, 2, 0.5, 0, 1, 3};
+
+    private final List<CoreHub> coreHubs = new ArrayList<>();
+    private final Random random = new Random(7);
+
+    ApproximateVerticesIndexTest() {
+        for (int hub = 0; hub < COEFFICIENTS.length; hub++) {
+            coreHubs.add(new CoreHub("Hub" + hub, "ram" + hub, "fb" + hub, "FC" + hub, "V" + hub, hub == 5, COEFFICIENTS[hub]));
+        }
+    }
+
+    @Test
+    void shouldSelectVerticesWithinErrorBound() {
+        final List<Vertex> vertices = randomVertices(20_000);
+        final VerticesSelector selector = new VerticesSelector(HubRegistry.of(coreHubs));
+        final ApproximateVerticesIndex approximateIndex = selector.approximateIndex(vertices);
+
+        double recallSum = 0;
+        final int queryCount = 30;
+        for (int query = 0; query < queryCount; query++) {
+            final ReferenceProgram referenceProgram = randomReferenceProgram();
+            final int n = random.nextInt(1, 300);
+
+            final List<Vertex> closest = selector.selectClosestVertices(approximateIndex, referenceProgram, n);
+            final List<Vertex> exactClosest = selector.selectClosestVertices(vertices, referenceProgram, n);
+            assertThat(closest).hasSize(n);
+            final double exactFarthest = distance(exactClosest.get(n - 1), referenceProgram);
+            assertThat(closest).allSatisfy(vertex -> assertThat(distance(vertex, referenceProgram))
+                .isLessThanOrEqualTo(exactFarthest * (1 + ApproximateVerticesIndex.DISTANCE_TOLERANCE)));
+            // vertices left out are at least farthest / (1 + tolerance) away
+            final double skippedDistance = distance(closest.get(n - 1), referenceProgram) / (1 + ApproximateVerticesIndex.DISTANCE_TOLERANCE);
+            final Set<Integer> selectedIds = closest.stream().map(Vertex::vertexId).collect(Collectors.toSet());
+            assertThat(vertices).filteredOn(vertex -> !selectedIds.contains(vertex.vertexId()))
+                .allSatisfy(vertex -> assertThat(distance(vertex, referenceProgram)).isGreaterThanOrEqualTo(skippedDistance));
+            // selected vertices are ranked by their exact distance
+            assertThat(selector.selectClosestVertices(closest, referenceProgram, n - 1)).containsExactlyElementsOf(closest.subList(0, n - 1));
+            recallSum += selector.closestVerticesRecall(approximateIndex, referenceProgram, n);
+            assertThat(selector.closestVerticesRecall(approximateIndex, referenceProgram, n))
+                .isEqualTo(VerticesSelector.recall(closest, exactClosest));
+
+            final double radius = random.nextDouble(0, 4_000);
+            final List<Vertex> inSphere = selector.selectVerticesWithinNSphere(approximateIndex, referenceProgram, radius, n);
+            assertThat(inSphere).hasSizeLessThanOrEqualTo(n);
+            assertThat(selector.selectVerticesWithinNSphere(vertices, referenceProgram, radius, vertices.size() - 1)).containsAll(inSphere);
+            // vertices within the sphere are found exactly
+            assertThat(selector.selectVerticesWithinNSphere(approximateIndex, referenceProgram, 6_000, n))
+                .containsExactlyElementsOf(selector.selectVerticesWithinNSphere(vertices, referenceProgram, 6_000, n));
+        }
+        assertThat(recallSum / queryCount).isGreaterThan(0.9);
+    }
+
+    @Test
+    void shouldHandleSmallAndEmptySets() {
+        final VerticesSelector selector = new VerticesSelector(HubRegistry.of(coreHubs));
+        final ReferenceProgram referenceProgram = randomReferenceProgram();
+        final List<Vertex> vertices = randomVertices(40);
+
+        assertThat(selector.selectClosestVertices(selector.approximateIndex(List.of()), referenceProgram, 3)).isEmpty();
+        assertThat(selector.selectClosestVertices(selector.approximateIndex(vertices), referenceProgram, 40)).isSameAs(vertices);
+        assertThat(selector.closestVerticesRecall(selector.approximateIndex(vertices), referenceProgram, 3)).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldComputeRecallByVertexId() {
+        final Vertex vertex1 = new Vertex(1, Map.of());
+        final Vertex vertex2 = new Vertex(2, Map.of());
+        final Vertex vertex3 = new Vertex(3, Map.of());
+
+        assertThat(VerticesSelector.recall(List.of(vertex1, vertex3), List.of(vertex1, vertex2))).isCloseTo(0.5, within(1e-12));
+        assertThat(VerticesSelector.recall(List.of(vertex2, vertex1), List.of(vertex1, vertex2))).isEqualTo(1.0);
+        assertThat(VerticesSelector.recall(List.of(vertex1), List.of())).isEqualTo(1.0);
+    }
+
+    private double distance(final Vertex vertex,
+                            final ReferenceProgram referenceProgram) {
+        double sum = 0;
+        for (int hub = 0; hub < coreHubs.size(); hub++) {
+            final double distanceIn1D = referenceProgram.getGlobalNetPosition(coreHubs.get(hub).forecastCode())
+                - vertex.coordinates().get(coreHubs.get(hub).clusterVerticeCode());
+            sum += COEFFICIENTS[hub] * distanceIn1D * distanceIn1D;
+        }
+        return Math.sqrt(sum);
+    }
+
+    private List<Vertex> randomVertices(final int count) {
+        final StringBuilder csv = new StringBuilder("Vertex ID");
+        coreHubs.forEach(hub -> csv.append(',').append(hub.clusterVerticeCode()));
+        for (int id = 0; id < count; id++) {
+            csv.append('\n').append(id);
+            for (int hub = 0; hub < coreHubs.size(); hub++) {
+                csv.append(',').append((int) (random.nextGaussian() * 1_500));
+            }
+        }
+        return VerticesUtils.importVertexSet(new ByteArrayInputStream(csv.toString().getBytes(UTF_8)), coreHubs);
+    }
+
+    private ReferenceProgram randomReferenceProgram() {
+        final Map<String, Double> netPositions = new HashMap<>();
+        coreHubs.forEach(hub -> netPositions.put(hub.forecastCode(), random.nextGaussian() * 1_500));
+        return new ReferenceProgram(new ArrayList<>()) {
+            @Override
+            public double getGlobalNetPosition(final String area) {
+                return netPositions.get(area);
+            }
+        };
+    }
+}
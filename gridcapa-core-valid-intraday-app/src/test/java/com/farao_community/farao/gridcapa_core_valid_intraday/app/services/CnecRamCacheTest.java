@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa_core_valid_intraday.app.services;
+
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.FlowBasedDomainBranchData;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.NetPositionLimits;
+import com.farao_community.farao.gridcapa_core_valid_intraday.api.exception.CoreValidIntradayInvalidDataException;
+import com.farao_community.farao.gridcapa_core_valid_intraday.app.configuration.CnecRamCacheConfiguration;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+class CnecRamCacheTest {
+
+    private static final OffsetDateTime DAY_START = OffsetDateTime.parse("2025-09-20T22:00Z");
+    private static final byte[] CNEC_RAM = document("fb:", 24).getBytes(UTF_8);
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void indexedIntervalsAreReadLikeWholeDocument() throws IOException {
+        final CnecRamCache cnecRamCache = new CnecRamCache(configuration(directory.resolve("cache").toString()));
+        for (int minutes = 0; minutes < 24 * 60; minutes += 15) {
+            final OffsetDateTime timestamp = DAY_START.plusMinutes(minutes);
+            final List<FlowBasedDomainBranchData> expected = CnecRamImporter.importBranchData(new ByteArrayInputStream(CNEC_RAM), timestamp);
+            final List<FlowBasedDomainBranchData> branches = cnecRamCache.importBranchData(new ByteArrayInputStream(CNEC_RAM), timestamp);
+            Assertions.assertThat(branches).containsExactlyElementsOf(expected);
+            Assertions.assertThat(branches.getFirst().getId()).isEqualTo("c" + (minutes / 60 + 1) + "_0");
+        }
+        final Path indexFile = directory.resolve("cache").resolve(CnecRamCache.cacheKey(CNEC_RAM) + ".f645.index");
+        try (final Stream<Path> files = Files.list(directory.resolve("cache"))) {
+            Assertions.assertThat(files).containsExactly(indexFile);
+        }
+        Assertions.assertThat(CnecRamIndex.read(indexFile).slices())
+                .hasSize(24)
+                .containsExactlyElementsOf(CnecRamIndex.build(CNEC_RAM).slices());
+    }
+
+    @Test
+    void allIntervalsAreReadAtOnce() {
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            for (final String cacheDirectory : new String[] {directory.toString(), null}) {
+                final CnecRamCache cnecRamCache = new CnecRamCache(configuration(cacheDirectory));
+                for (final ForkJoinPool intervalPool : new ForkJoinPool[] {pool, null}) {
+                    final SortedMap<OffsetDateTime, List<FlowBasedDomainBranchData>> branchesByTimestamp = cnecRamCache.importBranchDataByTimestamp(new ByteArrayInputStream(CNEC_RAM), intervalPool);
+                    Assertions.assertThat(branchesByTimestamp.keySet())
+                            .hasSize(24)
+                            .startsWith(DAY_START)
+                            .endsWith(DAY_START.plusHours(23));
+                    branchesByTimestamp.forEach((timestamp, branches) -> Assertions.assertThat(branches)
+                            .containsExactlyElementsOf(CnecRamImporter.importBranchData(new ByteArrayInputStream(CNEC_RAM), timestamp)));
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void netPositionLimitsAreReadForTimestamp() {
+        final NetPositionLimits expected = new NetPositionLimits(Map.of("FR", -4000.0), Map.of("FR", 4000.5));
+        Assertions.assertThat(CnecRamImporter.importNetPositionLimits(new ByteArrayInputStream(CNEC_RAM), DAY_START.plusHours(3)))
+                .isEqualTo(expected);
+        final CnecRamCache cnecRamCache = new CnecRamCache(configuration(directory.toString()));
+        for (int i = 0; i < 2; i++) {
+            Assertions.assertThat(cnecRamCache.importNetPositionLimits(new ByteArrayInputStream(CNEC_RAM), DAY_START.plusHours(3).plusMinutes(45)))
+                    .isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void timestampOutsideDocumentIsReported() {
+        final CnecRamCache cnecRamCache = new CnecRamCache(configuration(directory.toString()));
+        final ByteArrayInputStream cnecRamStream = new ByteArrayInputStream(CNEC_RAM);
+        final OffsetDateTime timestamp = DAY_START.plusDays(1);
+        Assertions.assertThatExceptionOfType(CoreValidIntradayInvalidDataException.class)
+                .isThrownBy(() -> cnecRamCache.importBranchData(cnecRamStream, timestamp))
+                .withMessage("No interval of FlowBasedDomainDocument covers 2025-09-21T22:00Z");
+    }
+
+    @Test
+    void documentWithoutPrefixIsIndexed() {
+        final byte[] cnecRam = document("", 3).getBytes(UTF_8);
+        final CnecRamCache cnecRamCache = new CnecRamCache(configuration(directory.toString()));
+        Assertions.assertThat(cnecRamCache.importBranchData(new ByteArrayInputStream(cnecRam), DAY_START.plusHours(2)))
+                .containsExactlyElementsOf(CnecRamImporter.importBranchData(new ByteArrayInputStream(cnecRam), DAY_START.plusHours(2)));
+        Assertions.assertThat(CnecRamIndex.build(cnecRam).slices()).hasSize(3);
+    }
+
+    @Test
+    void corruptedIndexIsReplaced() throws IOException {
+        final CnecRamCache cnecRamCache = new CnecRamCache(configuration(directory.toString()));
+        final Path indexFile = directory.resolve(CnecRamCache.cacheKey(CNEC_RAM) + ".f645.index");
+        Files.writeString(indexFile, "corrupted");
+
+        Assertions.assertThat(cnecRamCache.importBranchData(new ByteArrayInputStream(CNEC_RAM), DAY_START)).hasSize(2);
+        Assertions.assertThat(CnecRamIndex.read(indexFile).slices()).hasSize(24);
+    }
+
+    @Test
+    void unusedIndexesAreEvicted() throws IOException {
+        final CnecRamCacheConfiguration configuration = configuration(directory.toString());
+        configuration.setMaxAge(Duration.ofHours(1));
+        final CnecRamCache cnecRamCache = new CnecRamCache(configuration);
+        final Path indexFile = directory.resolve(CnecRamCache.cacheKey(CNEC_RAM) + ".f645.index");
+        final Path oldFile = Files.writeString(directory.resolve("old.f645.index"), "old");
+        final Path otherFile = Files.writeString(directory.resolve("other.vertices"), "other");
+        final FileTime twoHoursAgo = FileTime.from(Instant.now().minus(Duration.ofHours(2)));
+        Files.setLastModifiedTime(oldFile, twoHoursAgo);
+        Files.setLastModifiedTime(otherFile, twoHoursAgo);
+
+        cnecRamCache.importBranchData(new ByteArrayInputStream(CNEC_RAM), DAY_START);
+        try (final Stream<Path> files = Files.list(directory)) {
+            Assertions.assertThat(files).containsExactlyInAnyOrder(indexFile, otherFile);
+        }
+
+        // reading an index makes it recent again
+        Files.setLastModifiedTime(indexFile, twoHoursAgo);
+        cnecRamCache.importBranchData(new ByteArrayInputStream(CNEC_RAM), DAY_START);
+        Assertions.assertThat(Files.getLastModifiedTime(indexFile)).isGreaterThan(twoHoursAgo);
+    }
+
+    @Test
+    void noDirectoryDisablesCache() {
+        final CnecRamCache cnecRamCache = new CnecRamCache(configuration(null));
+        Assertions.assertThat(cnecRamCache.importBranchData(new ByteArrayInputStream(CNEC_RAM), DAY_START)).hasSize(2);
+    }
+
+    /**
+     * Hourly intervals of two branches each, the second domain of each interval, the comments and CDATA sections being ignored.
+     */
+    private static String document(final String prefix,
+                                   final int intervals) {
+        final StringBuilder document = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<!-- <Interval> -->\n<")
+                .append(prefix).append("FlowBasedDomainDocument xmlns").append(prefix.isEmpty() ? "" : ":fb").append("=\"flowbased\" DtdVersion=\"0\" DtdRelease=\"0\">\n")
+                .append(tag(prefix, "FlowBasedDomainTimeInterval v=\"2025-09-20T22:00Z/2025-09-21T22:00Z\"/"))
+                .append(tag(prefix, "FlowBasedDomainTimeSeries")).append(tag(prefix, "Period"))
+                .append(tag(prefix, "TimeInterval v='2025-09-20T22:00Z/2025-09-21T22:00Z'/"))
+                .append(tag(prefix, "Resolution v=\"PT60M\"/"));
+        for (int position = 1; position <= intervals; position++) {
+            document.append(tag(prefix, "Interval")).append(tag(prefix, "Pos v=\"" + position + "\"/"))
+                    .append(tag(prefix, "FlowBasedDomain name=\"REFPROG\"")).append(tag(prefix, "constraintResults"));
+            for (int branch = 0; branch < 2; branch++) {
+                document.append(tag(prefix, "constraintResult id=\"c" + position + "_" + branch + "\" type=\"BRANCH\""))
+                        .append(tag(prefix, "criticalBranch id=\"cb\""))
+                        .append(tag(prefix, "amr")).append(position).append(tag(prefix, "/amr"))
+                        .append(tag(prefix, "RAM0core")).append(100 * position + branch).append(tag(prefix, "/RAM0core"))
+                        .append(tag(prefix, "/criticalBranch")).append(tag(prefix, "ptdfs"))
+                        .append(tag(prefix, "ptdf")).append(tag(prefix, "hub name=\"FR\"/"))
+                        .append(tag(prefix, "value")).append("0.0").append(position).append(tag(prefix, "/value"))
+                        .append(tag(prefix, "/ptdf")).append(tag(prefix, "/ptdfs")).append(tag(prefix, "/constraintResult"));
+            }
+            document.append(tag(prefix, "/constraintResults")).append(tag(prefix, "limitNetPositions"))
+                    .append(limitNetPosition(prefix, "MIN", -1000 * position))
+                    .append(limitNetPosition(prefix, "MAX", 1000 * position + 0.5))
+                    .append(tag(prefix, "/limitNetPositions")).append(tag(prefix, "/FlowBasedDomain"))
+                    .append(tag(prefix, "FlowBasedDomain name=\"ZEROBALANCE\"")).append(tag(prefix, "networkName"))
+                    .append("<![CDATA[</").append(prefix).append("Interval>]]>")
+                    .append(tag(prefix, "/networkName")).append(tag(prefix, "/FlowBasedDomain"))
+                    .append(tag(prefix, "/Interval")).append('\n');
+        }
+        return document.append(tag(prefix, "/Period")).append(tag(prefix, "/FlowBasedDomainTimeSeries"))
+                .append(tag(prefix, "/FlowBasedDomainDocument")).toString();
+    }
+
+    /**
+     * Limit of the FR net position, given with a vertex where DE is at zero.
+     */
+    private static String limitNetPosition(final String prefix,
+                                           final String type,
+                                           final double netPosition) {
+        return tag(prefix, "limitnetposition") + tag(prefix, "coordinates")
+                + tag(prefix, "coordinate") + tag(prefix, "hub name=\"DE\"/") + tag(prefix, "value") + "0" + tag(prefix, "/value") + tag(prefix, "/coordinate")
+                + tag(prefix, "coordinate") + tag(prefix, "hub name=\"FR\"/") + tag(prefix, "value") + netPosition + tag(prefix, "/value") + tag(prefix, "/coordinate")
+                + tag(prefix, "/coordinates") + tag(prefix, "type") + type + tag(prefix, "/type") + tag(prefix, "hub name=\"FR\"/")
+                + tag(prefix, "/limitnetposition");
+    }
+
+    private static String tag(final String prefix,
+                              final String content) {
+        return content.startsWith("/") ? "</" + prefix + content.substring(1) + ">" : "<" + prefix + content + ">";
+    }
+
+    private static CnecRamCacheConfiguration configuration(final String directory) {
+        final CnecRamCacheConfiguration configuration = new CnecRamCacheConfiguration();
+        configuration.setDirectory(directory);
+        return configuration;
+    }
+}
@@ -6,6 +6,10 @@
  */
 package com.farao_community.farao.gridcapa_core_valid_intraday.app.services;
 
+import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.HubRegistry;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.BranchDataSet;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.FlowBasedDomainBranchData;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.NetPositionLimits;
 import com.farao_community.farao.gridcapa_core_valid_commons.vertex.Vertex;
 import com.farao_community.farao.gridcapa_core_valid_intraday.api.exception.CoreValidIntradayInvalidDataException;
 import com.farao_community.farao.gridcapa_core_valid_intraday.api.resource.CoreValidIntradayFileResource;
@@ -25,6 +29,7 @@ import java.math.BigDecimal;
 import java.net.URI;
 import java.net.URL;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -95,6 +100,16 @@ class FileImporterTest {
                 .containsExactlyInAnyOrderEntriesOf(entries);
     }
 
+    @Test
+    void shouldStreamVerticesFromCoreHubSettings() {
+        final CoreValidIntradayFileResource verticesFile = createFileResource("vertex",  getClass().getResource("/fake-vertice.csv"));
+        final List<Vertex> vertices = new ArrayList<>();
+        final long count = fileImporter.importVertices(verticesFile, vertices::add);
+        Assertions.assertThat(count).isEqualTo(4);
+        Assertions.assertThat(vertices)
+                .containsExactlyElementsOf(fileImporter.importVertices(verticesFile));
+    }
+
     @Test
     void importVerticeShouldThrowCoreValidIntradayInvalidDataException() throws Exception {
 
@@ -132,6 +147,47 @@ class FileImporterTest {
         assertEquals("2025-09-20T22:00Z/2025-09-20T23:00Z", flowBasedDomainDocument.getFlowBasedDomainTimeInterval().getV());
     }
 
+    @Test
+    void importCnecRamBranchDataTest() {
+        final CoreValidIntradayFileResource cnecRamFile = createFileResource("cnecRam", getClass().getResource("/20250921-0000-FID2-645-INIT_VIRG_REFBAL_PRES_FBPARAMS-v3.xml"));
+        final List<FlowBasedDomainBranchData> branches = fileImporter.importCnecRamBranchData(cnecRamFile, OffsetDateTime.parse("2025-09-20T22:30Z"));
+        Assertions.assertThat(branches).hasSize(1).isInstanceOf(BranchDataSet.class);
+        final FlowBasedDomainBranchData branch = branches.getFirst();
+        assertEquals("XXXXXXXXXXXX", branch.getId());
+        assertEquals(100, branch.getRam0Core());
+        assertEquals(0, branch.getAmr());
+        Assertions.assertThat(branch.getPtdfValues())
+                .hasSize(14)
+                .containsEntry("AT", new BigDecimal("0.000100"))
+                .containsEntry("HR", new BigDecimal("-0.001000"));
+    }
+
+    @Test
+    void importCnecRamNetPositionLimitsTest() {
+        final CoreValidIntradayFileResource cnecRamFile = createFileResource("cnecRam", getClass().getResource("/20250921-0000-FID2-645-INIT_VIRG_REFBAL_PRES_FBPARAMS-v3.xml"));
+        Assertions.assertThat(fileImporter.importCnecRamNetPositionLimits(cnecRamFile, OffsetDateTime.parse("2025-09-20T22:00Z")))
+                .isEqualTo(NetPositionLimits.NONE);
+    }
+
+    @Test
+    void importCnecRamBranchDataByTimestampTest() {
+        final CoreValidIntradayFileResource cnecRamFile = createFileResource("cnecRam", getClass().getResource("/20250921-0000-FID2-645-INIT_VIRG_REFBAL_PRES_FBPARAMS-v3.xml"));
+        final Map<OffsetDateTime, List<FlowBasedDomainBranchData>> branchesByTimestamp = fileImporter.importCnecRamBranchDataByTimestamp(cnecRamFile, null);
+        Assertions.assertThat(branchesByTimestamp).containsOnlyKeys(OffsetDateTime.parse("2025-09-20T22:00Z"));
+        Assertions.assertThat(branchesByTimestamp.get(OffsetDateTime.parse("2025-09-20T22:00Z")))
+                .containsExactlyElementsOf(fileImporter.importCnecRamBranchData(cnecRamFile, OffsetDateTime.parse("2025-09-20T22:00Z")));
+    }
+
+    @Test
+    void importCnecRamBranchDataThrowExceptionWhenNoIntervalCoversTimestamp() {
+        final CoreValidIntradayFileResource cnecRamFile = createFileResource("cnecRam", getClass().getResource("/20250921-0000-FID2-645-INIT_VIRG_REFBAL_PRES_FBPARAMS-v3.xml"));
+        final CoreValidIntradayInvalidDataException exception = assertThrows(
+                CoreValidIntradayInvalidDataException.class,
+                () -> fileImporter.importCnecRamBranchData(cnecRamFile, OffsetDateTime.parse("2025-09-20T23:00Z"))
+        );
+        assertEquals("No interval of FlowBasedDomainDocument covers 2025-09-20T23:00Z", exception.getCause().getMessage());
+    }
+
     @Test
     void importCnecRamFileThrowExceptionWhenInvalidXmlFile() {
         final CoreValidIntradayFileResource cnecRamFile = createFileResource("cnecRam", getClass().getResource("/cnecRam-invalid.xml"));
@@ -167,6 +223,19 @@ class FileImporterTest {
 
     }
 
+    @Test
+    void importAggregatedScheduleNetPositionsTest() {
+        final CoreValidIntradayFileResource aggregatedScheduleFile = createFileResource("aggregatedSchedule", getClass().getResource("/DA_agregated_schedule_20251014_003.xml"));
+        final ScheduleNetPositions netPositions = fileImporter.importAggregatedScheduleNetPositions(aggregatedScheduleFile);
+
+        final int frenchHub = netPositions.ordinalOfArea("10YFR-RTE------C");
+        assertEquals(OffsetDateTime.parse("2025-10-13T22:00Z"), netPositions.start());
+        assertEquals(new BigDecimal("-15.500"), netPositions.netPosition(frenchHub, 0));
+        // the German control block of the file is not the bidding zone of the DE hub
+        assertEquals(HubRegistry.UNKNOWN, netPositions.ordinalOfArea("10YCB-GERMANY--8"));
+        assertEquals(new BigDecimal("-15.500"), netPositions.highestNetPosition(frenchHub, OffsetDateTime.parse("2025-10-13T22:30Z")));
+    }
+
     private CoreValidIntradayFileResource createFileResource(final String filename, final URL resource) {
         return new CoreValidIntradayFileResource(filename, resource.toExternalForm());
     }
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa_core_valid_intraday.app.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static java.util.Comparator.comparingDouble;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NearestVerticesTest {
+
+    @Test
+    void shouldSelectAsStableSortOnDistances() {
+        final Random random = new Random(7);
+        for (final int size : new int[] {0, 1, 50, NearestVertices.PARALLEL_THRESHOLD * 3 + 17}) {
+            final double[] squaredDistances = new double[size];
+            for (int i = 0; i < size; i++) {
+                // few distinct values for ties, and neighbouring doubles sharing a square root
+                final double value = random.nextInt(500) * 1_000.0;
+                squaredDistances[i] = random.nextBoolean() ? value : Math.nextUp(value);
+            }
+            for (final int n : new int[] {0, 1, 10, 1_000, size + 1}) {
+                assertThat(NearestVertices.nearest(squaredDistances, n)).containsExactly(sortedBySqrt(squaredDistances, n));
+            }
+            final int[] candidates = IntStream.range(0, size).filter(i -> i % 3 != 0).toArray();
+            assertThat(NearestVertices.nearest(squaredDistances, candidates, 25))
+                .containsExactly(IntStream.of(candidates)
+                                     .boxed()
+                                     .sorted(comparingDouble(i -> Math.sqrt(squaredDistances[i])))
+                                     .limit(25)
+                                     .mapToInt(Integer::intValue)
+                                     .toArray());
+        }
+    }
+
+    @Test
+    void shouldCompareToRadiusAsSquareRoot() {
+        final Random random = new Random(11);
+        for (int i = 0; i < 100_000; i++) {
+            final double radius = random.nextInt(10_000) + random.nextDouble();
+            final double squaredRadius = radius * radius;
+            final double squaredDistance = switch (i % 3) {
+                case 0 -> squaredRadius;
+                case 1 -> Math.nextUp(squaredRadius);
+                default -> squaredRadius * random.nextDouble() * 2;
+            };
+            assertThat(NearestVertices.isWithin(squaredDistance, radius, squaredRadius))
+                .isEqualTo(Math.sqrt(squaredDistance) <= radius);
+        }
+        assertThat(NearestVertices.isWithin(0.25, -0.5, 0.25)).isFalse();
+    }
+
+    private static int[] sortedBySqrt(final double[] squaredDistances,
+                                      final int n) {
+        return IntStream.range(0, squaredDistances.length)
+            .boxed()
+            .sorted(comparingDouble(i -> Math.sqrt(squaredDistances[i])))
+            .limit(n)
+            .mapToInt(Integer::intValue)
+            .toArray();
+    }
+}
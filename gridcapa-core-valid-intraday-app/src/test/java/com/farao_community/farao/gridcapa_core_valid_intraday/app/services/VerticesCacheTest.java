@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa_core_valid_intraday.app.services;
+
+import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.CoreHub;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.VertexSet;
+import com.farao_community.farao.gridcapa_core_valid_intraday.app.configuration.VerticesCacheConfiguration;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+class VerticesCacheTest {
+
+    private static final byte[] VERTICES = "Vertex ID,FR,BE,BE_AL\n1,11,111,\n2,22,-222,5\n".getBytes(UTF_8);
+
+    private final List<CoreHub> coreHubs = List.of(
+            new CoreHub("France", "FR", "PTDF_FR", "FR-CORE", "FR", false, 1),
+            new CoreHub("Belgique", "BE", "PTDF_BE", "BE-CORE", "BE", false, 1),
+            new CoreHub("Hub Belgique AleGro", "BE_ALEGrO", "PTDF_BE_AL", "ALBE-CORE", "BE_AL", true, 1)
+    );
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void parsedVerticesAreCachedByContent() throws IOException {
+        final VerticesCache verticesCache = new VerticesCache(configuration(directory.resolve("cache").toString()));
+
+        final VertexSet parsed = verticesCache.importVertices(new ByteArrayInputStream(VERTICES), coreHubs);
+        final Path cacheFile = directory.resolve("cache").resolve(VerticesCache.cacheKey(VERTICES, coreHubs) + ".vertices");
+        Assertions.assertThat(cacheFile).isRegularFile();
+
+        final VertexSet cached = verticesCache.importVertices(new ByteArrayInputStream(VERTICES), coreHubs);
+        Assertions.assertThat(cached).containsExactlyElementsOf(parsed);
+        Assertions.assertThat(cached.getFirst().coordinates()).containsEntry("BE_AL", 0);
+        try (final Stream<Path> files = Files.list(directory.resolve("cache"))) {
+            Assertions.assertThat(files).containsExactly(cacheFile);
+        }
+    }
+
+    @Test
+    void cacheKeyDependsOnHubs() {
+        Assertions.assertThat(VerticesCache.cacheKey(VERTICES, coreHubs))
+                .isEqualTo(VerticesCache.cacheKey(VERTICES.clone(), coreHubs))
+                .isNotEqualTo(VerticesCache.cacheKey(VERTICES, coreHubs.subList(0, 2)));
+    }
+
+    @Test
+    void corruptedCacheFileIsReplaced() throws IOException {
+        final VerticesCache verticesCache = new VerticesCache(configuration(directory.toString()));
+        final Path cacheFile = directory.resolve(VerticesCache.cacheKey(VERTICES, coreHubs) + ".vertices");
+        Files.writeString(cacheFile, "corrupted");
+
+        final VertexSet vertices = verticesCache.importVertices(new ByteArrayInputStream(VERTICES), coreHubs);
+
+        Assertions.assertThat(vertices).hasSize(2);
+        Assertions.assertThat(Files.size(cacheFile)).isNotEqualTo("corrupted".length());
+    }
+
+    @Test
+    void unusedCacheFilesAreEvicted() throws IOException {
+        final VerticesCache verticesCache = new VerticesCache(configuration(directory.toString()));
+        final Path cacheFile = directory.resolve(VerticesCache.cacheKey(VERTICES, coreHubs) + ".vertices");
+        final Path recentFile = Files.writeString(directory.resolve("recent.vertices"), "recent");
+        final Path oldFile = Files.writeString(directory.resolve("old.vertices"), "old");
+        final Path otherFile = Files.writeString(directory.resolve("other.f645.index"), "other");
+        final FileTime eightDaysAgo = FileTime.from(Instant.now().minus(Duration.ofDays(8)));
+        Files.setLastModifiedTime(oldFile, eightDaysAgo);
+        Files.setLastModifiedTime(otherFile, eightDaysAgo);
+
+        verticesCache.importVertices(new ByteArrayInputStream(VERTICES), coreHubs);
+        try (final Stream<Path> files = Files.list(directory)) {
+            Assertions.assertThat(files).containsExactlyInAnyOrder(cacheFile, recentFile, otherFile);
+        }
+
+        // reading a cached file makes it recent again
+        Files.setLastModifiedTime(cacheFile, eightDaysAgo);
+        verticesCache.importVertices(new ByteArrayInputStream(VERTICES), coreHubs);
+        Assertions.assertThat(Files.getLastModifiedTime(cacheFile)).isGreaterThan(eightDaysAgo);
+    }
+
+    @Test
+    void noDirectoryDisablesCache() {
+        final VerticesCache verticesCache = new VerticesCache(configuration(null));
+        Assertions.assertThat(verticesCache.importVertices(new ByteArrayInputStream(VERTICES), coreHubs)).hasSize(2);
+    }
+
+    private static VerticesCacheConfiguration configuration(final String directory) {
+        final VerticesCacheConfiguration configuration = new VerticesCacheConfiguration();
+        configuration.setDirectory(directory);
+        return configuration;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2026, RTE (http://www.rte-france.com)
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.farao_community.farao.gridcapa_core_valid_intraday.app.services;
+
+import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.CoreHub;
+import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.HubRegistry;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.Vertex;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.VerticesUtils;
+import com.powsybl.openrao.data.refprog.referenceprogram.ReferenceProgram;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class VerticesIndexTest {
+
+    private static final double[] COEFFICIENTS = {1, 2, 0.5, 0, 1, 3};
+
+    private final List<CoreHub> coreHubs = new ArrayList<>();
+    private final Random random = new Random(5);
+
+    VerticesIndexTest() {
+        for (int hub = 0; hub < COEFFICIENTS.length; hub++) {
+            coreHubs.add(new CoreHub("Hub" + hub, "ram" + hub, "fb" + hub, "FC" + hub, "V" + hub, hub == 5, COEFFICIENTS[hub]));
+        }
+    }
+
+    @Test
+    void shouldSelectSameVerticesAsLinearScan() {
+        final List<Vertex> vertexSet = randomVertices(20_000);
+        final List<Vertex> vertexList = List.copyOf(vertexSet);
+        final VerticesSelector selector = new VerticesSelector(HubRegistry.of(coreHubs));
+        final VerticesIndex setIndex = selector.index(vertexSet);
+        final VerticesIndex listIndex = selector.index(vertexList);
+
+        for (int query = 0; query < 30; query++) {
+            final ReferenceProgram referenceProgram = randomReferenceProgram();
+            final int n = random.nextInt(1, 300);
+            final double radius = random.nextDouble(0, 4_000);
+
+            final List<Vertex> closest = selector.selectClosestVertices(vertexSet, referenceProgram, n);
+            assertThat(selector.selectClosestVertices(setIndex, referenceProgram, n)).containsExactlyElementsOf(closest);
+            assertThat(selector.selectClosestVertices(listIndex, referenceProgram, n)).containsExactlyElementsOf(closest);
+
+            final List<Vertex> inSphere = selector.selectVerticesWithinNSphere(vertexSet, referenceProgram, radius, n);
+            assertThat(selector.selectVerticesWithinNSphere(setIndex, referenceProgram, radius, n)).containsExactlyElementsOf(inSphere);
+            assertThat(selector.selectVerticesWithinNSphere(listIndex, referenceProgram, radius, n)).containsExactlyElementsOf(inSphere);
+        }
+    }
+
+    @Test
+    void shouldHandleSmallAndEmptySets() {
+        final VerticesSelector selector = new VerticesSelector(HubRegistry.of(coreHubs));
+        final ReferenceProgram referenceProgram = randomReferenceProgram();
+        final List<Vertex> vertices = randomVertices(40);
+
+        assertThat(selector.selectClosestVertices(selector.index(List.of()), referenceProgram, 3)).isEmpty();
+        assertThat(selector.selectClosestVertices(selector.index(vertices), referenceProgram, 3))
+            .containsExactlyElementsOf(selector.selectClosestVertices(vertices, referenceProgram, 3));
+        assertThat(selector.selectVerticesWithinNSphere(selector.index(vertices), referenceProgram, -1, 3))
+            .containsExactlyElementsOf(selector.selectVerticesWithinNSphere(vertices, referenceProgram, -1, 3));
+    }
+
+    @Test
+    void shouldRejectNegativeCoefficients() {
+        final VerticesSelector selector = new VerticesSelector(HubRegistry.of(List.of(new CoreHub("Hub", "ram", "fb", "FC", "V", false, -1))));
+        final List<Vertex> vertices = List.of();
+
+        assertThatExceptionOfType(IllegalStateException.class)
+            .isThrownBy(() -> selector.index(vertices))
+            .withMessage("Vertices can only be indexed with non-negative hub coefficients");
+    }
+
+    /**
+     * Coordinates on a coarse grid, so that many vertices are at the same distance of the market.
+     */
+    private List<Vertex> randomVertices(final int count) {
+        final StringBuilder csv = new StringBuilder("Vertex ID");
+        coreHubs.forEach(hub -> csv.append(',').append(hub.clusterVerticeCode()));
+        for (int id = 0; id < count; id++) {
+            csv.append('\n').append(id);
+            for (int hub = 0; hub < coreHubs.size(); hub++) {
+                csv.append(',').append(random.nextInt(-40, 40) * 100);
+            }
+        }
+        return VerticesUtils.importVertexSet(new ByteArrayInputStream(csv.toString().getBytes(UTF_8)), coreHubs);
+    }
+
+    private ReferenceProgram randomReferenceProgram() {
+        final Map<String, Double> netPositions = new HashMap<>();
+        coreHubs.forEach(hub -> netPositions.put(hub.forecastCode(), random.nextInt(-40, 40) * 100.0));
+        return new ReferenceProgram(new ArrayList<>()) {
+            @Override
+            public double getGlobalNetPosition(final String area) {
+                return netPositions.get(area);
+            }
+        };
+    }
+}
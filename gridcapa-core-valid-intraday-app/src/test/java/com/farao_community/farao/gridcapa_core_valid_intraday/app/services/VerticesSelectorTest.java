@@ -8,18 +8,32 @@ package com.farao_community.farao.gridcapa_core_valid_intraday.app.services;
 
 import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.CoreHub;
 import com.farao_community.farao.gridcapa_core_valid_commons.core_hub.CoreHubsConfiguration;
+import com.farao_community.farao.gridcapa_core_valid_commons.exception.CoreValidCommonsInvalidDataException;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.CompiledFlowBasedDomain;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.FlowBasedDomainBranchData;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.ProjectionEngine;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.ProjectionParameters;
 import com.farao_community.farao.gridcapa_core_valid_commons.vertex.Vertex;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.VertexSet;
+import com.farao_community.farao.gridcapa_core_valid_commons.vertex.VerticesUtils;
 import com.powsybl.openrao.data.refprog.referenceprogram.ReferenceExchangeData;
 import com.powsybl.openrao.data.refprog.referenceprogram.ReferenceProgram;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
 class VerticesSelectorTest {
+    private static final ProjectionParameters SEQUENTIAL = ProjectionParameters.sequential(ProjectionEngine.FIXED_POINT);
     private final VerticesSelector selector = new VerticesSelector(new TestCoreHubConf());
 
     @Test
@@ -47,6 +61,92 @@ class VerticesSelectorTest {
         assertThat(getIds(selectedVertices)).containsExactlyInAnyOrder(1, 5);
     }
 
+    @Test
+    void shouldSelectSameVerticesFromVertexSet() {
+        final VertexSet vertexSet = VerticesUtils.importVertexSet(new ByteArrayInputStream("""
+            Vertex ID,CC,AA,BB
+            1,-300,-301,600
+            2,-300,300,-600
+            3,-300,300,600
+            4,-300,-350,600
+            5,-300,-299,600
+            """.getBytes(StandardCharsets.UTF_8)), new TestCoreHubConf().getCoreHubs());
+
+        assertThat(getIds(selector.selectClosestVertices(vertexSet, getTestRefProg(), 2))).containsExactly(1, 5);
+        assertThat(getIds(selector.selectVerticesWithinNSphere(vertexSet, getTestRefProg(), 1000.0, 3))).containsExactly(1, 5, 4);
+    }
+
+    @Test
+    void shouldSelectSameVerticesWhileReadingStream() {
+        final List<CoreHub> coreHubs = new TestCoreHubConf().getCoreHubs();
+        final Random random = new Random(3);
+        final StringBuilder csv = new StringBuilder("Vertex ID,AA,BB,CC");
+        for (int id = 0; id < 5_000; id++) {
+            csv.append('\n').append(id).append(',').append(random.nextInt(-1000, 1000))
+                .append(',').append(random.nextInt(-1000, 1000)).append(',').append(random.nextInt(-1000, 1000));
+        }
+        final byte[] content = csv.toString().getBytes(StandardCharsets.UTF_8);
+        final List<FlowBasedDomainBranchData> branches = List.of(branch(700, 0.2, -0.1, 0.05), branch(500, -0.15, 0.3, 0.1), branch(900, 0.05, 0.05, -0.25));
+        final CompiledFlowBasedDomain domain = CompiledFlowBasedDomain.compile(branches, coreHubs);
+        final List<Vertex> projectedVertices = VerticesUtils.getVerticesProjectedOnDomain(VerticesUtils.importVertices(new ByteArrayInputStream(content), coreHubs), branches, coreHubs);
+
+        for (final double radius : new double[] {-1, 10, 100, 400, 3000}) {
+            for (final int n : new int[] {0, 1, 20, 500, 5_000, 6_000}) {
+                assertThat(selector.selectVerticesWithinNSphere(new ByteArrayInputStream(content), domain, SEQUENTIAL, getTestRefProg(), radius, n))
+                    .containsExactlyElementsOf(selector.selectVerticesWithinNSphere(projectedVertices, getTestRefProg(), radius, n));
+            }
+        }
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            final ProjectionParameters parallel = ProjectionParameters.parallel(ProjectionEngine.FIXED_POINT, pool);
+            for (final int n : new int[] {0, 1, 20, 500, 5_000, 6_000}) {
+                assertThat(selector.selectClosestVertices(new ByteArrayInputStream(content), domain, parallel, getTestRefProg(), n))
+                    .containsExactlyElementsOf(selector.selectClosestVertices(projectedVertices, getTestRefProg(), n));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void shouldReportInvalidStreamedVertices() {
+        final List<CoreHub> coreHubs = new TestCoreHubConf().getCoreHubs();
+        final CompiledFlowBasedDomain domain = CompiledFlowBasedDomain.compile(List.of(branch(700, 0.2, -0.1, 0.05)), coreHubs);
+        final StringBuilder csv = new StringBuilder("Vertex ID,AA,BB,CC");
+        for (int id = 0; id < 10_000; id++) {
+            csv.append('\n').append(id).append(",1,2,3");
+        }
+        csv.append("\n10000,1,2,x");
+        final ByteArrayInputStream verticesStream = new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8));
+        final ReferenceProgram referenceProgram = getTestRefProg();
+
+        assertThatExceptionOfType(CoreValidCommonsInvalidDataException.class)
+            .isThrownBy(() -> selector.selectClosestVertices(verticesStream, domain, SEQUENTIAL, referenceProgram, 10))
+            .withMessage("Exception occurred while parsing vertices file");
+    }
+
+    private static FlowBasedDomainBranchData branch(final int ram,
+                                                    final double ptdfA,
+                                                    final double ptdfB,
+                                                    final double ptdfC) {
+        return new FlowBasedDomainBranchData() {
+            @Override
+            public int getRam0Core() {
+                return ram;
+            }
+
+            @Override
+            public int getAmr() {
+                return 0;
+            }
+
+            @Override
+            public Map<String, BigDecimal> getPtdfValues() {
+                return Map.of("fb1", BigDecimal.valueOf(ptdfA), "fb2", BigDecimal.valueOf(ptdfB), "fb3", BigDecimal.valueOf(ptdfC));
+            }
+        };
+    }
+
     private ReferenceProgram getTestRefProg() {
         // net positions : AA = -300 , BB = 600, CC = -300
         return new TestRefProg();